@@ -33,4 +33,13 @@ public class Main extends Application {
             e.printStackTrace();
         }
     }
+
+    @Override
+    public void stop() {
+        try {
+            overflow.shutdown();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
 }
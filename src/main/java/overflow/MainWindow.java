@@ -1,3 +1,5 @@
+import java.io.IOException;
+
 import javafx.animation.PauseTransition;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
@@ -41,12 +43,14 @@ public class MainWindow extends AnchorPane {
     }
 
     /**
-     * Injects the Overflow instance.
+     * Injects the Overflow instance and shows its reminders as Overflow's dialog boxes.
      *
      * @param overflow The Overflow chatbot instance.
      */
     public void setOverflow(Overflow overflow) {
         this.overflow = overflow;
+        overflow.setReminderListener(reminder -> Platform.runLater(() ->
+                dialogContainer.getChildren().add(DialogBox.getOverflowDialog(reminder, overflowImage))));
     }
 
     /**
@@ -64,6 +68,11 @@ public class MainWindow extends AnchorPane {
 
         if (input.equals("bye")) {
             String farewell = "Looking for the next time we meet!";
+            try {
+                overflow.shutdown();
+            } catch (IOException e) {
+                farewell = "Error saving tasks: " + e.getMessage() + "\n" + farewell;
+            }
             dialogContainer.getChildren().add(DialogBox.getOverflowDialog(farewell, overflowImage));
             userInput.setDisable(true);
             sendButton.setDisable(true);
@@ -2,18 +2,28 @@ package overflow;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.List;
+import java.util.function.Consumer;
 
 import overflow.exception.OverflowException;
 import overflow.parser.Parser;
+import overflow.storage.Durability;
 import overflow.storage.Storage;
+import overflow.storage.WriteBehindSaver;
 import overflow.task.Deadline;
 import overflow.task.Event;
+import overflow.task.RecurringEvent;
 import overflow.task.Task;
 import overflow.task.Todo;
+import overflow.tasklist.ReminderScheduler;
+import overflow.tasklist.SearchPage;
+import overflow.tasklist.SortKey;
 import overflow.tasklist.TaskList;
+import overflow.tasklist.TaskQuery;
 import overflow.ui.Ui;
 
 /**
@@ -23,8 +33,14 @@ public class Overflow {
     private static final int MARK_COMMAND_LENGTH = 4; // length of "mark"
     private static final int UNMARK_COMMAND_LENGTH = 6; // length of "unmark"
     private static final int DELETE_COMMAND_LENGTH = 6; // length of "delete"
+    private static final Duration DEFAULT_MAX_STALENESS = Duration.ofMillis(100);
     private Storage storage;
+    private WriteBehindSaver saver;
     private TaskList tasks;
+    private SearchPage lastSearch;
+    private SortKey view; // the order the list was last shown in, or null for list order
+    private ReminderScheduler reminders;
+    private volatile Consumer<String> reminderListener;
     private Ui ui;
 
     /**
@@ -33,17 +49,56 @@ public class Overflow {
      * @param filePath Path to the file where tasks are stored.
      */
     public Overflow(String filePath) {
+        this(filePath, DEFAULT_MAX_STALENESS);
+    }
+
+    /**
+     * Creates a chatbot.Overflow chatbot that lets unsaved changes wait up to the given time,
+     * so that bursts of commands are written to disk together.
+     *
+     * @param filePath Path to the file where tasks are stored.
+     * @param maxStaleness How long a change may wait before it is written.
+     */
+    public Overflow(String filePath, Duration maxStaleness) {
+        this(filePath, maxStaleness, Durability.FLUSH);
+    }
+
+    /**
+     * Creates a chatbot.Overflow chatbot with the given trade-off between save speed and durability.
+     *
+     * @param filePath Path to the file where tasks are stored.
+     * @param maxStaleness How long a change may wait before it is written.
+     * @param durability How far each save is pushed towards the disk.
+     */
+    public Overflow(String filePath, Duration maxStaleness, Durability durability) {
         assert filePath != null : "File path cannot be null";
         assert !filePath.isEmpty() : "File path cannot be empty";
 
         ui = new Ui();
-        storage = new Storage(filePath);
+        storage = new Storage(filePath, true);
+        storage.setDurability(durability);
         try {
             tasks = new TaskList(storage.loadTasks());
         } catch (FileNotFoundException e) {
             ui.showLoadingError();
             tasks = new TaskList();
         }
+        saver = new WriteBehindSaver(storage, tasks, maxStaleness);
+
+        reminderListener = ui::showReminder;
+        reminders = new ReminderScheduler(task -> reminderListener.accept(ui.getReminder(task)));
+        tasks.setReminderScheduler(reminders);
+        reminders.start();
+    }
+
+    /**
+     * Sends reminders of due deadlines and starting events somewhere other than the console,
+     * such as a chat window. The listener is called on the reminder thread.
+     *
+     * @param listener Called with the text of each reminder.
+     */
+    public void setReminderListener(Consumer<String> listener) {
+        reminderListener = listener;
     }
 
     /**
@@ -61,7 +116,9 @@ public class Overflow {
                     continue;
                 }
 
-                handleCommand(input);
+                synchronized (tasks) {
+                    handleCommand(input);
+                }
 
             } catch (OverflowException e) {
                 ui.showError(e.getMessage());
@@ -70,9 +127,28 @@ public class Overflow {
             }
         }
 
+        try {
+            shutdown();
+        } catch (IOException e) {
+            ui.showError("Error saving tasks: " + e.getMessage());
+        }
         ui.showGoodbye();
     }
 
+    /**
+     * Writes any unsaved changes to disk and releases the storage.
+     *
+     * @throws IOException If there's an error saving tasks.
+     */
+    public void shutdown() throws IOException {
+        reminders.close();
+        try {
+            saver.close();
+        } finally {
+            storage.close();
+        }
+    }
+
     /**
      * Handles a user input depending on the command word.
      *
@@ -85,8 +161,12 @@ public class Overflow {
 
         switch (command) {
         case "list":
+            view = null;
             ui.showTasks(tasks);
             break;
+        case "sort":
+            handleSort(input);
+            break;
         case "mark":
             handleMark(input);
             break;
@@ -108,57 +188,146 @@ public class Overflow {
         case "find":
             handleFind(input);
             break;
+        case "find~":
+            handleFuzzyFind(input);
+            break;
+        case "more":
+            handleMore();
+            break;
         case "undo":
             handleUndo();
             break;
+        case "redo":
+            handleRedo();
+            break;
+        case "between":
+            handleBetween(input);
+            break;
+        case "where":
+            handleWhere(input);
+            break;
+        case "upcoming":
+            handleUpcoming(input);
+            break;
+        case "stats":
+            ui.showStats(tasks.getStats(LocalDateTime.now()));
+            break;
+        case "memory":
+            ui.showMemory(tasks.size(), storage.getNamesSharedOnLoad(), storage.getBytesSavedOnLoad());
+            break;
         default:
             ui.showError("Sorry I don't understand what you are saying ;-;");
         }
     }
 
     /**
-     * Handles the mark command to mark a task.
+     * Handles the mark command to mark one task, a selection of tasks or one occurrence of a repeating event.
      *
      * @param input The user's input.
-     * @throws OverflowException If the index is invalid.
+     * @throws OverflowException If the selection is invalid.
      * @throws IOException If there's an error saving tasks.
      */
     private void handleMark(String input) throws OverflowException, IOException {
-        int index = Parser.parseIndex(input, MARK_COMMAND_LENGTH) - 1;
+        if (Parser.isOccurrenceSelection(input)) {
+            Object[] parts = Parser.parseOccurrence(input, MARK_COMMAND_LENGTH, tasks.size());
+            int index = toIndices(new int[]{(Integer) parts[0]})[0];
+            ui.showOccurrenceMarked(tasks.markOccurrence(index, (LocalDate) parts[1]));
+            recordChanges();
+            return;
+        }
+
+        int[] indices = toIndices(Parser.parseIndices(input, MARK_COMMAND_LENGTH, tasks.size()));
 
-        tasks.mark(index);
-        ui.showTaskMarked(tasks.get(index));
-        storage.saveChange(tasks.getTasks());
+        List<Task> marked = tasks.mark(indices);
+        if (marked.size() == 1) {
+            ui.showTaskMarked(marked.get(0));
+        } else {
+            ui.showTasksMarked(marked);
+        }
+        recordChanges();
     }
 
     /**
-     * Handles the unmark command to unmark a task.
+     * Handles the unmark command to unmark one task, a selection of tasks or one occurrence of a repeating event.
      *
      * @param input The user's input.
-     * @throws OverflowException If the index is invalid.
+     * @throws OverflowException If the selection is invalid.
      * @throws IOException If there's an error saving tasks.
      */
     private void handleUnmark(String input) throws OverflowException, IOException {
-        int index = Parser.parseIndex(input, UNMARK_COMMAND_LENGTH) - 1;
+        if (Parser.isOccurrenceSelection(input)) {
+            Object[] parts = Parser.parseOccurrence(input, UNMARK_COMMAND_LENGTH, tasks.size());
+            int index = toIndices(new int[]{(Integer) parts[0]})[0];
+            ui.showOccurrenceUnmarked(tasks.unmarkOccurrence(index, (LocalDate) parts[1]));
+            recordChanges();
+            return;
+        }
 
-        tasks.unmark(index);
-        ui.showTaskUnmarked(tasks.get(index));
-        storage.saveChange(tasks.getTasks());
+        int[] indices = toIndices(Parser.parseIndices(input, UNMARK_COMMAND_LENGTH, tasks.size()));
+
+        List<Task> unmarked = tasks.unmark(indices);
+        if (unmarked.size() == 1) {
+            ui.showTaskUnmarked(unmarked.get(0));
+        } else {
+            ui.showTasksUnmarked(unmarked);
+        }
+        recordChanges();
     }
 
     /**
-     * Handles the delete command to delete a task.
+     * Handles the delete command to delete one task, a selection of tasks or every done task.
      *
      * @param input The user's input.
-     * @throws OverflowException If the index is invalid.
+     * @throws OverflowException If the selection is invalid or no task is done.
      * @throws IOException If there's an error saving tasks.
      */
     private void handleDelete(String input) throws OverflowException, IOException {
-        int index = Parser.parseIndex(input, DELETE_COMMAND_LENGTH) - 1;
+        List<Task> deleted;
+        if (Parser.isDoneSelection(input, DELETE_COMMAND_LENGTH)) {
+            deleted = tasks.deleteDone();
+            if (deleted.isEmpty()) {
+                throw new OverflowException("OOPS! There are no done tasks to delete!");
+            }
+        } else {
+            deleted = tasks.delete(toIndices(Parser.parseIndices(input, DELETE_COMMAND_LENGTH, tasks.size())));
+        }
 
-        Task deletedTask = tasks.delete(index);
-        ui.showTaskDeleted(deletedTask, tasks.size());
-        storage.saveChange(tasks.getTasks());
+        if (deleted.size() == 1) {
+            ui.showTaskDeleted(deleted.get(0), tasks.size());
+        } else {
+            ui.showTasksDeleted(deleted, tasks.size());
+        }
+        recordChanges();
+    }
+
+    /**
+     * Saves the changes made by the command just run. A sorted list the user was shown no longer
+     * matches the list once it has changed, so task numbers follow the list order again from then on.
+     *
+     * @throws IOException If an earlier save failed.
+     */
+    private void recordChanges() throws IOException {
+        if (view != null) {
+            view = null;
+            ui.showSortCleared();
+        }
+        saver.markDirty(tasks.getLastChanges());
+    }
+
+    /**
+     * Converts task numbers as shown to the user into indices in the task list. After a sort the
+     * numbers follow the sorted order the user was shown.
+     *
+     * @param taskNumbers The task numbers (1-based).
+     * @return The indices of the tasks in the list (0-based), in ascending order.
+     * @throws OverflowException If a number is out of range.
+     */
+    private int[] toIndices(int[] taskNumbers) throws OverflowException {
+        int[] indices = new int[taskNumbers.length];
+        for (int i = 0; i < taskNumbers.length; i++) {
+            indices[i] = taskNumbers[i] - 1;
+        }
+        return view == null ? indices : tasks.toListIndices(view, indices);
     }
 
     /**
@@ -174,7 +343,7 @@ public class Overflow {
 
         tasks.add(newTask);
         ui.showTaskAdded(newTask, tasks.size());
-        storage.saveChange(tasks.getTasks());
+        recordChanges();
     }
 
     /**
@@ -192,7 +361,7 @@ public class Overflow {
 
         tasks.add(newTask);
         ui.showTaskAdded(newTask, tasks.size());
-        storage.saveChange(tasks.getTasks());
+        recordChanges();
     }
 
     /**
@@ -207,23 +376,109 @@ public class Overflow {
         String description = (String) parts[0];
         LocalDateTime startTime = (LocalDateTime) parts[1];
         LocalDateTime endTime = (LocalDateTime) parts[2];
-        Task newTask = new Event(description, startTime, endTime);
+        RecurringEvent.Period period = (RecurringEvent.Period) parts[3];
+        Task newTask = period == null
+                ? new Event(description, startTime, endTime)
+                : new RecurringEvent(description, startTime, endTime, period);
 
         tasks.add(newTask);
         ui.showTaskAdded(newTask, tasks.size());
-        storage.saveChange(tasks.getTasks());
+        recordChanges();
     }
 
     /**
-     * Handles the find command to find tasks including any give keywords.
+     * Handles the find command to show the first page of tasks that best match any given keywords.
      *
      * @param input The user's input.
-     * @throws OverflowException If no keywords provided.
+     * @throws OverflowException If no keywords provided or the page size is invalid.
      */
     private void handleFind(String input) throws OverflowException {
-        String[] keywords = Parser.parseKeyword(input, 4);
-        HashMap<String, ArrayList<Task>> results = tasks.find(keywords);
-        ui.showSearchResults(results);
+        Object[] parts = Parser.parseFind(input);
+        String[] keywords = (String[]) parts[0];
+        int limit = (Integer) parts[1];
+
+        lastSearch = tasks.search(keywords, limit);
+        ui.showSearchPage(lastSearch);
+    }
+
+    /**
+     * Handles the find~ command to show the first page of tasks with words spelled like the given keywords.
+     *
+     * @param input The user's input.
+     * @throws OverflowException If no keywords provided or the page size is invalid.
+     */
+    private void handleFuzzyFind(String input) throws OverflowException {
+        Object[] parts = Parser.parseFuzzyFind(input);
+        String[] keywords = (String[]) parts[0];
+        int limit = (Integer) parts[1];
+
+        lastSearch = tasks.searchSimilar(keywords, limit);
+        ui.showSearchPage(lastSearch);
+    }
+
+    /**
+     * Handles the more command to show the next page of the last search.
+     *
+     * @throws OverflowException If there is no search with results left to show.
+     */
+    private void handleMore() throws OverflowException {
+        if (lastSearch == null || !lastSearch.hasMore()) {
+            throw new OverflowException("OOPS! There are no more results to show!");
+        }
+
+        lastSearch = tasks.searchMore(lastSearch);
+        ui.showSearchPage(lastSearch);
+    }
+
+    /**
+     * Handles the between command to list the events overlapping a time range.
+     *
+     * @param input The user's input.
+     * @throws OverflowException If the range is invalid.
+     */
+    private void handleBetween(String input) throws OverflowException {
+        LocalDateTime[] range = Parser.parseBetween(input);
+        ArrayList<Event> events = tasks.findEventsBetween(range[0], range[1]);
+        ui.showEventsBetween(events);
+    }
+
+    /**
+     * Handles the sort command to show the list in another order. Task numbers given to later
+     * commands follow that order until the list changes or is shown in its own order again.
+     *
+     * @param input The user's input.
+     * @throws OverflowException If the sort key is invalid.
+     */
+    private void handleSort(String input) throws OverflowException {
+        view = Parser.parseSort(input);
+        ui.showSortedTasks(tasks.getSorted(view), view);
+    }
+
+    /**
+     * Handles the where command to list the tasks that meet every given condition, printing each
+     * one as soon as it is found, numbered as in the order the list was last shown in.
+     *
+     * @param input The user's input.
+     * @throws OverflowException If the conditions are invalid.
+     */
+    private void handleWhere(String input) throws OverflowException {
+        TaskQuery query = Parser.parseQuery(input);
+        SortKey shownIn = view;
+        int count = tasks.query(query, (task, index) ->
+                ui.showQueryMatch(task, shownIn == null ? index : tasks.getSortedIndex(shownIn, task)));
+        ui.showQueryCount(count);
+    }
+
+    /**
+     * Handles the upcoming command to list the pending deadlines that are due next.
+     *
+     * @param input The user's input.
+     * @throws OverflowException If the count is invalid.
+     */
+    private void handleUpcoming(String input) throws OverflowException {
+        int count = Parser.parseUpcoming(input);
+        ArrayList<Deadline> deadlines = tasks.findUpcomingDeadlines(LocalDateTime.now(), count);
+        ui.showUpcomingDeadlines(deadlines);
     }
 
     /**
@@ -235,7 +490,19 @@ public class Overflow {
     private void handleUndo() throws OverflowException, IOException {
         tasks.undo();
         ui.showUndo();
-        storage.saveChange(tasks.getTasks());
+        recordChanges();
+    }
+
+    /**
+     * Handles the redo command to apply the most recently undone action again.
+     *
+     * @throws OverflowException If there is nothing to redo.
+     * @throws IOException If there's an error saving tasks.
+     */
+    private void handleRedo() throws OverflowException, IOException {
+        tasks.redo();
+        ui.showRedo();
+        recordChanges();
     }
 
     /**
@@ -256,7 +523,9 @@ public class Overflow {
             java.io.PrintStream old = System.out;
             System.setOut(ps);
 
-            handleCommand(input);
+            synchronized (tasks) {
+                handleCommand(input);
+            }
 
             System.out.flush();
             System.setOut(old);
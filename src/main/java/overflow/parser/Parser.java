@@ -5,11 +5,19 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import overflow.exception.OverflowException;
+import overflow.task.RecurringEvent;
+import overflow.tasklist.SortKey;
+import overflow.tasklist.TaskList;
+import overflow.tasklist.TaskQuery;
 
 /**
  * Parses user input into commands and their parameters.
@@ -18,6 +26,20 @@ public class Parser {
     private static final int TODO_COMMAND_LENGTH = 4; // length of "todo"
     private static final int DEADLINE_COMMAND_LENGTH = 8; // length of "deadline"
     private static final int EVENT_COMMAND_LENGTH = 5; // length of "event"
+    private static final int BETWEEN_COMMAND_LENGTH = 7; // length of "between"
+    private static final int UPCOMING_COMMAND_LENGTH = 8; // length of "upcoming"
+    private static final int FIND_COMMAND_LENGTH = 4; // length of "find"
+    private static final int FUZZY_FIND_COMMAND_LENGTH = 5; // length of "find~"
+    private static final int WHERE_COMMAND_LENGTH = 5; // length of "where"
+    private static final int SORT_COMMAND_LENGTH = 4; // length of "sort"
+    private static final int DEFAULT_UPCOMING_COUNT = 5;
+    private static final int DEFAULT_FIND_LIMIT = 20;
+    private static final int MAX_FIND_LIMIT = 1000; // more results than this would not fit on a screen anyway
+    private static final Pattern CONDITION = Pattern.compile("([a-z]+)(<=|>=|<|>|=|~)(.+)");
+    private static final Pattern TIME_OF_DAY = Pattern.compile("\\d{4}");
+    private static final Pattern DATE_CONDITION = Pattern.compile("(by|from|to)(<=|>=|<|>|=)[^ ]+");
+    private static final String QUERY_HELP = "Use type=T|D|E, done=0|1, name~WORD, or by, from and to"
+            + " with <, <=, =, >= or > and a time!";
     private static final List<Map.Entry<String, Function<String, LocalDateTime>>> FORMAT_PARSERS = List.of(
             Map.entry("now", s -> LocalDateTime.now()),
             Map.entry("today", s -> LocalDate.now().atStartOfDay()),
@@ -65,8 +87,26 @@ public class Parser {
             return "event";
         case "find":
             return "find";
+        case "find~":
+            return "find~";
+        case "more":
+            return "more";
         case "undo":
             return "undo";
+        case "redo":
+            return "redo";
+        case "between":
+            return "between";
+        case "upcoming":
+            return "upcoming";
+        case "memory":
+            return "memory";
+        case "stats":
+            return "stats";
+        case "where":
+            return "where";
+        case "sort":
+            return "sort";
         default:
             return "unknown";
         }
@@ -114,11 +154,12 @@ public class Parser {
     }
 
     /**
-     * Parses an event command.
+     * Parses an event command, which may end with "/every day" or "/every week" for a repeating event.
      *
      * @param input The full user input.
-     * @return An array with [description, startTime as LocalDateTime, endTime as LocalDateTime].
-     * @throws OverflowException If the description or times are invalid.
+     * @return An array with [description, startTime as LocalDateTime, endTime as LocalDateTime,
+     *     period as RecurringEvent.Period or null if the event does not repeat].
+     * @throws OverflowException If the description, times or period are invalid.
      */
     public static Object[] parseEvent(String input) throws OverflowException {
         String processedInput = input.substring(EVENT_COMMAND_LENGTH).trim();
@@ -139,10 +180,152 @@ public class Parser {
             throw new OverflowException("OOPS!!! The event must have a /to time.");
         }
 
+        String[] endParts = eventTimeParts[1].split(" /every ", 2);
+        RecurringEvent.Period period = null;
+        if (endParts.length == 2) {
+            period = RecurringEvent.Period.fromKeyword(endParts[1].trim());
+            if (period == null) {
+                throw new OverflowException("OOPS! An event can only repeat every day or every week.");
+            }
+        }
+
         LocalDateTime startTime = parseDateTime(eventTimeParts[0]);
-        LocalDateTime endTime = parseDateTime(eventTimeParts[1]);
+        LocalDateTime endTime = parseDateTime(endParts[0]);
+        if (period != null && endTime.isBefore(startTime)) {
+            throw new OverflowException("OOPS! A repeating event cannot end before it starts.");
+        }
+
+        return new Object[]{description, startTime, endTime, period};
+    }
+
+    /**
+     * Parses a between command.
+     *
+     * @param input The full user input.
+     * @return An array with [from, to] as LocalDateTime.
+     * @throws OverflowException If either time is missing or invalid.
+     */
+    public static LocalDateTime[] parseBetween(String input) throws OverflowException {
+        String processedInput = input.substring(BETWEEN_COMMAND_LENGTH).trim();
+        String[] rangeParts = processedInput.split(" /to ");
+
+        if (rangeParts.length < 2 || rangeParts[0].trim().isEmpty() || rangeParts[1].trim().isEmpty()) {
+            throw new OverflowException("OOPS! Use: between <from> /to <to>");
+        }
+
+        LocalDateTime from = parseDateTime(rangeParts[0]);
+        LocalDateTime to = parseDateTime(rangeParts[1]);
+        if (to.isBefore(from)) {
+            throw new OverflowException("OOPS! The end of the range cannot be before its start.");
+        }
+
+        return new LocalDateTime[]{from, to};
+    }
+
+    /**
+     * Parses an upcoming command.
+     *
+     * @param input The full user input.
+     * @return The number of deadlines to show, or a default if none is given.
+     * @throws OverflowException If the number is invalid.
+     */
+    public static int parseUpcoming(String input) throws OverflowException {
+        String countString = input.substring(UPCOMING_COMMAND_LENGTH).trim();
+
+        if (countString.isEmpty()) {
+            return DEFAULT_UPCOMING_COUNT;
+        }
+
+        try {
+            int count = Integer.parseInt(countString);
+            if (count <= 0) {
+                throw new OverflowException("OOPS! Please ask for at least one deadline!");
+            }
+            return count;
+        } catch (NumberFormatException e) {
+            throw new OverflowException("OOPS! Please provide a valid number of deadlines!");
+        }
+    }
+
+    /**
+     * Parses a where command into a query, as in "where type=D done=0 by<2026-12-01 name~report".
+     * A time may be followed by a separate time of day, as in "by<12-01 1800".
+     *
+     * @param input The full user input.
+     * @return The query for the tasks that meet every condition.
+     * @throws OverflowException If there are no conditions or one of them is invalid.
+     */
+    public static TaskQuery parseQuery(String input) throws OverflowException {
+        String[] words = input.substring(WHERE_COMMAND_LENGTH).trim().toLowerCase().split("\\s+");
+        if (words[0].isEmpty()) {
+            throw new OverflowException("OOPS! Tell me what to look for, such as: where type=D done=0 name~report");
+        }
+
+        ArrayList<String> conditionStrings = new ArrayList<>();
+        for (String word : words) {
+            int last = conditionStrings.size() - 1;
+            if (last >= 0 && TIME_OF_DAY.matcher(word).matches()
+                    && DATE_CONDITION.matcher(conditionStrings.get(last)).matches()) {
+                conditionStrings.set(last, conditionStrings.get(last) + " " + word);
+            } else {
+                conditionStrings.add(word);
+            }
+        }
 
-        return new Object[]{description, startTime, endTime};
+        ArrayList<TaskQuery.Condition> conditions = new ArrayList<>();
+        for (String conditionString : conditionStrings) {
+            conditions.add(parseCondition(conditionString));
+        }
+        return new TaskQuery(conditions);
+    }
+
+    private static TaskQuery.Condition parseCondition(String conditionString) throws OverflowException {
+        Matcher matcher = CONDITION.matcher(conditionString);
+        if (!matcher.matches()) {
+            throw new OverflowException("OOPS! I don't understand \"" + conditionString + "\". " + QUERY_HELP);
+        }
+        TaskQuery.Field field = TaskQuery.Field.fromKeyword(matcher.group(1));
+        if (field == null) {
+            throw new OverflowException("OOPS! I can only look at type, done, name, by, from and to!");
+        }
+        TaskQuery.Operator operator = null;
+        for (TaskQuery.Operator candidate : TaskQuery.Operator.values()) {
+            if (candidate.getSymbol().equals(matcher.group(2))) {
+                operator = candidate;
+            }
+        }
+        String value = matcher.group(3);
+
+        if (field.isTime() && operator != TaskQuery.Operator.CONTAINS) {
+            return new TaskQuery.Condition(field, operator, parseDateTime(value));
+        } else if (field == TaskQuery.Field.NAME && operator == TaskQuery.Operator.CONTAINS) {
+            return new TaskQuery.Condition(field, operator, value);
+        } else if (field == TaskQuery.Field.TYPE && operator == TaskQuery.Operator.EQUAL
+                && value.matches("[tde]")) {
+            return new TaskQuery.Condition(field, operator, Character.toUpperCase(value.charAt(0)));
+        } else if (field == TaskQuery.Field.DONE && operator == TaskQuery.Operator.EQUAL
+                && value.matches("[01]")) {
+            return new TaskQuery.Condition(field, operator, value.equals("1"));
+        }
+        throw new OverflowException("OOPS! I don't understand \"" + conditionString + "\". " + QUERY_HELP);
+    }
+
+    /**
+     * Parses a sort command, as in "sort by deadline".
+     *
+     * @param input The full user input.
+     * @return The key to sort by.
+     * @throws OverflowException If the key is missing or unknown.
+     */
+    public static SortKey parseSort(String input) throws OverflowException {
+        String[] sortParts = input.substring(SORT_COMMAND_LENGTH).trim().split("\\s+");
+        SortKey key = sortParts.length == 2 && sortParts[0].equalsIgnoreCase("by")
+                ? SortKey.fromKeyword(sortParts[1])
+                : null;
+        if (key == null) {
+            throw new OverflowException("OOPS! Use: sort by deadline, start, name or status!");
+        }
+        return key;
     }
 
     /**
@@ -169,6 +352,98 @@ public class Parser {
         }
     }
 
+    /**
+     * Parses a selection of tasks from mark/unmark/delete commands, such as "3", "1-500" or "3,7,9".
+     * Single numbers and ranges can be mixed, as in "1-3, 8".
+     *
+     * @param input The full user input.
+     * @param commandLength The length of the command word.
+     * @param taskCount The number of tasks in the list.
+     * @return The selected task numbers (1-based), in ascending order without repeats.
+     * @throws OverflowException If the selection is missing, malformed or out of range.
+     */
+    public static int[] parseIndices(String input, int commandLength, int taskCount) throws OverflowException {
+        String selectionString = input.substring(commandLength).trim();
+
+        if (selectionString.isEmpty()) {
+            throw new OverflowException("OOPS! You have to choose a task number!");
+        }
+
+        BitSet selected = new BitSet(taskCount + 1);
+        for (String part : selectionString.split(",")) {
+            String[] bounds = part.trim().split("\\s*-\\s*", -1);
+            if (bounds.length > 2) {
+                throw new OverflowException("OOPS! Please provide a valid task number!");
+            }
+
+            int first = parseTaskNumber(bounds[0], taskCount);
+            int last = bounds.length == 2 ? parseTaskNumber(bounds[1], taskCount) : first;
+            if (last < first) {
+                throw new OverflowException("OOPS! A range of tasks must go from the lower number to the higher one!");
+            }
+            selected.set(first, last + 1);
+        }
+        return selected.stream().toArray();
+    }
+
+    /**
+     * Checks whether a mark/unmark/delete command selects every task that is done, as in "delete done".
+     *
+     * @param input The full user input.
+     * @param commandLength The length of the command word.
+     * @return True if the command selects the done tasks.
+     */
+    public static boolean isDoneSelection(String input, int commandLength) {
+        return input.substring(commandLength).trim().equalsIgnoreCase("done");
+    }
+
+    /**
+     * Checks whether a mark/unmark command picks one occurrence of a repeating event, as in "mark 2 /on 03-17".
+     *
+     * @param input The full user input.
+     * @return True if the command names a day with /on.
+     */
+    public static boolean isOccurrenceSelection(String input) {
+        return input.contains(" /on");
+    }
+
+    /**
+     * Parses a mark/unmark command that picks one occurrence of a repeating event, as in "mark 2 /on 03-17".
+     *
+     * @param input The full user input.
+     * @param commandLength The length of the command word.
+     * @param taskCount The number of tasks in the list.
+     * @return An array with [task number (1-based) as Integer, day of the occurrence as LocalDate].
+     * @throws OverflowException If the task number or day is missing or invalid.
+     */
+    public static Object[] parseOccurrence(String input, int commandLength, int taskCount) throws OverflowException {
+        String[] occurrenceParts = input.split(" /on", 2);
+        if (occurrenceParts[1].trim().isEmpty()) {
+            throw new OverflowException("OOPS! Please tell me which day's occurrence you mean!");
+        }
+
+        int[] numbers = parseIndices(occurrenceParts[0], commandLength, taskCount);
+        if (numbers.length != 1) {
+            throw new OverflowException("OOPS! Please choose a single repeating event!");
+        }
+        LocalDate date = parseDateTime(occurrenceParts[1]).toLocalDate();
+
+        return new Object[]{numbers[0], date};
+    }
+
+    private static int parseTaskNumber(String numberString, int taskCount) throws OverflowException {
+        int number;
+        try {
+            number = Integer.parseInt(numberString);
+        } catch (NumberFormatException e) {
+            throw new OverflowException("OOPS! Please provide a valid task number!");
+        }
+        if (number < 1 || number > taskCount) {
+            throw new OverflowException("OOPS! Task number is out of range!");
+        }
+        return number;
+    }
+
     /**
      * Parses keywords from a find command.
      *
@@ -187,6 +462,54 @@ public class Parser {
         return keywordString.split("\\s+");
     }
 
+    /**
+     * Parses a find command with an optional page size, as in "find groceries /limit 20".
+     *
+     * @param input The full user input.
+     * @return An array with [keywords as String[], page size as Integer].
+     * @throws OverflowException If no keywords or too many are provided, or the page size is invalid.
+     */
+    public static Object[] parseFind(String input) throws OverflowException {
+        return parseFind(input, FIND_COMMAND_LENGTH);
+    }
+
+    /**
+     * Parses a fuzzy find command with an optional page size, as in "find~ grocey /limit 20".
+     *
+     * @param input The full user input.
+     * @return An array with [keywords as String[], page size as Integer].
+     * @throws OverflowException If no keywords or too many are provided, or the page size is invalid.
+     */
+    public static Object[] parseFuzzyFind(String input) throws OverflowException {
+        return parseFind(input, FUZZY_FIND_COMMAND_LENGTH);
+    }
+
+    private static Object[] parseFind(String input, int commandLength) throws OverflowException {
+        String[] findParts = input.split(" /limit ", 2);
+        String[] keywords = parseKeyword(findParts[0], commandLength);
+        if (keywords.length > TaskList.MAX_SEARCH_KEYWORDS) {
+            throw new OverflowException("OOPS! Please search for at most " + TaskList.MAX_SEARCH_KEYWORDS
+                    + " keywords at once!");
+        }
+
+        if (findParts.length < 2) {
+            return new Object[]{keywords, DEFAULT_FIND_LIMIT};
+        }
+
+        try {
+            int limit = Integer.parseInt(findParts[1].trim());
+            if (limit <= 0) {
+                throw new OverflowException("OOPS! Please ask for at least one result!");
+            }
+            if (limit > MAX_FIND_LIMIT) {
+                throw new OverflowException("OOPS! Please ask for at most " + MAX_FIND_LIMIT + " results at a time!");
+            }
+            return new Object[]{keywords, limit};
+        } catch (NumberFormatException e) {
+            throw new OverflowException("OOPS! Please provide a valid number of results!");
+        }
+    }
+
     /**
      * Parses a date-time string into LocalDateTime, allows a variety of
      * input formats.
@@ -0,0 +1,232 @@
+package overflow.storage;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import overflow.task.Deadline;
+import overflow.task.Event;
+import overflow.task.RecurringEvent;
+import overflow.task.Task;
+import overflow.task.Todo;
+
+/**
+ * Reads and writes task snapshots in a compact binary layout.
+ *
+ * <p>The file starts with the magic bytes "OVFB", a version byte and the task count. Each task is
+ * a tag byte holding its type and a done-bit, its id, its name as a length-prefixed UTF-8 string,
+ * and its times as minutes since the epoch. A repeating event adds the minutes between occurrences and
+ * its exceptions, each an occurrence number and a done byte. Version 2 snapshots, which have no
+ * repeating events, and version 1 snapshots, which also have no ids, can still be read.</p>
+ */
+class BinarySnapshot {
+    private static final byte[] MAGIC = {'O', 'V', 'F', 'B'};
+    private static final byte VERSION = 3;
+    private static final byte VERSION_WITHOUT_RECURRING = 2;
+    private static final byte VERSION_WITHOUT_IDS = 1;
+    private static final int DONE_BIT = 0x80;
+    private static final int TYPE_MASK = 0x7F;
+    private static final byte TODO_TAG = 'T';
+    private static final byte DEADLINE_TAG = 'D';
+    private static final byte EVENT_TAG = 'E';
+    private static final byte RECURRING_EVENT_TAG = 'R';
+    private static final int MAX_NAME_LENGTH = 1 << 20;
+    private static final int HEADER_LENGTH = MAGIC.length + 1 + Integer.BYTES;
+    /** A tag byte, an id and a name length: the smallest possible record. */
+    private static final int MIN_RECORD_LENGTH = 1 + Long.BYTES + Integer.BYTES;
+
+    /**
+     * Checks whether a file starts with the binary snapshot header.
+     *
+     * @param file The file to check.
+     * @return True if the file is a binary snapshot.
+     * @throws IOException If the file cannot be read.
+     */
+    static boolean isBinary(File file) throws IOException {
+        try (InputStream in = new FileInputStream(file)) {
+            byte[] header = in.readNBytes(MAGIC.length);
+            return Arrays.equals(header, MAGIC);
+        }
+    }
+
+    /**
+     * Writes every task to the stream and flushes it, leaving the stream open.
+     *
+     * @param stream The stream to write to.
+     * @param tasks The tasks to write.
+     * @throws IOException If the stream cannot be written.
+     */
+    static void write(OutputStream stream, List<Task> tasks) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+        out.write(MAGIC);
+        out.writeByte(VERSION);
+        out.writeInt(tasks.size());
+
+        for (Task task : tasks) {
+            int doneBit = task.isDone() ? DONE_BIT : 0;
+            byte[] name = task.getName().getBytes(StandardCharsets.UTF_8);
+
+            if (task instanceof Deadline) {
+                out.writeByte(DEADLINE_TAG | doneBit);
+                writeIdAndName(out, task.getId(), name);
+                out.writeLong(((Deadline) task).getDeadlineEpochMinute());
+            } else if (task instanceof RecurringEvent) {
+                RecurringEvent series = (RecurringEvent) task;
+                out.writeByte(RECURRING_EVENT_TAG | doneBit);
+                writeIdAndName(out, task.getId(), name);
+                out.writeLong(series.getStartEpochMinute());
+                out.writeLong(series.getEndEpochMinute());
+                out.writeInt(series.getPeriod().getMinutes());
+                Map<Integer, Boolean> exceptions = series.getExceptions();
+                out.writeInt(exceptions.size());
+                for (Map.Entry<Integer, Boolean> exception : exceptions.entrySet()) {
+                    out.writeInt(exception.getKey());
+                    out.writeBoolean(exception.getValue());
+                }
+            } else if (task instanceof Event) {
+                Event event = (Event) task;
+                out.writeByte(EVENT_TAG | doneBit);
+                writeIdAndName(out, task.getId(), name);
+                out.writeLong(event.getStartEpochMinute());
+                out.writeLong(event.getEndEpochMinute());
+            } else {
+                out.writeByte(TODO_TAG | doneBit);
+                writeIdAndName(out, task.getId(), name);
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Reads every task from the file. A truncated file yields the tasks before the damage.
+     *
+     * @param file The file to read.
+     * @return The tasks, in file order.
+     * @throws IOException If the file cannot be read or has an unsupported header.
+     */
+    static ArrayList<Task> read(File file) throws IOException {
+        ArrayList<Task> tasks = new ArrayList<>();
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            byte[] header = new byte[MAGIC.length];
+            in.readFully(header);
+            if (!Arrays.equals(header, MAGIC)) {
+                throw new IOException("Not a binary task snapshot");
+            }
+            byte version = in.readByte();
+            if (version != VERSION && version != VERSION_WITHOUT_RECURRING && version != VERSION_WITHOUT_IDS) {
+                throw new IOException("Unsupported snapshot version " + version);
+            }
+
+            int count = in.readInt();
+            if (count < 0) {
+                throw new CorruptedRecordException("Invalid task count " + count);
+            }
+            // The count comes from the file, so never reserve room for more records than the file can hold
+            boolean hasIds = version != VERSION_WITHOUT_IDS;
+            int minRecordLength = hasIds ? MIN_RECORD_LENGTH : MIN_RECORD_LENGTH - Long.BYTES;
+            long maxCount = (file.length() - HEADER_LENGTH) / minRecordLength;
+            tasks.ensureCapacity((int) Math.min(count, maxCount));
+            for (int i = 0; i < count; i++) {
+                tasks.add(readTask(in, i + 1, hasIds));
+            }
+        } catch (EOFException e) {
+            System.err.println("Warning: Snapshot is truncated after " + tasks.size() + " tasks");
+        } catch (CorruptedRecordException e) {
+            System.err.println("Warning: Skipping rest of snapshot: " + e.getMessage());
+        }
+
+        return tasks;
+    }
+
+    private static Task readTask(DataInputStream in, int recordNumber, boolean hasId) throws IOException {
+        int tag = in.readUnsignedByte();
+        long id = hasId ? in.readLong() : Task.NO_ID;
+        String name = readName(in);
+        Task task;
+
+        switch (tag & TYPE_MASK) {
+        case TODO_TAG:
+            task = new Todo(name);
+            break;
+        case DEADLINE_TAG:
+            task = new Deadline(name, Task.fromEpochMinute(in.readLong()));
+            break;
+        case EVENT_TAG:
+            task = new Event(name, Task.fromEpochMinute(in.readLong()), Task.fromEpochMinute(in.readLong()));
+            break;
+        case RECURRING_EVENT_TAG:
+            task = readRecurringEvent(in, name, recordNumber);
+            break;
+        default:
+            // The record length depends on the type, so nothing after this can be trusted
+            throw new CorruptedRecordException("Unknown task type " + (tag & TYPE_MASK)
+                    + " in record " + recordNumber);
+        }
+
+        if ((tag & DONE_BIT) != 0) {
+            task.mark();
+        }
+        if (id >= 0) {
+            task.setId(id);
+        }
+        return task;
+    }
+
+    private static RecurringEvent readRecurringEvent(DataInputStream in, String name, int recordNumber)
+            throws IOException {
+        LocalDateTime start = Task.fromEpochMinute(in.readLong());
+        LocalDateTime end = Task.fromEpochMinute(in.readLong());
+        RecurringEvent.Period period = RecurringEvent.Period.fromMinutes(in.readInt());
+        int exceptionCount = in.readInt();
+        if (period == null || exceptionCount < 0) {
+            throw new CorruptedRecordException("Invalid repeating event in record " + recordNumber);
+        }
+        TreeMap<Integer, Boolean> exceptions = new TreeMap<>();
+        for (int i = 0; i < exceptionCount; i++) {
+            exceptions.put(in.readInt(), in.readBoolean());
+        }
+        return new RecurringEvent(name, start, end, period, exceptions);
+    }
+
+    private static void writeIdAndName(DataOutputStream out, long id, byte[] name) throws IOException {
+        out.writeLong(id);
+        out.writeInt(name.length);
+        out.write(name);
+    }
+
+    private static String readName(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > MAX_NAME_LENGTH) {
+            throw new CorruptedRecordException("Invalid name length " + length);
+        }
+        byte[] name = new byte[length];
+        in.readFully(name);
+        return new String(name, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Signals a record whose contents make the rest of the snapshot unreadable.
+     */
+    private static class CorruptedRecordException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        CorruptedRecordException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package overflow.storage;
+
+/**
+ * Represents how far a save is pushed towards the disk before it counts as done.
+ * Stronger levels survive more kinds of crash but make every save slower.
+ */
+public enum Durability {
+    /**
+     * Leave journal records in the program's buffers and rewrite snapshots in place. Fastest, but a crash
+     * can lose recent changes, or leave a half-written task file.
+     */
+    NONE,
+    /** Hand every write to the operating system, replacing snapshots atomically. Survives the program crashing. */
+    FLUSH,
+    /** Force every write onto the storage device. Survives power loss. */
+    FSYNC
+}
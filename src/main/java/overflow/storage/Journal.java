@@ -0,0 +1,165 @@
+package overflow.storage;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import overflow.task.Task;
+import overflow.tasklist.Change;
+
+/**
+ * Appends task list changes to a write-ahead log that sits next to the task file.
+ * Each line of the log is one record such as "mark | 4" or "add | T | 0 | read book". Marking one
+ * occurrence of a repeating event adds the occurrence number, as in "mark | 4 | 12".
+ */
+class Journal {
+    private final Path path;
+    private final Path sealedPath;
+    private FileOutputStream output;
+    private BufferedWriter writer;
+    private int recordCount;
+    private Durability durability = Durability.FLUSH;
+
+    /**
+     * Creates a journal for the given task file.
+     *
+     * @param filePath Path to the task file the journal belongs to.
+     */
+    Journal(String filePath) {
+        this.path = Paths.get(filePath + ".journal");
+        this.sealedPath = Paths.get(filePath + ".journal.old");
+    }
+
+    void setDurability(Durability durability) {
+        this.durability = durability;
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    Path getSealedPath() {
+        return sealedPath;
+    }
+
+    /**
+     * Returns the number of records written since the last checkpoint.
+     *
+     * @return The record count.
+     */
+    int size() {
+        return recordCount;
+    }
+
+    void setSize(int recordCount) {
+        this.recordCount = recordCount;
+    }
+
+    /**
+     * Appends a change to the journal, pushing it as far as the durability level asks.
+     *
+     * @param change The change to record.
+     * @throws IOException If the record cannot be written.
+     */
+    void append(Change change) throws IOException {
+        appendAll(List.of(change));
+    }
+
+    /**
+     * Appends several changes to the journal with a single flush or force.
+     *
+     * @param changes The changes to record, in the order they were applied.
+     * @throws IOException If the records cannot be written.
+     */
+    void appendAll(List<Change> changes) throws IOException {
+        if (writer == null) {
+            output = new FileOutputStream(path.toFile(), true);
+            writer = new BufferedWriter(new OutputStreamWriter(output, Charset.defaultCharset()));
+        }
+        for (Change change : changes) {
+            writer.write(encode(change));
+            writer.newLine();
+        }
+        recordCount += changes.size();
+
+        if (durability != Durability.NONE) {
+            writer.flush();
+        }
+        if (durability == Durability.FSYNC) {
+            output.getChannel().force(false);
+        }
+    }
+
+    /**
+     * Moves the current journal aside so that new records start a fresh file.
+     * The sealed records stay on disk until a checkpoint covering them is complete.
+     *
+     * @throws IOException If the journal cannot be moved.
+     */
+    void seal() throws IOException {
+        close();
+        if (Files.exists(path)) {
+            Files.move(path, sealedPath);
+        }
+        recordCount = 0;
+    }
+
+    /**
+     * Deletes the sealed journal, after a checkpoint has captured its records.
+     *
+     * @throws IOException If the sealed journal cannot be deleted.
+     */
+    void discardSealed() throws IOException {
+        Files.deleteIfExists(sealedPath);
+    }
+
+    /**
+     * Deletes both the sealed and the current journal, after a checkpoint has captured them.
+     *
+     * @throws IOException If a journal file cannot be deleted.
+     */
+    void clear() throws IOException {
+        close();
+        Files.deleteIfExists(sealedPath);
+        Files.deleteIfExists(path);
+        recordCount = 0;
+    }
+
+    /**
+     * Closes the underlying writer, if open.
+     *
+     * @throws IOException If the writer cannot be closed.
+     */
+    void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+            output = null;
+        }
+    }
+
+    private static String encode(Change change) {
+        String type = change.getType().name().toLowerCase();
+        switch (change.getType()) {
+        case ADD:
+            return type + " | " + encodeTask(change.getTask());
+        case INSERT:
+            return type + " | " + change.getIndex() + " | " + encodeTask(change.getTask());
+        default:
+            if (change.getOccurrence() >= 0) {
+                return type + " | " + change.getIndex() + " | " + change.getOccurrence();
+            }
+            return type + " | " + change.getIndex();
+        }
+    }
+
+    private static String encodeTask(Task task) {
+        return task.getId() == Task.NO_ID ? task.toFileFormat() : task.getId() + " | " + task.toFileFormat();
+    }
+}
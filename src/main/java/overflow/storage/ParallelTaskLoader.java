@@ -0,0 +1,261 @@
+package overflow.storage;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import overflow.task.Task;
+
+/**
+ * Loads a large task file by reading and parsing newline-aligned chunks in parallel.
+ * Chunks are stitched back together in file order, and their warnings are printed in line order.
+ *
+ * <p>Chunks are copied out with positional reads rather than through a memory mapping. A mapping
+ * stays open until it is garbage collected, and on some platforms the file cannot be replaced on
+ * save while it is.</p>
+ */
+class ParallelTaskLoader {
+    static final int MIN_CHUNK_SIZE = 1 << 20; // 1 MiB, smaller files are not worth splitting
+    private static final int SCAN_SIZE = 8192;
+    private static final byte NEWLINE = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+    private static final byte[] SEPARATOR = {' ', '|', ' '};
+
+    private final ForkJoinPool pool;
+    private final Charset charset = Charset.defaultCharset(); // matches the FileWriter used for saving
+
+    /**
+     * Creates a loader that parses on the given pool.
+     *
+     * @param pool The fork-join pool to parse chunks on.
+     */
+    ParallelTaskLoader(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Loads every task in the file.
+     *
+     * @param file The task file, at most 2 GiB.
+     * @return The tasks, in file order.
+     * @throws IOException If the file cannot be read or a chunk fails to parse.
+     */
+    ArrayList<Task> load(File file) throws IOException {
+        List<Chunk> chunks;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            chunks = split(channel);
+
+            // Line numbers are only known once every chunk before has been counted
+            ArrayList<Callable<Void>> jobs = new ArrayList<>();
+            for (Chunk chunk : chunks) {
+                jobs.add(() -> {
+                    chunk.read(channel);
+                    chunk.countLines();
+                    return null;
+                });
+            }
+            invokeAll(jobs);
+        }
+
+        ArrayList<Callable<Void>> jobs = new ArrayList<>();
+
+        int startLine = 1;
+        for (Chunk chunk : chunks) {
+            int chunkStartLine = startLine;
+            jobs.add(() -> {
+                chunk.parse(chunkStartLine);
+                return null;
+            });
+            startLine += chunk.lineCount;
+        }
+        invokeAll(jobs);
+
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (Chunk chunk : chunks) {
+            chunk.warnings.forEach(System.err::println);
+            tasks.addAll(chunk.tasks);
+        }
+        return tasks;
+    }
+
+    private void invokeAll(List<Callable<Void>> jobs) throws IOException {
+        try {
+            for (Future<Void> future : pool.invokeAll(jobs)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while loading tasks");
+        } catch (ExecutionException e) {
+            throw new IOException("Could not load tasks: " + e.getCause().getMessage());
+        }
+    }
+
+    private static byte[] read(FileChannel channel, int position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Task file was shortened while loading");
+            }
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Returns the position of the first newline at or after the given one, or the limit if there is none.
+     */
+    private static int indexOfNewline(FileChannel channel, int from, int limit) throws IOException {
+        for (int position = from; position < limit; position += SCAN_SIZE) {
+            byte[] window = read(channel, position, Math.min(SCAN_SIZE, limit - position));
+            for (int i = 0; i < window.length; i++) {
+                if (window[i] == NEWLINE) {
+                    return position + i;
+                }
+            }
+        }
+        return limit;
+    }
+
+    /**
+     * Returns the length of the file up to the end of its last line with text. The sequential loader
+     * stops reading once only whitespace is left, so blank lines at the end are not reported there either.
+     */
+    private static int getContentSize(FileChannel channel) throws IOException {
+        int limit = (int) channel.size();
+        int size = limit;
+        boolean isBlank = true;
+        while (size > 0 && isBlank) {
+            int from = Math.max(0, size - SCAN_SIZE);
+            byte[] window = read(channel, from, size - from);
+            int length = window.length;
+            while (length > 0 && Character.isWhitespace(window[length - 1])) {
+                length--;
+            }
+            isBlank = length == 0;
+            size = from + length;
+        }
+        return indexOfNewline(channel, size, limit);
+    }
+
+    /**
+     * Cuts the file into roughly equal chunks that each end just after a newline.
+     */
+    private List<Chunk> split(FileChannel channel) throws IOException {
+        int size = getContentSize(channel);
+        int chunkCount = Math.max(1, Math.min(size / MIN_CHUNK_SIZE, pool.getParallelism() * 4));
+        List<Chunk> chunks = new ArrayList<>();
+
+        int start = 0;
+        for (int i = 1; i <= chunkCount && start < size; i++) {
+            int end = (int) ((long) size * i / chunkCount);
+            if (end > start) {
+                end = Math.min(size, indexOfNewline(channel, end - 1, size) + 1);
+                chunks.add(new Chunk(start, end));
+                start = end;
+            }
+        }
+        return chunks;
+    }
+
+    /**
+     * A newline-aligned range of the file, together with its parsed results.
+     */
+    private class Chunk {
+        private final int start;
+        private final int end;
+        private byte[] data;
+        private int lineCount;
+        private final ArrayList<Task> tasks = new ArrayList<>();
+        private final ArrayList<String> warnings = new ArrayList<>();
+
+        Chunk(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        void read(FileChannel channel) throws IOException {
+            data = ParallelTaskLoader.read(channel, start, end - start);
+        }
+
+        void countLines() {
+            for (byte b : data) {
+                if (b == NEWLINE) {
+                    lineCount++;
+                }
+            }
+            if (data.length > 0 && data[data.length - 1] != NEWLINE) {
+                lineCount++;
+            }
+        }
+
+        void parse(int startLine) {
+            int lineNumber = startLine;
+            int lineStart = 0;
+
+            while (lineStart < data.length) {
+                int lineEnd = indexOf(NEWLINE, lineStart);
+                int contentEnd = lineEnd;
+                if (contentEnd > lineStart && data[contentEnd - 1] == CARRIAGE_RETURN) {
+                    contentEnd--;
+                }
+
+                // Blank lines go through the decoder too, so they are reported as on the sequential path
+                String[] parts = splitFields(lineStart, contentEnd);
+                Task task = TaskDecoder.decode(parts, new String(data, lineStart, contentEnd - lineStart, charset),
+                        lineNumber, warnings::add);
+                if (task != null) {
+                    tasks.add(task);
+                }
+
+                lineNumber++;
+                lineStart = lineEnd + 1;
+            }
+            data = null;
+        }
+
+        private int indexOf(byte target, int from) {
+            for (int i = from; i < data.length; i++) {
+                if (data[i] == target) {
+                    return i;
+                }
+            }
+            return data.length;
+        }
+
+        /**
+         * Splits a line on " | " the same way String.split does, dropping trailing empty fields.
+         */
+        private String[] splitFields(int from, int to) {
+            ArrayList<String> fields = new ArrayList<>(5);
+            int fieldStart = from;
+            int i = from;
+
+            while (i <= to - SEPARATOR.length) {
+                if (data[i] == SEPARATOR[0] && data[i + 1] == SEPARATOR[1] && data[i + 2] == SEPARATOR[2]) {
+                    fields.add(new String(data, fieldStart, i - fieldStart, charset));
+                    i += SEPARATOR.length;
+                    fieldStart = i;
+                } else {
+                    i++;
+                }
+            }
+            fields.add(new String(data, fieldStart, to - fieldStart, charset));
+
+            int count = fields.size();
+            while (count > 1 && fields.get(count - 1).isEmpty()) {
+                count--;
+            }
+            return fields.subList(0, count).toArray(new String[0]);
+        }
+    }
+}
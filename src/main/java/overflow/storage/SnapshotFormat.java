@@ -0,0 +1,11 @@
+package overflow.storage;
+
+/**
+ * Represents the on-disk layouts a task snapshot can be written in.
+ */
+public enum SnapshotFormat {
+    /** One "T | 0 | name" line per task, readable and editable by hand. */
+    TEXT,
+    /** Compact binary records, detected by a magic header. */
+    BINARY
+}
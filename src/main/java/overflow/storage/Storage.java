@@ -1,25 +1,52 @@
 package overflow.storage;
 
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.FileWriter;
+import java.io.FileOutputStream;
 import java.io.IOException;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
-import overflow.task.Deadline;
-import overflow.task.Event;
+import overflow.task.NameInterner;
+import overflow.task.RecurringEvent;
 import overflow.task.Task;
-import overflow.task.Todo;
+import overflow.tasklist.Change;
 
 /**
  * Handles the loading and saving of tasks to a file on disk.
+ * In journal mode, each change is appended to a log instead of rewriting the whole file,
+ * and the log is folded back into the task file in the background once it grows large.
  */
 public class Storage {
+    private static final int COMPACTION_THRESHOLD = 1000; // journal records before a checkpoint
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+    private static final String ID_SEPARATOR = " | ";
     private String filePath;
+    private Journal journal;
+    private ExecutorService compactor;
+    private Future<?> pendingCompaction;
+    private SnapshotFormat format;
+    private Durability durability = Durability.FLUSH;
+    private long namesSharedOnLoad;
+    private long bytesSavedOnLoad;
 
     /**
      * Creates a Storage object with the specified file path.
@@ -27,21 +54,181 @@ public class Storage {
      * @param filePath Path to the file where tasks are stored.
      */
     public Storage(String filePath) {
+        this(filePath, false);
+    }
+
+    /**
+     * Creates a Storage object with the specified file path, optionally in journal mode.
+     *
+     * @param filePath Path to the file where tasks are stored.
+     * @param isJournaled Whether changes are appended to a journal instead of rewriting the file.
+     */
+    public Storage(String filePath, boolean isJournaled) {
         this.filePath = filePath;
+        if (isJournaled) {
+            journal = new Journal(filePath);
+            compactor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "overflow-compactor");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Returns whether changes are appended to a journal instead of rewriting the file.
+     *
+     * @return True in journal mode.
+     */
+    public boolean isJournaled() {
+        return journal != null;
+    }
+
+    /**
+     * Chooses how far each save is pushed towards the disk before it returns.
+     *
+     * @param durability The durability level for snapshots and journal records.
+     */
+    public void setDurability(Durability durability) {
+        this.durability = durability;
+        if (journal != null) {
+            journal.setDurability(durability);
+        }
+    }
+
+    /**
+     * Chooses the layout used for snapshots of this file. Without a choice, the layout of the
+     * file found on load is kept, and new files are written as text.
+     *
+     * @param format The snapshot format to write.
+     */
+    public void setFormat(SnapshotFormat format) {
+        this.format = format;
     }
 
     /**
-     * Loads tasks from the file.
+     * Returns the layout snapshots of this file are written in.
+     *
+     * @return The snapshot format.
+     */
+    public SnapshotFormat getFormat() {
+        return format == null ? SnapshotFormat.TEXT : format;
+    }
+
+    /**
+     * Loads tasks from the file, replaying any journaled changes on top of it.
      *
      * @return ArrayList of tasks loaded from the file.
      * @throws FileNotFoundException If the file cannot be found.
      */
     public ArrayList<Task> loadTasks() throws FileNotFoundException {
+        long sharedBefore = NameInterner.getSharedCount();
+        long savedBefore = NameInterner.getSavedBytes();
+        if (journal != null) {
+            recoverCheckpoint();
+        }
+
         ArrayList<Task> tasks = new ArrayList<>();
         File file = new File(filePath);
 
+        if (file.exists()) {
+            readTasks(file, tasks);
+        }
+
+        if (journal != null) {
+            boolean hasSealed = Files.exists(journal.getSealedPath());
+            int replayed = replayJournal(journal.getSealedPath().toFile(), tasks)
+                    + replayJournal(journal.getPath().toFile(), tasks);
+            journal.setSize(replayed);
+            if (hasSealed) {
+                // An earlier compaction did not finish, fold everything into the task file now
+                try {
+                    saveChange(tasks);
+                } catch (IOException e) {
+                    System.err.println("Warning: Could not compact journal: " + e.getMessage());
+                }
+            }
+        }
+
+        namesSharedOnLoad = NameInterner.getSharedCount() - sharedBefore;
+        bytesSavedOnLoad = NameInterner.getSavedBytes() - savedBefore;
+        return tasks;
+    }
+
+    /**
+     * Returns how many task names the last load found already in memory and shared instead of copying.
+     *
+     * @return The number of shared names.
+     */
+    public long getNamesSharedOnLoad() {
+        return namesSharedOnLoad;
+    }
+
+    /**
+     * Returns roughly how many bytes of heap sharing repeated names saved during the last load.
+     *
+     * @return The number of bytes saved.
+     */
+    public long getBytesSavedOnLoad() {
+        return bytesSavedOnLoad;
+    }
+
+    private void readTasks(File file, ArrayList<Task> tasks) throws FileNotFoundException {
+        try {
+            if (BinarySnapshot.isBinary(file)) {
+                if (format == null) {
+                    format = SnapshotFormat.BINARY;
+                }
+                tasks.addAll(BinarySnapshot.read(file));
+                return;
+            }
+        } catch (FileNotFoundException e) {
+            throw e;
+        } catch (IOException e) {
+            System.err.println("Warning: Could not read snapshot: " + e.getMessage());
+            return;
+        }
+
+        if (format == null) {
+            format = SnapshotFormat.TEXT;
+        }
+        long size = file.length();
+        if (size >= ParallelTaskLoader.MIN_CHUNK_SIZE && size <= Integer.MAX_VALUE) {
+            try {
+                tasks.addAll(new ParallelTaskLoader(ForkJoinPool.commonPool()).load(file));
+                return;
+            } catch (IOException e) {
+                System.err.println("Warning: Falling back to sequential loading: " + e.getMessage());
+                tasks.clear();
+            }
+        }
+
+        Scanner scanner = new Scanner(file);
+        int lineNumber = 0;
+
+        while (scanner.hasNext()) {
+            lineNumber++;
+            String line = scanner.nextLine();
+            Task task = parseLine(line, lineNumber);
+            if (task != null) {
+                tasks.add(task);
+            }
+        }
+        scanner.close();
+    }
+
+    private Task parseLine(String line, int lineNumber) {
+        return TaskDecoder.decode(line.split(" \\| "), line, lineNumber, System.err::println);
+    }
+
+    /**
+     * Replays the records of a journal file onto the list of tasks.
+     *
+     * @return The number of records read.
+     */
+    private int replayJournal(File file, ArrayList<Task> tasks) throws FileNotFoundException {
         if (!file.exists()) {
-            return tasks;
+            return 0;
         }
 
         Scanner scanner = new Scanner(file);
@@ -51,73 +238,316 @@ public class Storage {
             lineNumber++;
             String line = scanner.nextLine();
             try {
-                Task task = parseLine(line, lineNumber);
-                if (task != null) {
-                    tasks.add(task);
-                }
-            } catch (DateTimeParseException e) {
-                System.err.println("Warning: Invalid date format at line " + lineNumber + ": " + e.getMessage());
+                applyRecord(line, tasks, lineNumber);
             } catch (Exception e) {
-                System.err.println("Warning: Error loading task at line " + lineNumber + ": " + e.getMessage());
+                System.err.println("Warning: Skipping corrupted journal record at line " + lineNumber + ": " + line);
             }
         }
         scanner.close();
 
-        return tasks;
+        return lineNumber;
     }
 
-    private Task parseLine(String line, int lineNumber) {
-        String[] parts = line.split(" \\| ");
+    private void applyRecord(String line, ArrayList<Task> tasks, int lineNumber) {
+        String[] parts = line.split(" \\| ", 3);
+        Task task;
+
+        switch (parts[0]) {
+        case "add":
+            task = parseLine(line.substring(parts[0].length() + 3), lineNumber);
+            if (task != null) {
+                tasks.add(task);
+            }
+            break;
+        case "insert":
+            task = parseLine(parts[2], lineNumber);
+            if (task != null) {
+                tasks.add(Integer.parseInt(parts[1]), task);
+            }
+            break;
+        case "delete":
+            tasks.remove(Integer.parseInt(parts[1]));
+            break;
+        case "mark":
+        case "unmark":
+            int index = Integer.parseInt(parts[1]);
+            boolean isDone = parts[0].equals("mark");
+            if (parts.length == 3) {
+                // A single occurrence of a repeating event, as in "mark | 4 | 12"
+                RecurringEvent series = (RecurringEvent) tasks.get(index);
+                tasks.set(index, series.withOccurrenceDone(Integer.parseInt(parts[2]), isDone));
+            } else if (isDone) {
+                tasks.get(index).mark();
+            } else {
+                tasks.get(index).unmark();
+            }
+            break;
+        default:
+            throw new IllegalArgumentException("Unknown journal record");
+        }
+    }
+
+    /**
+     * Saves tasks to the file. In journal mode this writes a full checkpoint and clears the journal.
+     *
+     * @param tasks List of tasks to save.
+     * @throws IOException If there's an error writing to the file.
+     */
+    public void saveChange(List<Task> tasks) throws IOException {
+        if (journal == null) {
+            if (durability == Durability.NONE) {
+                // A crash may lose this save anyway, so skip the copy that keeps the old file whole
+                writeTasks(new File(filePath), tasks, getFormat());
+            } else {
+                writeAtomically(tasks, Paths.get(filePath), getFormat());
+            }
+            return;
+        }
+
+        awaitCompaction();
+        writeCheckpoint(tasks, getFullCheckpointPath());
+        journal.clear();
+        promoteCheckpoint(getFullCheckpointPath());
+    }
+
+    /**
+     * Persists a single change. In journal mode only the change itself is appended,
+     * otherwise the whole list is rewritten.
+     *
+     * @param tasks List of tasks after the change was applied.
+     * @param change The change that was applied. Use {@link #saveChange(List)} when no change is known.
+     * @throws IOException If there's an error writing to the file.
+     */
+    public void saveChange(List<Task> tasks, Change change) throws IOException {
+        saveChanges(tasks, Collections.singletonList(change));
+    }
 
-        if (parts.length < 3) {
-            System.err.println("Warning: Skipping corrupted line " + lineNumber + ": " + line);
-            return null;
+    /**
+     * Persists a batch of changes with a single write. In journal mode the changes are appended
+     * together, otherwise the whole list is rewritten once.
+     *
+     * @param tasks The tasks after the changes were applied. The list may be written in the background,
+     *     so it must not be modified afterwards, as with the versions returned by {@code TaskList.getTasks()}.
+     * @param changes The changes that were applied, in order.
+     * @throws IOException If there's an error writing to the file.
+     */
+    public void saveChanges(List<Task> tasks, List<Change> changes) throws IOException {
+        if (journal == null) {
+            saveChange(tasks);
+            return;
         }
 
-        String taskType = parts[0];
-        String taskStatus = parts[1];
-        String taskName = parts[2];
+        createDirectory(new File(filePath));
+        journal.appendAll(changes);
 
-        Task task = parseTaskByType(taskType, taskName, parts, lineNumber);
-        if (task != null && taskStatus.equals("1")) {
-            task.mark();
+        boolean isCompacting = pendingCompaction != null && !pendingCompaction.isDone();
+        if (journal.size() >= COMPACTION_THRESHOLD && !isCompacting) {
+            compact(tasks);
         }
-        return task;
     }
 
-    private Task parseTaskByType(String taskType, String taskName, String[] parts, int lineNumber) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm");
-        switch (taskType) {
-        case "T":
-            return new Todo(taskName);
-        case "E":
-            if (parts.length < 5) {
-                System.err.println("Warning: Skipping incomplete event at line " + lineNumber);
-                return null;
+    /**
+     * Folds the journal into the task file on the background thread.
+     * Changes made while the checkpoint is written go to a fresh journal.
+     */
+    private void compact(List<Task> tasks) throws IOException {
+        if (Files.exists(journal.getSealedPath())) {
+            // A previous compaction failed part way, fall back to a synchronous checkpoint
+            saveChange(tasks);
+            return;
+        }
+
+        journal.seal();
+        // Later marks may race with the write, but the fresh journal replays them on top regardless
+        pendingCompaction = compactor.submit(() -> {
+            try {
+                writeCheckpoint(tasks, getCheckpointPath());
+                journal.discardSealed();
+                promoteCheckpoint(getCheckpointPath());
+            } catch (IOException e) {
+                System.err.println("Warning: Could not compact journal: " + e.getMessage());
             }
-            return new Event(taskName,
-                    LocalDateTime.parse(parts[3], formatter),
-                    LocalDateTime.parse(parts[4], formatter));
-        case "D":
-            if (parts.length < 4) {
-                System.err.println("Warning: Skipping incomplete deadline at line " + lineNumber);
-                return null;
+        });
+    }
+
+    /**
+     * Writes a complete snapshot next to the task file. Once the ".new" file exists it is
+     * authoritative for every sealed record, and a ".full" file for every journaled record,
+     * so a crash at any later point recovers from it.
+     */
+    private void writeCheckpoint(List<Task> tasks, Path checkpoint) throws IOException {
+        writeAtomically(tasks, checkpoint, getFormat());
+    }
+
+    private void promoteCheckpoint(Path checkpoint) throws IOException {
+        moveAtomically(checkpoint, Paths.get(filePath));
+    }
+
+    /**
+     * Finishes a checkpoint that was interrupted after its snapshot was complete.
+     */
+    private void recoverCheckpoint() {
+        try {
+            if (Files.exists(getFullCheckpointPath())) {
+                journal.clear();
+                promoteCheckpoint(getFullCheckpointPath());
+            } else if (Files.exists(getCheckpointPath())) {
+                journal.discardSealed();
+                promoteCheckpoint(getCheckpointPath());
             }
-            return new Deadline(taskName, LocalDateTime.parse(parts[3], formatter));
-        default:
-            System.err.println("Warning: Unknown task type '" + taskType + "' at line " + lineNumber);
-            return null;
+        } catch (IOException e) {
+            System.err.println("Warning: Could not recover checkpoint: " + e.getMessage());
+        }
+    }
+
+    private Path getCheckpointPath() {
+        return Paths.get(filePath + ".new");
+    }
+
+    private Path getFullCheckpointPath() {
+        return Paths.get(filePath + ".full");
+    }
+
+    private void awaitCompaction() throws IOException {
+        if (pendingCompaction == null) {
+            return;
+        }
+
+        try {
+            pendingCompaction.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while compacting journal");
+        } catch (ExecutionException e) {
+            throw new IOException("Could not compact journal: " + e.getCause().getMessage());
+        }
+    }
+
+    /**
+     * Waits for any background compaction and releases the journal.
+     *
+     * @throws IOException If the journal cannot be closed.
+     */
+    public void close() throws IOException {
+        if (journal == null) {
+            return;
         }
+
+        awaitCompaction();
+        journal.close();
+        compactor.shutdown();
     }
 
     /**
-     * Saves tasks to the file.
+     * Writes the tasks to another file in the given format, for example to export a binary
+     * snapshot as text. Any file written this way can be loaded back by a Storage for that path.
      *
-     * @param tasks ArrayList of tasks to save.
+     * @param tasks List of tasks to export.
+     * @param exportPath Path of the file to write.
+     * @param exportFormat The format to write the file in.
      * @throws IOException If there's an error writing to the file.
      */
-    public void saveChange(ArrayList<Task> tasks) throws IOException {
-        File file = new File(filePath);
+    public void exportTasks(List<Task> tasks, String exportPath, SnapshotFormat exportFormat)
+            throws IOException {
+        writeAtomically(tasks, Paths.get(exportPath), exportFormat);
+    }
+
+    /**
+     * Writes the tasks to a temporary file and renames it over the target, so that a crash
+     * leaves either the old or the new contents but never a half-written file.
+     */
+    private void writeAtomically(List<Task> tasks, Path target, SnapshotFormat snapshotFormat)
+            throws IOException {
+        Path temp = Paths.get(target + ".tmp");
+        writeTasks(temp.toFile(), tasks, snapshotFormat);
+        moveAtomically(temp, target);
+    }
+
+    private void moveAtomically(Path source, Path target) throws IOException {
+        Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        if (durability == Durability.FSYNC) {
+            syncDirectory(target);
+        }
+    }
+
+    /**
+     * Forces the directory entry created by a rename onto the disk. Not every platform allows
+     * opening a directory, in which case the rename is left to the file system.
+     */
+    private void syncDirectory(Path file) {
+        Path directory = file.toAbsolutePath().getParent();
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // directories cannot be opened for syncing on this platform
+        }
+    }
+
+    private void writeTasks(File file, List<Task> tasks, SnapshotFormat snapshotFormat) throws IOException {
+        createDirectory(file);
+
+        try (FileOutputStream output = new FileOutputStream(file)) {
+            if (snapshotFormat == SnapshotFormat.BINARY) {
+                BinarySnapshot.write(output, tasks);
+            } else {
+                writeText(new BufferedWriter(new OutputStreamWriter(output, Charset.defaultCharset())), tasks);
+            }
+
+            if (durability == Durability.FSYNC) {
+                output.getChannel().force(true);
+            }
+        }
+    }
+
+    /**
+     * Serializes every task into one reused buffer, which is drained to the writer when full.
+     */
+    private void writeText(Writer writer, List<Task> tasks) throws IOException {
+        CharBuffer buffer = CharBuffer.allocate(WRITE_BUFFER_SIZE);
+        for (Task task: tasks) {
+            long id = task.getId();
+            int idLength = id == Task.NO_ID ? 0 : digitCount(id) + ID_SEPARATOR.length();
+            int length = idLength + task.getFileFormatLength() + 1;
+            if (buffer.remaining() < length) {
+                writer.write(buffer.array(), 0, buffer.position());
+                buffer.clear();
+                if (buffer.capacity() < length) {
+                    buffer = CharBuffer.allocate(length);
+                }
+            }
+            if (id != Task.NO_ID) {
+                writeId(buffer, id);
+            }
+            task.writeFileFormat(buffer);
+            buffer.put('\n');
+        }
+        writer.write(buffer.array(), 0, buffer.position());
+        writer.flush();
+    }
+
+    /**
+     * Writes an id and the field separator after it without going through a String.
+     */
+    private static void writeId(CharBuffer buffer, long id) {
+        int end = buffer.position() + digitCount(id);
+        for (int i = end - 1; i >= buffer.position(); i--) {
+            buffer.put(i, (char) ('0' + id % 10));
+            id /= 10;
+        }
+        buffer.position(end);
+        buffer.put(ID_SEPARATOR);
+    }
+
+    private static int digitCount(long value) {
+        int count = 1;
+        while (value >= 10) {
+            value /= 10;
+            count++;
+        }
+        return count;
+    }
+
+    private void createDirectory(File file) throws IOException {
         File directory = file.getParentFile();
 
         // Create the directory if it doesn't exist
@@ -129,13 +559,5 @@ public class Storage {
                 + "\nSorry for the inconvenience!");
             }
         }
-
-        FileWriter writer = new FileWriter(filePath);
-        for (Task task: tasks) {
-            writer.write(task.toFileFormat() + "\n");
-        }
-
-        writer.close();
     }
 }
-
@@ -0,0 +1,163 @@
+package overflow.storage;
+
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+import overflow.task.Deadline;
+import overflow.task.Event;
+import overflow.task.RecurringEvent;
+import overflow.task.Task;
+import overflow.task.Todo;
+
+/**
+ * Turns the fields of one line of the task file back into a Task.
+ * Problems are reported as warnings through a sink so that callers parsing in parallel
+ * can print them in line order afterwards.
+ *
+ * <p>Lines start with the task's id, as in {@code 12 | T | 0 | read book}. Lines written before
+ * tasks had ids start with the type instead and are still accepted.</p>
+ */
+class TaskDecoder {
+    static final DateTimeFormatter FILE_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm");
+    private static final int FILE_DATE_LENGTH = 15; // length of "yyyy-MM-dd HHmm"
+    private static final int MAX_ID_LENGTH = 18; // longer digit runs could overflow a long
+
+    /**
+     * Decodes one line that has already been split on " | ".
+     *
+     * @param parts The fields of the line.
+     * @param line The raw line, used in warnings.
+     * @param lineNumber The 1-based line number, used in warnings.
+     * @param warnings Receives a message for every line that is skipped.
+     * @return The task, or null if the line was skipped.
+     */
+    static Task decode(String[] parts, String line, int lineNumber, Consumer<String> warnings) {
+        try {
+            long id = Task.NO_ID;
+            if (parts.length > 0 && isId(parts[0])) {
+                id = Long.parseLong(parts[0]);
+                parts = Arrays.copyOfRange(parts, 1, parts.length);
+            }
+            if (parts.length < 3) {
+                warnings.accept("Warning: Skipping corrupted line " + lineNumber + ": " + line);
+                return null;
+            }
+
+            String taskType = parts[0];
+            String taskStatus = parts[1];
+            String taskName = parts[2];
+
+            Task task = decodeByType(taskType, taskName, parts, lineNumber, warnings);
+            if (task != null && taskStatus.equals("1")) {
+                task.mark();
+            }
+            if (task != null && id != Task.NO_ID) {
+                task.setId(id);
+            }
+            return task;
+        } catch (DateTimeParseException e) {
+            warnings.accept("Warning: Invalid date format at line " + lineNumber + ": " + e.getMessage());
+        } catch (Exception e) {
+            warnings.accept("Warning: Error loading task at line " + lineNumber + ": " + e.getMessage());
+        }
+        return null;
+    }
+
+    private static Task decodeByType(String taskType, String taskName, String[] parts, int lineNumber,
+            Consumer<String> warnings) {
+        switch (taskType) {
+        case "T":
+            return new Todo(taskName);
+        case "E":
+            if (parts.length < 5) {
+                warnings.accept("Warning: Skipping incomplete event at line " + lineNumber);
+                return null;
+            }
+            return new Event(taskName, parseDateTime(parts[3]), parseDateTime(parts[4]));
+        case "R":
+            return decodeRecurringEvent(taskName, parts, lineNumber, warnings);
+        case "D":
+            if (parts.length < 4) {
+                warnings.accept("Warning: Skipping incomplete deadline at line " + lineNumber);
+                return null;
+            }
+            return new Deadline(taskName, parseDateTime(parts[3]));
+        default:
+            warnings.accept("Warning: Unknown task type '" + taskType + "' at line " + lineNumber);
+            return null;
+        }
+    }
+
+    /**
+     * Decodes a repeating event, as in {@code R | 0 | standup | 2026-03-10 0930 | 2026-03-10 0945 | week | 3=1},
+     * where the last field lists the occurrences marked or unmarked by themselves and may be left out.
+     */
+    private static Task decodeRecurringEvent(String taskName, String[] parts, int lineNumber,
+            Consumer<String> warnings) {
+        if (parts.length < 6) {
+            warnings.accept("Warning: Skipping incomplete repeating event at line " + lineNumber);
+            return null;
+        }
+        RecurringEvent.Period period = RecurringEvent.Period.fromKeyword(parts[5]);
+        if (period == null) {
+            warnings.accept("Warning: Unknown repetition '" + parts[5] + "' at line " + lineNumber);
+            return null;
+        }
+        return new RecurringEvent(taskName, parseDateTime(parts[3]), parseDateTime(parts[4]), period,
+                RecurringEvent.parseExceptions(parts.length > 6 ? parts[6] : ""));
+    }
+
+    private static boolean isId(String field) {
+        if (field.isEmpty() || field.length() > MAX_ID_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < field.length(); i++) {
+            if (field.charAt(i) < '0' || field.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parses a "yyyy-MM-dd HHmm" date by reading its digits directly.
+     * Anything unusual goes through the formatter so the error message stays the same.
+     *
+     * @param text The date text.
+     * @return The parsed date-time.
+     */
+    static LocalDateTime parseDateTime(String text) {
+        if (text.length() == FILE_DATE_LENGTH && text.charAt(4) == '-' && text.charAt(7) == '-'
+                && text.charAt(10) == ' ') {
+            int year = digits(text, 0, 4);
+            int month = digits(text, 5, 7);
+            int day = digits(text, 8, 10);
+            int hour = digits(text, 11, 13);
+            int minute = digits(text, 13, 15);
+            if (year >= 0 && month >= 0 && day >= 0 && hour >= 0 && minute >= 0) {
+                try {
+                    return LocalDateTime.of(year, month, day, hour, minute);
+                } catch (DateTimeException e) {
+                    // fall through to the formatter for its error message
+                }
+            }
+        }
+        return LocalDateTime.parse(text, FILE_DATE_FORMAT);
+    }
+
+    private static int digits(String text, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+}
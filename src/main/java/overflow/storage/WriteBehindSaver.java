@@ -0,0 +1,263 @@
+package overflow.storage;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import overflow.task.Task;
+import overflow.tasklist.Change;
+import overflow.tasklist.TaskList;
+
+/**
+ * Persists task list changes on a dedicated writer thread so that commands never wait for the disk.
+ * Changes arriving within the staleness window are written together as one group commit.
+ *
+ * <p>The writer takes each batch while holding the task list's monitor, so that the list it saves is
+ * exactly the one the batch leaves behind. Callers must therefore mutate the list and record the change
+ * inside the same {@code synchronized (tasks)} block.</p>
+ *
+ * <p>A failed write is retried with a full rewrite of the list until one succeeds. Until then every
+ * flush reports the failure, so no caller is told its changes are on disk when they are not.</p>
+ */
+public class WriteBehindSaver {
+    private static final long RETRY_DELAY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Storage storage;
+    private final TaskList tasks;
+    private final long maxStalenessNanos;
+    private final Thread writer;
+    private final Thread shutdownHook;
+
+    private ArrayList<Change> pending = new ArrayList<>();
+    private long firstPendingTime;
+    private long enqueuedCount;
+    private long writtenCount;
+    private long startedWrites;
+    private long finishedWrites;
+    private long failureTime;
+    private boolean isFlushRequested;
+    private boolean isClosed;
+    private boolean needsFullSave;
+    private IOException failure;
+    private boolean isFailureReported;
+
+    /**
+     * Creates a saver and starts its writer thread.
+     *
+     * @param storage The storage to write to.
+     * @param tasks The task list whose changes are saved.
+     * @param maxStaleness How long a change may wait before it is written.
+     */
+    public WriteBehindSaver(Storage storage, TaskList tasks, Duration maxStaleness) {
+        assert !maxStaleness.isNegative() : "Staleness window cannot be negative";
+
+        this.storage = storage;
+        this.tasks = tasks;
+        this.maxStalenessNanos = maxStaleness.toNanos();
+        this.writer = new Thread(this::runWriter, "overflow-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+        this.shutdownHook = new Thread(this::flushQuietly, "overflow-writer-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    /**
+     * Records that the task list has changed. The change is written later by the writer thread.
+     *
+     * @param change The change that was applied to the task list.
+     * @throws IOException If an earlier write failed.
+     */
+    public void markDirty(Change change) throws IOException {
+        markDirty(Collections.singletonList(change));
+    }
+
+    /**
+     * Records the changes made by one action on the task list. They are written together, later,
+     * by the writer thread.
+     *
+     * @param changes The changes that were applied to the task list, in order.
+     * @throws IOException If an earlier write failed and has not been reported yet. The changes are
+     *     still recorded, and written once a retry succeeds.
+     */
+    public synchronized void markDirty(List<Change> changes) throws IOException {
+        if (isClosed) {
+            throw new IOException("Saver is already closed");
+        }
+
+        if (pending.isEmpty()) {
+            firstPendingTime = System.nanoTime();
+        }
+        pending.addAll(changes);
+        enqueuedCount++;
+        notifyAll();
+
+        if (failure != null && !isFailureReported) {
+            isFailureReported = true;
+            throw failure;
+        }
+    }
+
+    /**
+     * Blocks until every change recorded so far is on disk.
+     *
+     * @throws IOException If the changes could not be written, even after one more attempt.
+     */
+    public synchronized void flush() throws IOException {
+        long target = enqueuedCount;
+        if (isSaved(target)) {
+            return;
+        }
+
+        // An idle flush leaves the request unset, so that the next change still waits out its window
+        long attempt = startedWrites;
+        isFlushRequested = true;
+        notifyAll();
+
+        try {
+            while (!isSaved(target) && finishedWrites <= attempt && writer.isAlive()) {
+                wait();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while saving tasks");
+        }
+        if (!isSaved(target)) {
+            isFailureReported = true;
+            throw failure != null ? failure : new IOException("Tasks could not be saved");
+        }
+    }
+
+    private boolean isSaved(long target) {
+        return writtenCount >= target && !needsFullSave;
+    }
+
+    /**
+     * Flushes outstanding changes and stops the writer thread.
+     *
+     * @throws IOException If the final write failed.
+     */
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            synchronized (this) {
+                isClosed = true;
+                notifyAll();
+            }
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            } catch (IllegalStateException e) {
+                // the JVM is already shutting down and the hook is running
+            }
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (IOException e) {
+            System.err.println("Warning: Could not save tasks on exit: " + e.getMessage());
+        }
+    }
+
+    private void runWriter() {
+        try {
+            while (awaitBatch()) {
+                ArrayList<Change> batch;
+                long batchEnd;
+                boolean isFullSave;
+                List<Task> snapshot = null;
+                IOException error = null;
+
+                synchronized (tasks) {
+                    // No command can change the list while its monitor is held, so no change is left
+                    // pending that the list already contains and a checkpoint would then repeat
+                    synchronized (this) {
+                        batch = pending;
+                        pending = new ArrayList<>();
+                        batchEnd = enqueuedCount;
+                        isFlushRequested = false;
+                        isFullSave = needsFullSave;
+                        startedWrites++;
+                    }
+                    if (storage.isJournaled() && !isFullSave) {
+                        // Appending a batch is cheap, and compaction writes the frozen version it is given
+                        error = write(batch);
+                    } else {
+                        snapshot = tasks.getTasks();
+                    }
+                }
+                if (snapshot != null) {
+                    error = writeFullList(snapshot);
+                }
+
+                synchronized (this) {
+                    writtenCount = batchEnd;
+                    finishedWrites++;
+                    if (error != null) {
+                        // The journal may now be missing records, so rewrite everything on the retry
+                        failure = error;
+                        failureTime = System.nanoTime();
+                        needsFullSave = true;
+                    } else if (isFullSave) {
+                        needsFullSave = false;
+                        failure = null;
+                        isFailureReported = false;
+                    }
+                    notifyAll();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Waits until there are changes to write and the staleness window of the first has passed,
+     * or a failed write is due to be retried, or a flush asks for either sooner.
+     *
+     * @return False once the saver is closed and every change has been written or given up on.
+     */
+    private synchronized boolean awaitBatch() throws InterruptedException {
+        while (pending.isEmpty() && !needsFullSave && !isClosed) {
+            wait();
+        }
+        if (pending.isEmpty() && isClosed) {
+            return false;
+        }
+
+        // Hold back the write so that changes arriving shortly after join the same batch, and back off
+        // after a failure rather than hammering a disk that is full or gone
+        long remaining = getWriteTime() - System.nanoTime();
+        while (remaining > 0 && !isFlushRequested && !isClosed) {
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            remaining = getWriteTime() - System.nanoTime();
+        }
+        return true;
+    }
+
+    private long getWriteTime() {
+        return needsFullSave ? failureTime + RETRY_DELAY_NANOS : firstPendingTime + maxStalenessNanos;
+    }
+
+    private IOException write(ArrayList<Change> batch) {
+        try {
+            storage.saveChanges(tasks.getTasks(), batch);
+            return null;
+        } catch (IOException e) {
+            return e;
+        }
+    }
+
+    private IOException writeFullList(List<Task> snapshot) {
+        try {
+            storage.saveChange(snapshot);
+            return null;
+        } catch (IOException e) {
+            return e;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package overflow.task;
 
+import java.nio.CharBuffer;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
@@ -7,7 +8,7 @@ import java.time.format.DateTimeFormatter;
  * Represents a task that needs to be done before a specific deadline.
  */
 public class Deadline extends Task {
-    private LocalDateTime deadline;
+    private final long deadline; // minutes since the epoch
 
     /**
      * Creates a new deadline task.
@@ -17,7 +18,7 @@ public class Deadline extends Task {
      */
     public Deadline(String name, LocalDateTime deadline) {
         super(name);
-        this.deadline = deadline;
+        this.deadline = toEpochMinute(deadline);
     }
 
     /**
@@ -26,19 +27,33 @@ public class Deadline extends Task {
      * @return The deadline.
      */
     public LocalDateTime getDeadline() {
+        return fromEpochMinute(deadline);
+    }
+
+    /**
+     * Returns the deadline as minutes since the epoch, without creating a LocalDateTime.
+     *
+     * @return The deadline in minutes since 1970-01-01 00:00.
+     */
+    public long getDeadlineEpochMinute() {
         return deadline;
     }
 
     @Override
     public String toString() {
         return "[D]" + super.toString() + " (by: "
-                + deadline.format(DateTimeFormatter.ofPattern("MMM dd yyyy, h:mma")) + ")";
+                + getDeadline().format(DateTimeFormatter.ofPattern("MMM dd yyyy, h:mma")) + ")";
+    }
+
+    @Override
+    public void writeFileFormat(CharBuffer buffer) {
+        writeType(buffer, 'D');
+        super.writeFileFormat(buffer);
+        writeFileDate(buffer, deadline);
     }
 
     @Override
-    public String toFileFormat() {
-        String status = super.toString().contains("X") ? "1" : "0";
-        return "D | " + status + " | " + getName() + " | "
-                + deadline.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm"));
+    public int getFileFormatLength() {
+        return getTypeLength() + super.getFileFormatLength() + getFileDateLength();
     }
 }
@@ -1,5 +1,6 @@
 package overflow.task;
 
+import java.nio.CharBuffer;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
@@ -7,8 +8,8 @@ import java.time.format.DateTimeFormatter;
  * Represents a task that starts at a specific time and ends at a specific time.
  */
 public class Event extends Task {
-    private LocalDateTime startTime;
-    private LocalDateTime endTime;
+    private final long startTime; // minutes since the epoch
+    private final long endTime; // minutes since the epoch
 
     /**
      * Creates a new event task.
@@ -19,8 +20,8 @@ public class Event extends Task {
      */
     public Event(String name, LocalDateTime startTime, LocalDateTime endTime) {
         super(name);
-        this.startTime = startTime;
-        this.endTime = endTime;
+        this.startTime = toEpochMinute(startTime);
+        this.endTime = toEpochMinute(endTime);
     }
 
     /**
@@ -29,7 +30,7 @@ public class Event extends Task {
      * @return The start time.
      */
     public LocalDateTime getStartTime() {
-        return startTime;
+        return fromEpochMinute(startTime);
     }
 
     /**
@@ -38,23 +39,53 @@ public class Event extends Task {
      * @return The end time.
      */
     public LocalDateTime getEndTime() {
+        return fromEpochMinute(endTime);
+    }
+
+    /**
+     * Returns the start time as minutes since the epoch, without creating a LocalDateTime.
+     *
+     * @return The start time in minutes since 1970-01-01 00:00.
+     */
+    public long getStartEpochMinute() {
+        return startTime;
+    }
+
+    /**
+     * Returns the end time as minutes since the epoch, without creating a LocalDateTime.
+     *
+     * @return The end time in minutes since 1970-01-01 00:00.
+     */
+    public long getEndEpochMinute() {
         return endTime;
     }
 
     @Override
-    public String toFileFormat() {
-        String status = super.toString().contains("X") ? "1" : "0";
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm");
-        return "E | " + status + " | " + getName() + " | "
-                + startTime.format(formatter) + " | " + endTime.format(formatter);
+    public void writeFileFormat(CharBuffer buffer) {
+        writeType(buffer, getTypeLetter());
+        super.writeFileFormat(buffer);
+        writeFileDate(buffer, startTime);
+        writeFileDate(buffer, endTime);
+    }
+
+    @Override
+    public int getFileFormatLength() {
+        return getTypeLength() + super.getFileFormatLength() + 2 * getFileDateLength();
+    }
+
+    /**
+     * Returns the letter that starts the task's line in the task file.
+     */
+    char getTypeLetter() {
+        return 'E';
     }
 
     @Override
     public String toString() {
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM dd yyyy, h:mma");
         return "[E]" + super.toString()
-                + " (from: " + startTime.format(formatter)
-                + " to: " + endTime.format(formatter)
+                + " (from: " + getStartTime().format(formatter)
+                + " to: " + getEndTime().format(formatter)
                 + ")";
     }
 }
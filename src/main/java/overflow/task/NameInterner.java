@@ -0,0 +1,88 @@
+package overflow.task;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Shares one copy of each task name between the tasks that have it, so that a name repeated
+ * thousands of times in a task file is kept in memory once.
+ * Names are held through weak references, so a name no task uses any more can still be collected.
+ * The table has a fixed number of slots and a name takes over its slot from whatever name was there,
+ * so it costs the same few megabytes whether a list has ten distinct names or a million; a repeated
+ * name that loses its slot is simply shared again from its next occurrence onwards.
+ * It is safe to use from several threads at once, such as those of a parallel load.
+ */
+public final class NameInterner {
+    private static final int SLOT_COUNT = 1 << 16;
+    private static final int STRING_OBJECT_SIZE = 24; // header, value, hash and coder
+    private static final int ARRAY_HEADER_SIZE = 16;
+    private static final int OBJECT_ALIGNMENT = 8;
+    private static final AtomicReferenceArray<WeakReference<String>> slots = new AtomicReferenceArray<>(SLOT_COUNT);
+    private static final LongAdder sharedCount = new LongAdder();
+    private static final LongAdder savedBytes = new LongAdder();
+
+    private NameInterner() {
+    }
+
+    /**
+     * Returns the copy of the name that other tasks already use, or the name itself if there is none.
+     *
+     * @param name The name to share.
+     * @return A string equal to the name.
+     */
+    public static String intern(String name) {
+        if (name == null) {
+            return null;
+        }
+
+        int hash = name.hashCode();
+        int slot = (hash ^ (hash >>> 16)) & (SLOT_COUNT - 1);
+        WeakReference<String> reference = slots.get(slot);
+        String canonical = reference == null ? null : reference.get();
+        if (canonical != null && canonical.equals(name)) {
+            if (canonical != name) {
+                sharedCount.increment();
+                savedBytes.add(estimateSize(name));
+            }
+            return canonical;
+        }
+
+        slots.set(slot, new WeakReference<>(name));
+        return name;
+    }
+
+    /**
+     * Returns how many names have been replaced by a copy already in use since the program started.
+     *
+     * @return The number of shared names.
+     */
+    public static long getSharedCount() {
+        return sharedCount.sum();
+    }
+
+    /**
+     * Returns roughly how many bytes of heap the shared names would otherwise have taken.
+     *
+     * @return The number of bytes saved.
+     */
+    public static long getSavedBytes() {
+        return savedBytes.sum();
+    }
+
+    /**
+     * Estimates the heap taken by a string and its characters, which are stored one byte each
+     * when they all fit in Latin-1 and two bytes each otherwise.
+     */
+    static long estimateSize(String name) {
+        int valueLength = name.length();
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) > 0xFF) {
+                valueLength *= 2;
+                break;
+            }
+        }
+        int arraySize = ARRAY_HEADER_SIZE + valueLength;
+        return STRING_OBJECT_SIZE + (arraySize + OBJECT_ALIGNMENT - 1) / OBJECT_ALIGNMENT * OBJECT_ALIGNMENT;
+    }
+}
@@ -0,0 +1,60 @@
+package overflow.task;
+
+/**
+ * Represents one occurrence of a recurring event, worked out from the series when it is asked for.
+ * Occurrences are never stored; whether one is done is looked up in the series it came from.
+ */
+public class Occurrence extends Event {
+    private final RecurringEvent series;
+    private final int number;
+
+    Occurrence(RecurringEvent series, int number) {
+        super(series.getName(), fromEpochMinute(series.getOccurrenceStart(number)),
+                fromEpochMinute(series.getOccurrenceStart(number)
+                        + series.getEndEpochMinute() - series.getStartEpochMinute()));
+        this.series = series;
+        this.number = number;
+        if (series.getId() != NO_ID) {
+            setId(series.getId());
+        }
+    }
+
+    /**
+     * Returns the recurring event this is an occurrence of.
+     *
+     * @return The series.
+     */
+    public RecurringEvent getSeries() {
+        return series;
+    }
+
+    /**
+     * Returns which occurrence of the series this is, counting the first as 0.
+     *
+     * @return The occurrence number.
+     */
+    public int getNumber() {
+        return number;
+    }
+
+    @Override
+    public boolean isDone() {
+        return series.isOccurrenceDone(number);
+    }
+
+    /**
+     * Occurrences are marked through the task list that holds their series.
+     */
+    @Override
+    public void mark() {
+        throw new UnsupportedOperationException("Occurrences are marked through their task list");
+    }
+
+    /**
+     * Occurrences are unmarked through the task list that holds their series.
+     */
+    @Override
+    public void unmark() {
+        throw new UnsupportedOperationException("Occurrences are unmarked through their task list");
+    }
+}
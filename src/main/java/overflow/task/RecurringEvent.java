@@ -0,0 +1,303 @@
+package overflow.task;
+
+import java.nio.CharBuffer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+
+/**
+ * Represents an event that takes place again and again at a fixed interval, such as a weekly meeting.
+ * Only the first occurrence and the interval are kept; the occurrences within a period of time are
+ * worked out when asked for, one at a time.
+ *
+ * <p>An occurrence is done if the whole series is marked as done, unless that occurrence was marked
+ * or unmarked by itself. Those exceptions are kept by occurrence number, counting the first as 0,
+ * and never change; marking an occurrence gives a new copy of the series instead.</p>
+ */
+public class RecurringEvent extends Event {
+    /**
+     * How often an event takes place.
+     */
+    public enum Period {
+        DAY("day", 24 * 60), WEEK("week", 7 * 24 * 60);
+
+        private final String keyword;
+        private final int minutes;
+
+        Period(String keyword, int minutes) {
+            this.keyword = keyword;
+            this.minutes = minutes;
+        }
+
+        public String getKeyword() {
+            return keyword;
+        }
+
+        public int getMinutes() {
+            return minutes;
+        }
+
+        /**
+         * Finds the period with the given keyword, as in "every week".
+         *
+         * @param keyword The keyword, in any case.
+         * @return The period, or null if there is none with that keyword.
+         */
+        public static Period fromKeyword(String keyword) {
+            for (Period period : values()) {
+                if (period.keyword.equalsIgnoreCase(keyword)) {
+                    return period;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Finds the period that lasts the given number of minutes.
+         *
+         * @param minutes The length of the period.
+         * @return The period, or null if there is none of that length.
+         */
+        public static Period fromMinutes(int minutes) {
+            for (Period period : values()) {
+                if (period.minutes == minutes) {
+                    return period;
+                }
+            }
+            return null;
+        }
+    }
+
+    private final Period period;
+    private final TreeMap<Integer, Boolean> exceptions; // occurrence number to done state, never modified
+
+    /**
+     * Creates a new recurring event.
+     *
+     * @param name Description of the event.
+     * @param startTime Start time of the first occurrence.
+     * @param endTime End time of the first occurrence.
+     * @param period How often the event takes place.
+     */
+    public RecurringEvent(String name, LocalDateTime startTime, LocalDateTime endTime, Period period) {
+        this(name, startTime, endTime, period, new TreeMap<>());
+    }
+
+    /**
+     * Creates a recurring event with some occurrences marked or unmarked by themselves.
+     *
+     * @param name Description of the event.
+     * @param startTime Start time of the first occurrence.
+     * @param endTime End time of the first occurrence.
+     * @param period How often the event takes place.
+     * @param exceptions The done state of those occurrences, by occurrence number.
+     */
+    public RecurringEvent(String name, LocalDateTime startTime, LocalDateTime endTime, Period period,
+            Map<Integer, Boolean> exceptions) {
+        super(name, startTime, endTime);
+        assert period != null : "Period cannot be null";
+        this.period = period;
+        this.exceptions = new TreeMap<>(exceptions);
+    }
+
+    public Period getPeriod() {
+        return period;
+    }
+
+    /**
+     * Returns the occurrence with the given number, counting the first as 0.
+     *
+     * @param number The occurrence number, which must not be negative.
+     * @return The occurrence.
+     */
+    public Occurrence getOccurrence(int number) {
+        assert number >= 0 : "Occurrence numbers should not be negative";
+        return new Occurrence(this, number);
+    }
+
+    /**
+     * Returns the start of an occurrence as minutes since the epoch.
+     *
+     * @param number The occurrence number.
+     * @return The start time in minutes since 1970-01-01 00:00.
+     */
+    public long getOccurrenceStart(int number) {
+        return getStartEpochMinute() + (long) number * period.minutes;
+    }
+
+    /**
+     * Returns the number of the first occurrence that starts at or after a time.
+     *
+     * @param epochMinute The time in minutes since 1970-01-01 00:00.
+     * @return The occurrence number.
+     */
+    public int getFirstOccurrenceFrom(long epochMinute) {
+        long sinceFirst = epochMinute - getStartEpochMinute();
+        if (sinceFirst <= 0) {
+            return 0;
+        }
+        return (int) Math.min(Integer.MAX_VALUE, (sinceFirst + period.minutes - 1) / period.minutes);
+    }
+
+    /**
+     * Finds the occurrence that starts on a given day.
+     *
+     * @param date The day.
+     * @return The occurrence number, or -1 if the event does not take place that day.
+     */
+    public int findOccurrenceOn(LocalDate date) {
+        long dayStart = toEpochMinute(date.atStartOfDay());
+        int number = getFirstOccurrenceFrom(dayStart);
+        if (number == Integer.MAX_VALUE || getOccurrenceStart(number) >= dayStart + Period.DAY.minutes) {
+            return -1;
+        }
+        return number;
+    }
+
+    /**
+     * Lists the occurrences that overlap a period of time, including those that only touch its ends.
+     * Each occurrence is created only when the iterator reaches it.
+     *
+     * @param from The start of the period.
+     * @param to The end of the period.
+     * @return The occurrences, in order.
+     */
+    public Iterator<Occurrence> occurrencesBetween(LocalDateTime from, LocalDateTime to) {
+        long fromMinute = toEpochMinute(from);
+        if (from.getSecond() != 0 || from.getNano() != 0) {
+            fromMinute++;
+        }
+        long toMinute = toEpochMinute(to);
+        int first = getFirstOccurrenceFrom(fromMinute - (getEndEpochMinute() - getStartEpochMinute()));
+
+        return new Iterator<>() {
+            private int next = first;
+
+            @Override
+            public boolean hasNext() {
+                return next >= 0 && getOccurrenceStart(next) <= toMinute;
+            }
+
+            @Override
+            public Occurrence next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return getOccurrence(next++); // wraps to negative after the last possible occurrence
+            }
+        };
+    }
+
+    /**
+     * Returns whether an occurrence is done.
+     *
+     * @param number The occurrence number.
+     * @return True if the occurrence is done.
+     */
+    public boolean isOccurrenceDone(int number) {
+        return exceptions.getOrDefault(number, isDone());
+    }
+
+    /**
+     * Returns a copy of the series with one occurrence marked as done or not done. The series itself
+     * is left unchanged, so a version of the list being saved never sees its exceptions change.
+     *
+     * @param number The occurrence number.
+     * @param isDone Whether the occurrence is done.
+     * @return The copy, with the same id and done state as this series.
+     */
+    public RecurringEvent withOccurrenceDone(int number, boolean isDone) {
+        TreeMap<Integer, Boolean> changed = new TreeMap<>(exceptions);
+        if (isDone == isDone()) {
+            changed.remove(number);
+        } else {
+            changed.put(number, isDone);
+        }
+        RecurringEvent copy = new RecurringEvent(getName(), getStartTime(), getEndTime(), period, changed);
+        if (isDone()) {
+            copy.mark();
+        }
+        if (getId() != NO_ID) {
+            copy.setId(getId());
+        }
+        return copy;
+    }
+
+    @Override
+    char getTypeLetter() {
+        return 'R';
+    }
+
+    /**
+     * Returns the occurrences marked or unmarked by themselves, with their done state.
+     *
+     * @return The exceptions, by occurrence number.
+     */
+    public Map<Integer, Boolean> getExceptions() {
+        return Collections.unmodifiableMap(exceptions);
+    }
+
+    /**
+     * Writes the exceptions in the task file's layout, as in "3=1,7=0".
+     */
+    private String getExceptionsField() {
+        StringBuilder field = new StringBuilder();
+        for (Map.Entry<Integer, Boolean> exception : exceptions.entrySet()) {
+            if (field.length() > 0) {
+                field.append(',');
+            }
+            field.append(exception.getKey()).append('=').append(exception.getValue() ? '1' : '0');
+        }
+        return field.toString();
+    }
+
+    /**
+     * Reads the exceptions written in the task file's layout, as in "3=1,7=0".
+     *
+     * @param field The exceptions field.
+     * @return The done state of each listed occurrence, by occurrence number.
+     * @throws NumberFormatException If the field is not in that layout.
+     */
+    public static TreeMap<Integer, Boolean> parseExceptions(String field) {
+        TreeMap<Integer, Boolean> exceptions = new TreeMap<>();
+        if (field.isEmpty()) {
+            return exceptions;
+        }
+        for (String exception : field.split(",")) {
+            int separator = exception.indexOf('=');
+            if (separator < 0) {
+                throw new NumberFormatException("Invalid occurrence \"" + exception + "\"");
+            }
+            int number = Integer.parseInt(exception.substring(0, separator));
+            exceptions.put(number, exception.substring(separator + 1).equals("1"));
+        }
+        return exceptions;
+    }
+
+    @Override
+    public void writeFileFormat(CharBuffer buffer) {
+        super.writeFileFormat(buffer);
+        writeField(buffer, period.keyword);
+        String exceptionsField = getExceptionsField();
+        if (!exceptionsField.isEmpty()) {
+            writeField(buffer, exceptionsField);
+        }
+    }
+
+    @Override
+    public int getFileFormatLength() {
+        String exceptionsField = getExceptionsField();
+        return super.getFileFormatLength() + getFieldLength(period.keyword)
+                + (exceptionsField.isEmpty() ? 0 : getFieldLength(exceptionsField));
+    }
+
+    @Override
+    public String toString() {
+        String event = super.toString();
+        return event.substring(0, event.length() - 1) + ", every " + period.keyword + ")";
+    }
+}
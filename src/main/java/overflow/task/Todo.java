@@ -1,5 +1,7 @@
 package overflow.task;
 
+import java.nio.CharBuffer;
+
 /**
  * Represents a todo task without any date/time attached.
  */
@@ -15,8 +17,14 @@ public class Todo extends Task {
     }
 
     @Override
-    public String toFileFormat() {
-        return "T | " + super.toFileFormat();
+    public void writeFileFormat(CharBuffer buffer) {
+        writeType(buffer, 'T');
+        super.writeFileFormat(buffer);
+    }
+
+    @Override
+    public int getFileFormatLength() {
+        return getTypeLength() + super.getFileFormatLength();
     }
 
     @Override
@@ -0,0 +1,125 @@
+package overflow.tasklist;
+
+import overflow.task.Task;
+
+/**
+ * Represents a single mutation applied to a TaskList, so that it can be persisted incrementally.
+ */
+public class Change {
+    /**
+     * The kinds of mutation a TaskList can go through.
+     */
+    public enum Type {
+        ADD, INSERT, DELETE, MARK, UNMARK
+    }
+
+    private final Type type;
+    private final int index;
+    private final Task task;
+    private final int occurrence;
+
+    private Change(Type type, int index, Task task) {
+        this(type, index, task, -1);
+    }
+
+    private Change(Type type, int index, Task task, int occurrence) {
+        this.type = type;
+        this.index = index;
+        this.task = task;
+        this.occurrence = occurrence;
+    }
+
+    /**
+     * Creates a change that appends a task to the end of the list.
+     *
+     * @param task The task appended.
+     * @return The change.
+     */
+    public static Change add(Task task) {
+        return new Change(Type.ADD, -1, task);
+    }
+
+    /**
+     * Creates a change that inserts a task at a position.
+     *
+     * @param index The position the task is inserted at (0-based).
+     * @param task The task inserted.
+     * @return The change.
+     */
+    public static Change insert(int index, Task task) {
+        return new Change(Type.INSERT, index, task);
+    }
+
+    /**
+     * Creates a change that removes the task at a position.
+     *
+     * @param index The position of the removed task (0-based).
+     * @return The change.
+     */
+    public static Change delete(int index) {
+        return new Change(Type.DELETE, index, null);
+    }
+
+    /**
+     * Creates a change that marks the task at a position as done.
+     *
+     * @param index The position of the marked task (0-based).
+     * @return The change.
+     */
+    public static Change mark(int index) {
+        return new Change(Type.MARK, index, null);
+    }
+
+    /**
+     * Creates a change that marks the task at a position as not done.
+     *
+     * @param index The position of the unmarked task (0-based).
+     * @return The change.
+     */
+    public static Change unmark(int index) {
+        return new Change(Type.UNMARK, index, null);
+    }
+
+    /**
+     * Creates a change that marks one occurrence of the recurring event at a position as done.
+     *
+     * @param index The position of the recurring event (0-based).
+     * @param occurrence The occurrence number, counting the first as 0.
+     * @return The change.
+     */
+    public static Change markOccurrence(int index, int occurrence) {
+        return new Change(Type.MARK, index, null, occurrence);
+    }
+
+    /**
+     * Creates a change that marks one occurrence of the recurring event at a position as not done.
+     *
+     * @param index The position of the recurring event (0-based).
+     * @param occurrence The occurrence number, counting the first as 0.
+     * @return The change.
+     */
+    public static Change unmarkOccurrence(int index, int occurrence) {
+        return new Change(Type.UNMARK, index, null, occurrence);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public Task getTask() {
+        return task;
+    }
+
+    /**
+     * Returns the occurrence a mark or unmark applies to.
+     *
+     * @return The occurrence number, or -1 if it applies to the whole task.
+     */
+    public int getOccurrence() {
+        return occurrence;
+    }
+}
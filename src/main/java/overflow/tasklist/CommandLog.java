@@ -0,0 +1,181 @@
+package overflow.tasklist;
+
+import java.util.ArrayDeque;
+import java.util.List;
+
+import overflow.task.Task;
+
+/**
+ * Remembers the most recent actions on a TaskList so they can be undone and redone.
+ * Only a bounded number of actions are kept; the oldest are forgotten first. An action that
+ * touched several tasks is kept as one group of entries, so it is undone and redone as a whole.
+ *
+ * <p>The entries of all remembered actions are bounded too, since a bulk action holds one per task.
+ * Whole actions are forgotten from the oldest end to stay within that bound, except the latest,
+ * which can always be undone however many tasks it touched.</p>
+ */
+class CommandLog {
+    static final int DEFAULT_ENTRY_CAPACITY = 100_000;
+
+    private final int capacity;
+    private final int entryCapacity;
+    private int entryCount;
+    private final ArrayDeque<List<Entry>> undoStack = new ArrayDeque<>();
+    private final ArrayDeque<List<Entry>> redoStack = new ArrayDeque<>();
+
+    /**
+     * Creates an empty log.
+     *
+     * @param capacity The largest number of actions that can be undone.
+     */
+    CommandLog(int capacity) {
+        this(capacity, DEFAULT_ENTRY_CAPACITY);
+    }
+
+    /**
+     * Creates an empty log.
+     *
+     * @param capacity The largest number of actions that can be undone.
+     * @param entryCapacity The largest number of entries kept across all actions, besides the latest.
+     */
+    CommandLog(int capacity, int entryCapacity) {
+        assert capacity > 0 : "Undo capacity should be positive";
+        assert entryCapacity > 0 : "Entry capacity should be positive";
+        this.capacity = capacity;
+        this.entryCapacity = entryCapacity;
+    }
+
+    /**
+     * Records a new action. Anything that could be redone is forgotten, as it no longer
+     * applies on top of the new state.
+     *
+     * @param entry The action applied to the list.
+     */
+    void record(Entry entry) {
+        record(List.of(entry));
+    }
+
+    /**
+     * Records a new action made of several steps, which are undone and redone together.
+     *
+     * @param entries The steps of the action, in the order they were applied.
+     */
+    void record(List<Entry> entries) {
+        assert !entries.isEmpty() : "An action should have at least one step";
+        for (List<Entry> redone : redoStack) {
+            entryCount -= redone.size();
+        }
+        redoStack.clear();
+        entryCount += entries.size();
+        push(undoStack, entries);
+
+        // Undo and redo only move actions between the stacks, so only a new action can exceed the bound
+        while (entryCount > entryCapacity && undoStack.size() > 1) {
+            entryCount -= undoStack.removeLast().size();
+        }
+    }
+
+    /**
+     * Takes the most recent action off the undo stack and moves it to the redo stack.
+     *
+     * @return The steps of the action to revert in the order they were applied, or null if there is none.
+     */
+    List<Entry> undo() {
+        List<Entry> entries = undoStack.pollFirst();
+        if (entries != null) {
+            push(redoStack, entries);
+        }
+        return entries;
+    }
+
+    /**
+     * Takes the most recently undone action off the redo stack and moves it back to the undo stack.
+     *
+     * @return The steps of the action to apply again in order, or null if there is none.
+     */
+    List<Entry> redo() {
+        List<Entry> entries = redoStack.pollFirst();
+        if (entries != null) {
+            push(undoStack, entries);
+        }
+        return entries;
+    }
+
+    private void push(ArrayDeque<List<Entry>> stack, List<Entry> entries) {
+        stack.addFirst(entries);
+        if (stack.size() > capacity) {
+            entryCount -= stack.removeLast().size();
+        }
+    }
+
+    /**
+     * An action applied to the list, with what is needed to revert or repeat it in O(1).
+     * Added and deleted tasks keep their ids, so they return to the list under the same id.
+     */
+    static class Entry {
+        private final Change.Type type;
+        private final int index;
+        private final Task task;
+        private final boolean wasDone;
+        private final int occurrence;
+
+        private Entry(Change.Type type, int index, Task task, boolean wasDone) {
+            this(type, index, task, wasDone, -1);
+        }
+
+        private Entry(Change.Type type, int index, Task task, boolean wasDone, int occurrence) {
+            this.type = type;
+            this.index = index;
+            this.task = task;
+            this.wasDone = wasDone;
+            this.occurrence = occurrence;
+        }
+
+        static Entry add(int index, Task task) {
+            return new Entry(Change.Type.ADD, index, task, false);
+        }
+
+        static Entry delete(int index, Task task) {
+            return new Entry(Change.Type.DELETE, index, task, false);
+        }
+
+        static Entry mark(int index, boolean wasDone) {
+            return new Entry(Change.Type.MARK, index, null, wasDone);
+        }
+
+        static Entry unmark(int index, boolean wasDone) {
+            return new Entry(Change.Type.UNMARK, index, null, wasDone);
+        }
+
+        static Entry markOccurrence(int index, int occurrence, boolean wasDone) {
+            return new Entry(Change.Type.MARK, index, null, wasDone, occurrence);
+        }
+
+        static Entry unmarkOccurrence(int index, int occurrence, boolean wasDone) {
+            return new Entry(Change.Type.UNMARK, index, null, wasDone, occurrence);
+        }
+
+        Change.Type getType() {
+            return type;
+        }
+
+        int getIndex() {
+            return index;
+        }
+
+        Task getTask() {
+            return task;
+        }
+
+        boolean wasDone() {
+            return wasDone;
+        }
+
+        /**
+         * Returns the occurrence a mark or unmark applied to, or -1 if it applied to the whole task.
+         */
+        int getOccurrence() {
+            return occurrence;
+        }
+    }
+}
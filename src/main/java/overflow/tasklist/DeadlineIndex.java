@@ -0,0 +1,175 @@
+package overflow.tasklist;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.TreeSet;
+
+import overflow.task.Deadline;
+import overflow.task.Task;
+
+/**
+ * Keeps the pending deadlines sorted by due time, so the next few can be listed without sorting
+ * the whole list. Deadlines due at the same time are kept in list order.
+ *
+ * <p>The index also counts the pending deadlines that are overdue. It remembers the time it last
+ * counted up to, and when asked again later only steps over the deadlines that fell due in between,
+ * so keeping the count costs each deadline one step however often it is asked for. Readers sharing
+ * the list's read lock may count at the same time, so counting is synchronized.</p>
+ */
+class DeadlineIndex {
+    private static final Comparator<Entry> ORDER = Comparator.<Entry>comparingLong(entry -> entry.due)
+            .thenComparingLong(entry -> entry.id);
+
+    private final TreeSet<Entry> entries = new TreeSet<>(ORDER);
+    private long overdueBefore = Long.MIN_VALUE; // minute from which deadlines are not counted as overdue
+    private int overdueCount;
+
+    /**
+     * Adds a deadline if it is not done yet, or removes it if it is.
+     *
+     * @param deadline The deadline whose done state may have changed.
+     * @param id The deadline's id.
+     */
+    void update(Deadline deadline, long id) {
+        Entry entry = new Entry(deadline, id);
+        if (deadline.isDone()) {
+            remove(entry);
+        } else if (entries.add(entry) && entry.due < overdueBefore) {
+            overdueCount++;
+        }
+    }
+
+    /**
+     * Removes a deadline, whether or not it is done.
+     *
+     * @param deadline The deadline to remove.
+     * @param id The id the deadline was added with.
+     */
+    void remove(Deadline deadline, long id) {
+        remove(new Entry(deadline, id));
+    }
+
+    private void remove(Entry entry) {
+        if (entries.remove(entry) && entry.due < overdueBefore) {
+            overdueCount--;
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Counts the pending deadlines that are due before a given time.
+     *
+     * @param now The current time.
+     * @return The number of overdue deadlines.
+     */
+    synchronized int countOverdue(LocalDateTime now) {
+        long boundary = toCeilingMinute(now);
+        if (boundary > overdueBefore) {
+            overdueCount += entries.subSet(new Entry(overdueBefore, Long.MIN_VALUE), true,
+                    new Entry(boundary, Long.MIN_VALUE), false).size();
+        } else if (boundary < overdueBefore) {
+            // The clock was turned back, so some deadlines are no longer overdue
+            overdueCount -= entries.subSet(new Entry(boundary, Long.MIN_VALUE), true,
+                    new Entry(overdueBefore, Long.MIN_VALUE), false).size();
+        }
+        overdueBefore = boundary;
+        return overdueCount;
+    }
+
+    /**
+     * Returns the earliest pending deadlines that are due at or after a given time.
+     *
+     * @param from The earliest due time to include.
+     * @param limit The largest number of deadlines to return.
+     * @return The deadlines, ordered by due time.
+     */
+    ArrayList<Deadline> findNext(LocalDateTime from, int limit) {
+        ArrayList<Deadline> results = new ArrayList<>();
+        for (Entry entry : entries.tailSet(new Entry(toCeilingMinute(from), Long.MIN_VALUE), true)) {
+            if (results.size() == limit) {
+                break;
+            }
+            results.add(entry.deadline);
+        }
+        return results;
+    }
+
+    /**
+     * Returns the pending deadlines due within a range of minutes.
+     *
+     * @param from The earliest due minute to include.
+     * @param to The latest due minute to include.
+     * @return The deadlines, ordered by due time.
+     */
+    ArrayList<Deadline> findBetween(long from, long to) {
+        ArrayList<Deadline> results = new ArrayList<>();
+        if (from > to) {
+            return results;
+        }
+        for (Entry entry : entries.subSet(new Entry(from, Long.MIN_VALUE), true, new Entry(to, Long.MAX_VALUE), true)) {
+            results.add(entry.deadline);
+        }
+        return results;
+    }
+
+    /**
+     * Estimates how many pending deadlines are due within a range of minutes without walking them,
+     * assuming they are spread evenly between the earliest and the latest.
+     *
+     * @param from The earliest due minute to include.
+     * @param to The latest due minute to include.
+     * @return The estimated number of deadlines.
+     */
+    long estimateBetween(long from, long to) {
+        if (entries.isEmpty()) {
+            return 0;
+        }
+        return estimateShare(entries.size(), entries.first().due, entries.last().due, from, to);
+    }
+
+    /**
+     * Estimates how many of a number of times spread evenly over one range fall within another.
+     */
+    static long estimateShare(int count, long first, long last, long from, long to) {
+        long covered = Math.min(to, last) - Math.max(from, first);
+        if (covered < 0) {
+            return 0;
+        }
+        double share = (covered + 1.0) / (last - first + 1.0);
+        return (long) Math.ceil(count * share);
+    }
+
+    /**
+     * Rounds a time up to a whole minute. Deadlines are whole minutes, so one due within the minute
+     * that started before the time is already past.
+     */
+    private static long toCeilingMinute(LocalDateTime time) {
+        long minute = Task.toEpochMinute(time);
+        if (time.getSecond() != 0 || time.getNano() != 0) {
+            minute++;
+        }
+        return minute;
+    }
+
+    private static class Entry {
+        private final Deadline deadline;
+        private final long due;
+        private final long id;
+
+        Entry(Deadline deadline, long id) {
+            this.deadline = deadline;
+            this.due = deadline.getDeadlineEpochMinute();
+            this.id = id;
+        }
+
+        Entry(long due, long id) {
+            this.deadline = null;
+            this.due = due;
+            this.id = id;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package overflow.tasklist;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Random;
+
+import overflow.task.Event;
+import overflow.task.Task;
+
+/**
+ * Indexes events by their time span so that the events overlapping a time range can be found in
+ * O(log n + k). This is a treap ordered by start time, where every node also remembers the latest
+ * end time in its subtree, so whole subtrees that end too early are skipped.
+ */
+class EventIntervalTree {
+    private final Random random = new Random();
+    private Node root;
+    private int size;
+
+    /**
+     * Adds an event to the tree.
+     *
+     * @param event The event to add.
+     * @param id The event's id, which breaks ties between equal start times.
+     */
+    void add(Event event, long id) {
+        root = insert(root, new Node(event, id, random.nextInt()));
+        size++;
+    }
+
+    /**
+     * Removes an event from the tree.
+     *
+     * @param event The event to remove.
+     * @param id The id the event was added with.
+     */
+    void remove(Event event, long id) {
+        int before = size;
+        root = delete(root, event.getStartEpochMinute(), id);
+        assert size == before - 1 : "Event to remove was not in the tree";
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Finds every event that overlaps the range, including events that only touch its ends.
+     *
+     * @param from The start of the range.
+     * @param to The end of the range.
+     * @return The overlapping events, ordered by start time.
+     */
+    ArrayList<Event> findOverlapping(LocalDateTime from, LocalDateTime to) {
+        // Event times are whole minutes, so round the range inwards to whole minutes as well
+        long fromMinute = Task.toEpochMinute(from);
+        if (from.getSecond() != 0 || from.getNano() != 0) {
+            fromMinute++;
+        }
+        return findOverlapping(fromMinute, Task.toEpochMinute(to));
+    }
+
+    /**
+     * Finds every event that overlaps a range of minutes, including events that only touch its ends.
+     *
+     * @param from The first minute of the range.
+     * @param to The last minute of the range.
+     * @return The overlapping events, ordered by start time.
+     */
+    ArrayList<Event> findOverlapping(long from, long to) {
+        ArrayList<Event> results = new ArrayList<>();
+        collect(root, from, to, results);
+        return results;
+    }
+
+    /**
+     * Estimates how many events overlap a range of minutes without walking them, assuming they are
+     * spread evenly between the earliest start and the latest end.
+     *
+     * @param from The first minute of the range.
+     * @param to The last minute of the range.
+     * @return The estimated number of events.
+     */
+    long estimateOverlapping(long from, long to) {
+        if (root == null) {
+            return 0;
+        }
+        Node first = root;
+        while (first.left != null) {
+            first = first.left;
+        }
+        return DeadlineIndex.estimateShare(size, first.start, root.maxEnd, from, to);
+    }
+
+    private void collect(Node node, long from, long to, ArrayList<Event> results) {
+        if (node == null || node.maxEnd < from) {
+            return; // everything below ends before the range starts
+        }
+
+        collect(node.left, from, to, results);
+        if (node.start > to) {
+            return; // this node and everything to its right start after the range ends
+        }
+        if (node.end >= from) {
+            results.add(node.event);
+        }
+        collect(node.right, from, to, results);
+    }
+
+    private Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+
+        if (compare(added.start, added.id, node) < 0) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        node.update();
+        return node;
+    }
+
+    private Node delete(Node node, long start, long id) {
+        if (node == null) {
+            return null;
+        }
+
+        int comparison = compare(start, id, node);
+        if (comparison < 0) {
+            node.left = delete(node.left, start, id);
+        } else if (comparison > 0) {
+            node.right = delete(node.right, start, id);
+        } else {
+            size--;
+            return merge(node.left, node.right);
+        }
+        node.update();
+        return node;
+    }
+
+    /**
+     * Joins two treaps where every key on the left is smaller than every key on the right.
+     */
+    private Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    private Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    private static int compare(long start, long id, Node node) {
+        int comparison = Long.compare(start, node.start);
+        return comparison != 0 ? comparison : Long.compare(id, node.id);
+    }
+
+    private static class Node {
+        private final Event event;
+        private final long start;
+        private final long end;
+        private final long id;
+        private final int priority;
+        private long maxEnd;
+        private Node left;
+        private Node right;
+
+        Node(Event event, long id, int priority) {
+            this.event = event;
+            this.start = event.getStartEpochMinute();
+            this.end = event.getEndEpochMinute();
+            this.id = id;
+            this.priority = priority;
+            this.maxEnd = end;
+        }
+
+        void update() {
+            maxEnd = end;
+            if (left != null && left.maxEnd > maxEnd) {
+                maxEnd = left.maxEnd;
+            }
+            if (right != null && right.maxEnd > maxEnd) {
+                maxEnd = right.maxEnd;
+            }
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package overflow.tasklist;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import overflow.task.Task;
+
+/**
+ * Walks the tasks that match one keyword in ascending id order, which is list order, without
+ * collecting them. Ranked search moves one cursor per keyword forward in step, so it holds a single
+ * task per keyword at a time however many tasks match.
+ *
+ * <p>A cursor reads the indexes as they are, so it must only be used while the list's read lock is held.</p>
+ */
+abstract class MatchCursor {
+    protected final TaskVector tasks;
+    private int index; // of the task last found, as every later one lies further on
+    private Task current;
+    private boolean isExhausted;
+
+    private MatchCursor(TaskVector tasks) {
+        this.tasks = tasks;
+    }
+
+    /**
+     * Walks the tasks under any of several posting lists, such as those of every token containing a keyword.
+     *
+     * @param tasks The version of the list the postings describe.
+     * @param lists The posting lists, which may share ids.
+     * @return The cursor.
+     */
+    static MatchCursor union(TaskVector tasks, List<PostingList> lists) {
+        return new Union(tasks, lists);
+    }
+
+    /**
+     * Walks the tasks under every one of several posting lists whose names also contain a keyword,
+     * such as those holding all of a keyword's trigrams.
+     *
+     * @param tasks The version of the list the postings describe.
+     * @param lists The posting lists, best given shortest first.
+     * @param lowerCaseKeyword The lower-cased keyword each name is checked for.
+     * @return The cursor.
+     */
+    static MatchCursor intersection(TaskVector tasks, List<PostingList> lists, String lowerCaseKeyword) {
+        return new Intersection(tasks, lists, lowerCaseKeyword);
+    }
+
+    /**
+     * Walks the tasks whose names contain a keyword by checking each one in turn.
+     *
+     * @param tasks The version of the list to walk.
+     * @param lowerCaseKeyword The lower-cased keyword.
+     * @return The cursor.
+     */
+    static MatchCursor scan(TaskVector tasks, String lowerCaseKeyword) {
+        return new Scan(tasks, lowerCaseKeyword);
+    }
+
+    /**
+     * Returns the first matching task whose id is at least the given one. The ids asked for must
+     * not decrease, so that the cursor only ever moves forward.
+     *
+     * @param id The smallest id wanted.
+     * @return The task, or null if no later task matches.
+     */
+    Task seek(long id) {
+        if (!isExhausted && (current == null || current.getId() < id)) {
+            current = advance(id);
+            isExhausted = current == null;
+        }
+        return isExhausted ? null : current;
+    }
+
+    /**
+     * Returns a cursor over the same matches that starts again from the beginning.
+     */
+    abstract MatchCursor restart();
+
+    /**
+     * Finds the first matching task whose id is at least the given one.
+     */
+    protected abstract Task advance(long id);
+
+    /**
+     * Looks up a task by the id found in a posting list.
+     */
+    protected Task resolve(long id) {
+        index = tasks.indexOfId(id, index);
+        return tasks.get(index);
+    }
+
+    private static class Union extends MatchCursor {
+        private final List<PostingList> lists;
+        private final int[] positions;
+        private final PriorityQueue<Integer> byHead; // lists that have ids left, smallest next id first
+
+        Union(TaskVector tasks, List<PostingList> lists) {
+            super(tasks);
+            this.lists = lists;
+            this.positions = new int[lists.size()];
+            this.byHead = new PriorityQueue<>(Math.max(1, lists.size()), Comparator.comparingLong(this::getHead));
+            for (int i = 0; i < lists.size(); i++) {
+                if (lists.get(i).size() > 0) {
+                    byHead.add(i);
+                }
+            }
+        }
+
+        private long getHead(int list) {
+            return lists.get(list).get(positions[list]);
+        }
+
+        @Override
+        MatchCursor restart() {
+            return new Union(tasks, lists);
+        }
+
+        @Override
+        protected Task advance(long id) {
+            while (!byHead.isEmpty() && getHead(byHead.peek()) < id) {
+                int list = byHead.poll();
+                positions[list] = lists.get(list).ceilingPosition(id, positions[list]);
+                if (positions[list] < lists.get(list).size()) {
+                    byHead.add(list);
+                }
+            }
+            return byHead.isEmpty() ? null : resolve(getHead(byHead.peek()));
+        }
+    }
+
+    private static class Intersection extends MatchCursor {
+        private final List<PostingList> lists;
+        private final String lowerCaseKeyword;
+        private final int[] positions;
+
+        Intersection(TaskVector tasks, List<PostingList> lists, String lowerCaseKeyword) {
+            super(tasks);
+            this.lists = lists;
+            this.lowerCaseKeyword = lowerCaseKeyword;
+            this.positions = new int[lists.size()];
+        }
+
+        @Override
+        MatchCursor restart() {
+            return new Intersection(tasks, lists, lowerCaseKeyword);
+        }
+
+        @Override
+        protected Task advance(long id) {
+            if (lists.isEmpty()) {
+                return null;
+            }
+            while (true) {
+                // Leapfrog: move each list up to the largest id seen until they all agree on one
+                int agreed = 0;
+                for (int i = 0; agreed < lists.size(); i = (i + 1) % lists.size()) {
+                    PostingList list = lists.get(i);
+                    positions[i] = list.ceilingPosition(id, positions[i]);
+                    if (positions[i] == list.size()) {
+                        return null;
+                    }
+                    if (list.get(positions[i]) != id) {
+                        id = list.get(positions[i]);
+                        agreed = 0;
+                    }
+                    agreed++;
+                }
+
+                Task candidate = resolve(id);
+                if (candidate.getName().toLowerCase().contains(lowerCaseKeyword)) {
+                    return candidate;
+                }
+                id++;
+            }
+        }
+    }
+
+    private static class Scan extends MatchCursor {
+        private final String lowerCaseKeyword;
+        private int position;
+
+        Scan(TaskVector tasks, String lowerCaseKeyword) {
+            super(tasks);
+            this.lowerCaseKeyword = lowerCaseKeyword;
+        }
+
+        @Override
+        MatchCursor restart() {
+            return new Scan(tasks, lowerCaseKeyword);
+        }
+
+        @Override
+        protected Task advance(long id) {
+            for (position = tasks.ceilingIndexOfId(id, position); position < tasks.size(); position++) {
+                Task task = tasks.get(position);
+                if (task.getName().toLowerCase().contains(lowerCaseKeyword)) {
+                    return task;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package overflow.tasklist;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A sorted, growable array of task ids. New tasks have the highest id and are
+ * appended, only restored tasks need to be inserted in the middle.
+ */
+class PostingList {
+    private long[] ids = new long[4];
+    private int size;
+
+    void add(long id) {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        int position = size;
+        if (size > 0 && id <= ids[size - 1]) {
+            position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+            position = -position - 1;
+        }
+        System.arraycopy(ids, position, ids, position + 1, size - position);
+        ids[position] = id;
+        size++;
+    }
+
+    void remove(long id) {
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position >= 0) {
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    long get(int position) {
+        return ids[position];
+    }
+
+    /**
+     * Finds the first position at or after a given one that holds an id at least as large as the given id.
+     *
+     * @param id The smallest id wanted.
+     * @param from The position to start from.
+     * @return The position, or the size of the list if every id from there on is smaller.
+     */
+    int ceilingPosition(long id, int from) {
+        int position = Arrays.binarySearch(ids, from, size, id);
+        return position >= 0 ? position : -position - 1;
+    }
+
+    long[] toArray() {
+        return Arrays.copyOf(ids, size);
+    }
+
+    /**
+     * Keeps only the candidates that are also in this list, compacting them to the front.
+     *
+     * @return The number of candidates kept.
+     */
+    int retainAll(long[] candidates, int count) {
+        int kept = 0;
+        int from = 0;
+        for (int i = 0; i < count; i++) {
+            int position = Arrays.binarySearch(ids, from, size, candidates[i]);
+            if (position >= 0) {
+                candidates[kept++] = candidates[i];
+                from = position + 1;
+            } else {
+                from = -position - 1;
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * Returns every id in any of the lists once, in ascending order.
+     *
+     * @param lists The lists to merge.
+     * @return The ids.
+     */
+    static long[] union(List<PostingList> lists) {
+        int total = 0;
+        for (PostingList list : lists) {
+            total += list.size;
+        }
+        long[] merged = new long[total];
+        int end = 0;
+        for (PostingList list : lists) {
+            System.arraycopy(list.ids, 0, merged, end, list.size);
+            end += list.size;
+        }
+        Arrays.sort(merged);
+
+        int count = 0;
+        for (int i = 0; i < merged.length; i++) {
+            if (count == 0 || merged[i] != merged[count - 1]) {
+                merged[count++] = merged[i];
+            }
+        }
+        return Arrays.copyOf(merged, count);
+    }
+}
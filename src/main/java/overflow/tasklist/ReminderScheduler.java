@@ -0,0 +1,172 @@
+package overflow.tasklist;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.function.Consumer;
+
+import overflow.task.Deadline;
+import overflow.task.Event;
+import overflow.task.Occurrence;
+import overflow.task.RecurringEvent;
+import overflow.task.Task;
+
+/**
+ * Reminds of deadlines when they fall due and of events when they start. The pending ones wait in a
+ * timing wheel with one slot per minute, so arming or cancelling a reminder takes constant time,
+ * and a single daemon thread wakes once a minute to hand the due ones to a listener.
+ *
+ * <p>A task list keeps the reminders in step with its tasks once the scheduler is attached with
+ * {@link TaskList#setReminderScheduler(ReminderScheduler)}. Reminders for times that have already
+ * passed are not armed, so loading old tasks does not replay them.</p>
+ */
+public class ReminderScheduler implements AutoCloseable {
+    private static final long MILLIS_PER_MINUTE = 60_000;
+
+    private final Consumer<Task> listener;
+    private final Clock clock;
+    private final TimingWheel<Task> wheel;
+    private final HashMap<Long, TimingWheel.Timer<Task>> timersById = new HashMap<>();
+    private Thread thread;
+
+    /**
+     * Creates a scheduler that follows the system clock.
+     *
+     * @param listener Called with each task that is due, on the scheduler's thread.
+     */
+    public ReminderScheduler(Consumer<Task> listener) {
+        this(listener, Clock.systemDefaultZone());
+    }
+
+    /**
+     * Creates a scheduler that follows the given clock.
+     *
+     * @param listener Called with each task that is due, on the scheduler's thread.
+     * @param clock The clock that decides when tasks are due.
+     */
+    public ReminderScheduler(Consumer<Task> listener, Clock clock) {
+        this.listener = listener;
+        this.clock = clock;
+        this.wheel = new TimingWheel<>(currentMinute());
+    }
+
+    /**
+     * Starts the thread that delivers reminders.
+     */
+    public synchronized void start() {
+        assert thread == null : "Scheduler should only be started once";
+        thread = new Thread(this::run, "overflow-reminders");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops delivering reminders.
+     */
+    @Override
+    public void close() {
+        Thread running;
+        synchronized (this) {
+            running = thread;
+        }
+        if (running != null) {
+            running.interrupt();
+        }
+    }
+
+    /**
+     * Arms the reminder of a task, replacing any it already had. Tasks without a time and tasks that
+     * are done are ignored. A recurring event is reminded of at each occurrence that is not done.
+     *
+     * @param task The task to remind of.
+     */
+    synchronized void arm(Task task) {
+        cancel(task);
+        if (task.isDone()) {
+            return;
+        }
+        Task reminded = task;
+        long minute;
+        if (task instanceof RecurringEvent) {
+            // Only the next occurrence waits in the wheel, and arms the one after it when it fires
+            RecurringEvent series = (RecurringEvent) task;
+            int number = series.getFirstOccurrenceFrom(wheel.getCurrentTick() + 1);
+            while (number < Integer.MAX_VALUE && series.isOccurrenceDone(number)) {
+                number++; // the series is not done, so only its exceptions can be
+            }
+            reminded = series.getOccurrence(number);
+            minute = series.getOccurrenceStart(number);
+        } else if (task instanceof Deadline) {
+            minute = ((Deadline) task).getDeadlineEpochMinute();
+        } else if (task instanceof Event) {
+            minute = ((Event) task).getStartEpochMinute();
+        } else {
+            return;
+        }
+
+        TimingWheel.Timer<Task> timer = wheel.schedule(reminded, minute);
+        if (timer != null) {
+            timersById.put(task.getId(), timer);
+        }
+    }
+
+    /**
+     * Cancels the reminder of a task, if it has one.
+     *
+     * @param task The task to stop reminding of.
+     */
+    synchronized void cancel(Task task) {
+        TimingWheel.Timer<Task> timer = timersById.remove(task.getId());
+        if (timer != null) {
+            wheel.cancel(timer);
+        }
+    }
+
+    /**
+     * Returns how many reminders are armed.
+     *
+     * @return The number of reminders waiting to be delivered.
+     */
+    public synchronized int size() {
+        return wheel.size();
+    }
+
+    /**
+     * Collects the tasks that have fallen due up to the current minute.
+     *
+     * @return The due tasks, in order of their times.
+     */
+    synchronized ArrayList<Task> collectDue() {
+        ArrayList<Task> due = new ArrayList<>();
+        wheel.advanceTo(currentMinute(), due);
+        for (Task task : due) {
+            timersById.remove(task.getId());
+            if (task instanceof Occurrence) {
+                arm(((Occurrence) task).getSeries());
+            }
+        }
+        return due;
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            for (Task task : collectDue()) {
+                try {
+                    listener.accept(task);
+                } catch (RuntimeException e) {
+                    System.err.println("Warning: Could not deliver reminder: " + e.getMessage());
+                }
+            }
+            try {
+                Thread.sleep(MILLIS_PER_MINUTE - Math.floorMod(clock.millis(), MILLIS_PER_MINUTE));
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private long currentMinute() {
+        return Task.toEpochMinute(LocalDateTime.now(clock));
+    }
+}
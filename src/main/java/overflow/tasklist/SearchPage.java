@@ -0,0 +1,111 @@
+package overflow.tasklist;
+
+import java.util.List;
+
+import overflow.task.Task;
+
+/**
+ * Represents one page of ranked search results, along with where the next page starts.
+ * Only the tasks on the page are kept, so a page costs the same however many tasks matched.
+ *
+ * <p>Matches rank by which keywords they contain, so the ranks are worked out once as a list of
+ * keyword combinations, best first. The next page starts at the combination and task id where this
+ * one stopped, so it is found without running the search again.</p>
+ */
+public class SearchPage {
+    private final String[] keywords;
+    private final boolean isFuzzy;
+    private final int limit;
+    private final List<Task> tasks;
+    private final int firstRank;
+    private final int matchCount;
+    private final long[][] levels;
+    private final int nextLevel;
+    private final long nextId;
+
+    SearchPage(String[] keywords, boolean isFuzzy, int limit, List<Task> tasks, int firstRank, int matchCount,
+            long[][] levels, int nextLevel, long nextId) {
+        this.keywords = keywords;
+        this.isFuzzy = isFuzzy;
+        this.limit = limit;
+        this.tasks = tasks;
+        this.firstRank = firstRank;
+        this.matchCount = matchCount;
+        this.levels = levels;
+        this.nextLevel = nextLevel;
+        this.nextId = nextId;
+    }
+
+    /**
+     * Returns the tasks on this page, best match first.
+     *
+     * @return The tasks.
+     */
+    public List<Task> getTasks() {
+        return tasks;
+    }
+
+    /**
+     * Returns the rank of the first task on this page, counting from 1 across all pages.
+     *
+     * @return The rank.
+     */
+    public int getFirstRank() {
+        return firstRank;
+    }
+
+    /**
+     * Returns how many tasks matched at least one keyword when this page was found.
+     *
+     * @return The number of matching tasks.
+     */
+    public int getMatchCount() {
+        return matchCount;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Checks whether more matching tasks rank below the ones on this page.
+     *
+     * @return True if there is a next page.
+     */
+    public boolean hasMore() {
+        return firstRank - 1 + tasks.size() < matchCount;
+    }
+
+    String[] getKeywords() {
+        return keywords;
+    }
+
+    /**
+     * Checks whether the keywords also matched words spelled slightly differently.
+     */
+    boolean isFuzzy() {
+        return isFuzzy;
+    }
+
+    /**
+     * Returns the keyword combinations of each rank, best first, as bit sets over the distinct
+     * lower-cased keywords in ascending order.
+     */
+    long[][] getLevels() {
+        return levels;
+    }
+
+    /**
+     * Returns the rank the next page starts in.
+     */
+    int getNextLevel() {
+        return nextLevel;
+    }
+
+    /**
+     * Returns the smallest id the next page may start at within its first rank.
+     */
+    long getNextId() {
+        return nextId;
+    }
+}
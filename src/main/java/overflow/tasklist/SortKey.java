@@ -0,0 +1,62 @@
+package overflow.tasklist;
+
+import java.util.Comparator;
+
+import overflow.task.Deadline;
+import overflow.task.Event;
+import overflow.task.Task;
+
+/**
+ * An order the list can be shown in. Tasks the key does not apply to, such as todos when sorting by
+ * deadline, come after the rest, and tasks that tie keep their order in the list.
+ */
+public enum SortKey {
+    DEADLINE("deadline", Comparator.comparingLong(task -> task instanceof Deadline
+            ? ((Deadline) task).getDeadlineEpochMinute() : Long.MAX_VALUE)),
+    START("start", Comparator.comparingLong(task -> task instanceof Event
+            ? ((Event) task).getStartEpochMinute() : Long.MAX_VALUE)),
+    NAME("name", Comparator.comparing(Task::getName, String.CASE_INSENSITIVE_ORDER)),
+    STATUS("status", Comparator.comparing(Task::isDone));
+
+    private final String keyword;
+    private final Comparator<Task> order;
+
+    SortKey(String keyword, Comparator<Task> order) {
+        // Ids follow list order and are unique, so no two tasks are ever equal
+        this.keyword = keyword;
+        this.order = order.thenComparingLong(Task::getId);
+    }
+
+    public String getKeyword() {
+        return keyword;
+    }
+
+    /**
+     * Returns the order of the key, which tells every two tasks apart.
+     */
+    Comparator<Task> getOrder() {
+        return order;
+    }
+
+    /**
+     * Checks whether marking or unmarking a task can move it in this order.
+     */
+    boolean dependsOnStatus() {
+        return this == STATUS;
+    }
+
+    /**
+     * Finds the key with the given keyword.
+     *
+     * @param keyword The keyword, in any case.
+     * @return The key, or null if there is none with that keyword.
+     */
+    public static SortKey fromKeyword(String keyword) {
+        for (SortKey key : values()) {
+            if (key.keyword.equalsIgnoreCase(keyword)) {
+                return key;
+            }
+        }
+        return null;
+    }
+}
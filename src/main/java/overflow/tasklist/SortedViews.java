@@ -0,0 +1,144 @@
+package overflow.tasklist;
+
+import java.lang.ref.SoftReference;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import overflow.task.Task;
+
+/**
+ * Keeps the list sorted by each key it has been shown in, so showing it that way again costs
+ * nothing. A task that is added or removed is put into or taken out of every ordering at the place
+ * a binary search finds, instead of sorting again.
+ *
+ * <p>Orderings are only softly held, so the garbage collector drops them when memory runs low and
+ * they are sorted afresh the next time they are asked for. One change that touches a large share of
+ * the list, such as deleting every done task, drops them as well, as sorting afresh is cheaper then.</p>
+ *
+ * <p>Readers sharing the list's read lock may ask for orderings at the same time, so filling one in
+ * is synchronized. Repairs happen under the write lock, when no reader is present.</p>
+ */
+class SortedViews {
+    private static final int REPAIR_RATIO = 32; // one change may repair up to 1/32 of the list before resorting
+    private static final int MIN_REPAIRS = 64;
+
+    private final EnumMap<SortKey, SoftReference<TaskVector>> orderings = new EnumMap<>(SortKey.class);
+    private int repairsLeft;
+
+    /**
+     * Starts counting the repairs of one change to the list.
+     *
+     * @param size The number of tasks in the list.
+     */
+    void startChange(int size) {
+        repairsLeft = Math.max(MIN_REPAIRS, size / REPAIR_RATIO);
+    }
+
+    /**
+     * Returns the list sorted by a key, sorting it only if that ordering is not kept yet.
+     *
+     * @param key The key to sort by.
+     * @param tasks The current version of the list.
+     * @return The sorted tasks.
+     */
+    synchronized TaskVector get(SortKey key, TaskVector tasks) {
+        SoftReference<TaskVector> reference = orderings.get(key);
+        TaskVector ordering = reference == null ? null : reference.get();
+        if (ordering == null) {
+            Task[] sorted = tasks.toArray(new Task[0]);
+            Arrays.sort(sorted, key.getOrder());
+            ordering = TaskVector.of(Arrays.asList(sorted));
+            orderings.put(key, new SoftReference<>(ordering));
+        }
+        return ordering;
+    }
+
+    /**
+     * Finds where a task is in the list sorted by a key.
+     *
+     * @param key The key the list is sorted by.
+     * @param tasks The current version of the list.
+     * @param task The task to find.
+     * @return The task's position in the sorted list, or a negative number if it is not in the list.
+     */
+    int indexOf(SortKey key, TaskVector tasks, Task task) {
+        return search(get(key, tasks), task, key.getOrder());
+    }
+
+    void add(Task task) {
+        repair(task, true, false);
+    }
+
+    void remove(Task task) {
+        repair(task, false, false);
+    }
+
+    /**
+     * Takes a task out of the orderings its done state decides its place in, before that state changes.
+     *
+     * @param task The task about to be marked or unmarked.
+     */
+    void removeBeforeStatusChange(Task task) {
+        repair(task, false, true);
+    }
+
+    /**
+     * Puts a task back into the orderings its done state decides its place in, after that state changed.
+     *
+     * @param task The task that was marked or unmarked.
+     */
+    void addAfterStatusChange(Task task) {
+        repair(task, true, true);
+    }
+
+    private void repair(Task task, boolean isAdded, boolean isStatusChange) {
+        Iterator<Map.Entry<SortKey, SoftReference<TaskVector>>> entries = orderings.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<SortKey, SoftReference<TaskVector>> entry = entries.next();
+            SortKey key = entry.getKey();
+            if (isStatusChange && !key.dependsOnStatus()) {
+                continue;
+            }
+            TaskVector ordering = entry.getValue().get();
+            if (ordering == null || repairsLeft-- <= 0) {
+                entries.remove(); // collected, or cheaper to sort afresh when next shown
+                continue;
+            }
+
+            int position = search(ordering, task, key.getOrder());
+            if (isAdded) {
+                assert position < 0 : "Task is already in the ordering";
+                ordering = ordering.withInserted(-position - 1, task);
+            } else {
+                assert position >= 0 : "Task is not in the ordering";
+                ordering = ordering.withRemoved(position);
+            }
+            entry.setValue(new SoftReference<>(ordering));
+        }
+    }
+
+    /**
+     * Finds a task in an ordering by binary search.
+     *
+     * @return The task's position, or -(insertion point) - 1 if it is not there.
+     */
+    private static int search(TaskVector ordering, Task task, Comparator<Task> order) {
+        int low = 0;
+        int high = ordering.size() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = order.compare(ordering.get(middle), task);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+}
@@ -0,0 +1,52 @@
+package overflow.tasklist;
+
+import overflow.task.Deadline;
+import overflow.task.Event;
+import overflow.task.Task;
+
+/**
+ * Counts the tasks of a list by type and done status, kept up to date as tasks come and go
+ * so the counts never need a walk over the list.
+ */
+class TaskCounter {
+    static final int TODO = 0;
+    static final int DEADLINE = 1;
+    static final int EVENT = 2;
+    private static final int TYPE_COUNT = 3;
+
+    private final int[] pending = new int[TYPE_COUNT];
+    private final int[] done = new int[TYPE_COUNT];
+
+    /**
+     * Counts a task in its current done state.
+     *
+     * @param task The task to count.
+     */
+    void add(Task task) {
+        (task.isDone() ? done : pending)[typeOf(task)]++;
+    }
+
+    /**
+     * Stops counting a task in its current done state.
+     *
+     * @param task The task to stop counting.
+     */
+    void remove(Task task) {
+        (task.isDone() ? done : pending)[typeOf(task)]--;
+    }
+
+    int getPending(int type) {
+        return pending[type];
+    }
+
+    int getDone(int type) {
+        return done[type];
+    }
+
+    private static int typeOf(Task task) {
+        if (task instanceof Deadline) {
+            return DEADLINE;
+        }
+        return task instanceof Event ? EVENT : TODO;
+    }
+}
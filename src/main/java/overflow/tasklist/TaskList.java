@@ -1,26 +1,65 @@
 package overflow.tasklist;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
-import java.util.stream.Collectors;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Predicate;
 
 import overflow.exception.OverflowException;
+import overflow.task.Deadline;
+import overflow.task.Event;
+import overflow.task.Occurrence;
+import overflow.task.RecurringEvent;
 import overflow.task.Task;
 
 /**
  * Represents a list of tasks with operations to add, delete, mark, and unmark tasks.
+ * The list keeps a token index over task names, so it must only be modified through its own methods.
+ *
+ * <p>The list is safe to share between threads. Changes are serialized by a write lock and publish a
+ * new immutable version of the tasks, so {@link #get(int)}, {@link #size()} and {@link #getTasks()}
+ * read the latest version without locking. Searches and other reads of the indexes hold a read lock, as
+ * the indexes are updated in place. Indexes that fill in a cache when read, such as the sorted orderings
+ * and the overdue count, guard that cache themselves, so readers never need the write lock.</p>
  */
 public class TaskList {
-    private ArrayList<Task> tasks;
-    private String lastAction = null;
-    private Task lastTask = null;
-    private int lastIndex;
+    public static final int MAX_SEARCH_KEYWORDS = Long.SIZE; // the keywords a task contains are kept as bits of a long
+    private static final int SCAN_RATIO = 32; // merge token postings only when they cover under 1/32 of the list
+    private static final int DEFAULT_UNDO_LIMIT = 100;
+    private static final int ONE_TYPO_LENGTH = 4; // shorter keywords would match too many words with two typos
+    // Unlike StampedLock, new readers wait behind a queued writer, so steady searches cannot starve changes
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile TaskVector tasks;
+    private final CommandLog log;
+    private volatile List<Change> lastChanges = List.of();
+    private final TokenIndex tokenIndex = new TokenIndex();
+    private final TrigramIndex trigramIndex = new TrigramIndex();
+    private final EventIntervalTree eventTree = new EventIntervalTree();
+    private final HashMap<Long, RecurringEvent> recurringEvents = new HashMap<>(); // by id, they never end
+    private final DeadlineIndex deadlineIndex = new DeadlineIndex();
+    private final TaskCounter counter = new TaskCounter();
+    private final SortedViews views = new SortedViews();
+    private ReminderScheduler reminders;
+    private final TaskScanner scanner;
+    // Tasks only ever enter at the end with a fresh id or return to their old place, so ids follow list order
+    private long nextId = 0;
 
     /**
      * Creates an empty TaskList.
      */
     public TaskList() {
-        this.tasks = new ArrayList<>();
+        this(new ArrayList<>());
     }
 
     /**
@@ -29,35 +68,145 @@ public class TaskList {
      * @param tasks The initial list of tasks.
      */
     public TaskList(ArrayList<Task> tasks) {
-        this.tasks = tasks;
+        this(tasks, DEFAULT_UNDO_LIMIT);
     }
 
     /**
-     * Restores the task list to the previously saved state.
+     * Creates a TaskList with the given list of tasks that remembers a bounded number of actions to undo.
      *
-     * @throws OverflowException If there is no previous state to restore.
+     * @param tasks The initial list of tasks.
+     * @param undoLimit The largest number of actions that can be undone in a row.
+     */
+    public TaskList(ArrayList<Task> tasks, int undoLimit) {
+        this(tasks, undoLimit, ForkJoinPool.commonPool(), TaskScanner.DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Creates a TaskList that scans large lists in parallel on the given pool.
+     *
+     * @param tasks The initial list of tasks.
+     * @param undoLimit The largest number of actions that can be undone in a row.
+     * @param scanPool The fork-join pool that searches without an index run on.
+     * @param parallelThreshold The smallest number of tasks worth scanning in parallel.
+     */
+    public TaskList(ArrayList<Task> tasks, int undoLimit, ForkJoinPool scanPool, int parallelThreshold) {
+        this.tasks = TaskVector.of(tasks);
+        this.log = new CommandLog(undoLimit);
+        this.scanner = new TaskScanner(scanPool, parallelThreshold);
+
+        long previousId = Task.NO_ID;
+        for (Task task : tasks) {
+            if (task.getId() <= previousId) {
+                // Tasks from an older file have no ids, number them all so ids still follow list order
+                previousId = Task.NO_ID;
+                for (Task renumbered : tasks) {
+                    renumbered.setId(++previousId);
+                }
+                break;
+            }
+            previousId = task.getId();
+        }
+        nextId = previousId + 1;
+
+        for (Task task : tasks) {
+            index(task);
+        }
+    }
+
+    /**
+     * Reverts the most recent action that has not been undone yet. An action on several tasks is
+     * reverted as a whole.
+     *
+     * @throws OverflowException If there is no action left to undo.
      */
     public void undo() throws OverflowException {
-        if (lastAction == null) {
+        lockForWrite();
+        try {
+            undoLocked();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void undoLocked() throws OverflowException {
+        List<CommandLog.Entry> entries = log.undo();
+        if (entries == null) {
             throw new OverflowException("Nothing to undo!");
         }
 
-        switch (lastAction) {
-        case "add":
-            tasks.remove(lastTask);  // Remove the task that was added
-            break;
-        case "delete":
-            tasks.add(lastIndex, lastTask);  // Re-add at original position
-            break;
-        case "mark":
-            tasks.get(lastIndex).unmark();  // Unmark it
-            break;
-        case "unmark":
-            tasks.get(lastIndex).mark();  // Mark it back
-            break;
+        ArrayList<Change> changes = new ArrayList<>();
+        for (int i = entries.size() - 1; i >= 0; i--) {
+            CommandLog.Entry entry = entries.get(i);
+            int index = entry.getIndex();
+            switch (entry.getType()) {
+            case ADD:
+                unindex(tasks.get(index));  // Remove the task that was added
+                tasks = tasks.withRemoved(index);
+                changes.add(Change.delete(index));
+                break;
+            case DELETE:
+                tasks = tasks.withInserted(index, entry.getTask());  // Re-add at original position
+                index(entry.getTask());
+                changes.add(Change.insert(index, entry.getTask()));
+                break;
+            default:
+                // Restore the state before mark/unmark
+                if (entry.getOccurrence() >= 0) {
+                    setOccurrenceDone(index, entry.getOccurrence(), entry.wasDone(), changes);
+                } else {
+                    setDone(index, entry.wasDone(), changes);
+                }
+                break;
+            }
+        }
+        lastChanges = changes;
+    }
+
+    /**
+     * Applies the most recently undone action again.
+     *
+     * @throws OverflowException If there is no undone action to redo.
+     */
+    public void redo() throws OverflowException {
+        lockForWrite();
+        try {
+            redoLocked();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void redoLocked() throws OverflowException {
+        List<CommandLog.Entry> entries = log.redo();
+        if (entries == null) {
+            throw new OverflowException("Nothing to redo!");
         }
 
-        lastAction = null;
+        ArrayList<Change> changes = new ArrayList<>();
+        for (CommandLog.Entry entry : entries) {
+            int index = entry.getIndex();
+            switch (entry.getType()) {
+            case ADD:
+                tasks = tasks.withAppended(entry.getTask());
+                index(entry.getTask());
+                changes.add(Change.add(entry.getTask()));
+                break;
+            case DELETE:
+                unindex(tasks.get(index));
+                tasks = tasks.withRemoved(index);
+                changes.add(Change.delete(index));
+                break;
+            default:
+                boolean isDone = entry.getType() == Change.Type.MARK;
+                if (entry.getOccurrence() >= 0) {
+                    setOccurrenceDone(index, entry.getOccurrence(), isDone, changes);
+                } else {
+                    setDone(index, isDone, changes);
+                }
+                break;
+            }
+        }
+        lastChanges = changes;
     }
 
     /**
@@ -66,9 +215,16 @@ public class TaskList {
      * @param task The task to add.
      */
     public void add(Task task) {
-        tasks.add(task);
-        lastAction = "add";
-        lastTask = task;
+        lockForWrite();
+        try {
+            task.setId(nextId++);
+            tasks = tasks.withAppended(task);
+            index(task);
+            log.record(CommandLog.Entry.add(tasks.size() - 1, task));
+            lastChanges = List.of(Change.add(task));
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     /**
@@ -78,11 +234,70 @@ public class TaskList {
      * @return The deleted task.
      */
     public Task delete(int index) throws OverflowException {
-        validateIndex(index);
-        Task deleted = tasks.remove(index);
-        lastAction = "delete";
-        lastTask = deleted;
-        lastIndex = index;
+        return delete(new int[]{index}).get(0);
+    }
+
+    /**
+     * Deletes several tasks from the list as one action, which is undone as a whole.
+     *
+     * @param indices The indices of the tasks to delete (0-based), in ascending order without repeats.
+     * @return The deleted tasks, in list order.
+     * @throws OverflowException If any index is out of range, in which case nothing is deleted.
+     */
+    public List<Task> delete(int[] indices) throws OverflowException {
+        lockForWrite();
+        try {
+            for (int index : indices) {
+                validateIndex(index, tasks);
+            }
+            return deleteLocked(indices);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Deletes every task that is done as one action, which is undone as a whole.
+     *
+     * @return The deleted tasks, in list order. Nothing is recorded if no task is done.
+     */
+    public List<Task> deleteDone() {
+        lockForWrite();
+        try {
+            int[] indices = new int[tasks.size()];
+            int count = 0;
+            int index = 0;
+            for (Task task : tasks) {
+                if (task.isDone()) {
+                    indices[count++] = index;
+                }
+                index++;
+            }
+            return count == 0 ? List.of() : deleteLocked(Arrays.copyOf(indices, count));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private List<Task> deleteLocked(int[] indices) {
+        assert isStrictlyAscending(indices) : "Indices should be ascending without repeats";
+        ArrayList<Task> deleted = new ArrayList<>(indices.length);
+        for (int index : indices) {
+            Task task = tasks.get(index);
+            deleted.add(task);
+            unindex(task);
+        }
+        tasks = tasks.withRemoved(indices);
+
+        // Record the removals from the back, so every index still refers to the list as it was then
+        ArrayList<CommandLog.Entry> entries = new ArrayList<>(indices.length);
+        ArrayList<Change> changes = new ArrayList<>(indices.length);
+        for (int i = indices.length - 1; i >= 0; i--) {
+            entries.add(CommandLog.Entry.delete(indices[i], deleted.get(i)));
+            changes.add(Change.delete(indices[i]));
+        }
+        log.record(entries);
+        lastChanges = changes;
         return deleted;
     }
 
@@ -93,10 +308,11 @@ public class TaskList {
      * @return The task at the specified index.
      */
     public Task get(int index) throws OverflowException {
-        validateIndex(index);
+        TaskVector current = tasks; // read the version once so the check and the lookup agree
+        validateIndex(index, current);
         assert index >= 0 : "Index should be non-negative after validation";
-        assert index < tasks.size() : "Index should be within bounds after validation";
-        return tasks.get(index);
+        assert index < current.size() : "Index should be within bounds after validation";
+        return current.get(index);
     }
 
     /**
@@ -105,10 +321,18 @@ public class TaskList {
      * @param index The index of the task to mark (0-based).
      */
     public void mark(int index) throws OverflowException {
-        validateIndex(index);
-        tasks.get(index).mark();
-        lastAction = "mark";
-        lastIndex = index;
+        mark(new int[]{index});
+    }
+
+    /**
+     * Marks several tasks as done as one action, which is undone as a whole.
+     *
+     * @param indices The indices of the tasks to mark (0-based), without repeats.
+     * @return The marked tasks, in the order of the indices.
+     * @throws OverflowException If any index is out of range, in which case nothing is marked.
+     */
+    public List<Task> mark(int[] indices) throws OverflowException {
+        return setAllDone(indices, true);
     }
 
     /**
@@ -117,10 +341,96 @@ public class TaskList {
      * @param index The index of the task to unmark (0-based).
      */
     public void unmark(int index) throws OverflowException {
-        validateIndex(index);
-        tasks.get(index).unmark();
-        lastAction = "unmark";
-        lastIndex = index;
+        unmark(new int[]{index});
+    }
+
+    /**
+     * Marks several tasks as not done as one action, which is undone as a whole.
+     *
+     * @param indices The indices of the tasks to unmark (0-based), without repeats.
+     * @return The unmarked tasks, in the order of the indices.
+     * @throws OverflowException If any index is out of range, in which case nothing is unmarked.
+     */
+    public List<Task> unmark(int[] indices) throws OverflowException {
+        return setAllDone(indices, false);
+    }
+
+    /**
+     * Marks the occurrence of a recurring event that takes place on a given day as done.
+     *
+     * @param index The index of the recurring event (0-based).
+     * @param date The day of the occurrence.
+     * @return The occurrence, as it is after marking.
+     * @throws OverflowException If the index is out of range, the task is not a recurring event
+     *     or it does not take place on that day.
+     */
+    public Occurrence markOccurrence(int index, LocalDate date) throws OverflowException {
+        return setOccurrenceDone(index, date, true);
+    }
+
+    /**
+     * Marks the occurrence of a recurring event that takes place on a given day as not done.
+     *
+     * @param index The index of the recurring event (0-based).
+     * @param date The day of the occurrence.
+     * @return The occurrence, as it is after unmarking.
+     * @throws OverflowException If the index is out of range, the task is not a recurring event
+     *     or it does not take place on that day.
+     */
+    public Occurrence unmarkOccurrence(int index, LocalDate date) throws OverflowException {
+        return setOccurrenceDone(index, date, false);
+    }
+
+    private Occurrence setOccurrenceDone(int index, LocalDate date, boolean isDone) throws OverflowException {
+        lockForWrite();
+        try {
+            validateIndex(index, tasks);
+            if (!(tasks.get(index) instanceof RecurringEvent)) {
+                throw new OverflowException("OOPS! Only repeating events have occurrences to mark!");
+            }
+            RecurringEvent series = (RecurringEvent) tasks.get(index);
+            int number = series.findOccurrenceOn(date);
+            if (number < 0) {
+                throw new OverflowException("OOPS! That event does not take place on that day!");
+            }
+
+            boolean wasDone = series.isOccurrenceDone(number);
+            ArrayList<Change> changes = new ArrayList<>(1);
+            RecurringEvent changed = setOccurrenceDone(index, number, isDone, changes);
+            log.record(isDone
+                    ? CommandLog.Entry.markOccurrence(index, number, wasDone)
+                    : CommandLog.Entry.unmarkOccurrence(index, number, wasDone));
+            lastChanges = changes;
+            return changed.getOccurrence(number);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private List<Task> setAllDone(int[] indices, boolean isDone) throws OverflowException {
+        lockForWrite();
+        try {
+            for (int index : indices) {
+                validateIndex(index, tasks);
+            }
+
+            ArrayList<Task> updated = new ArrayList<>(indices.length);
+            ArrayList<CommandLog.Entry> entries = new ArrayList<>(indices.length);
+            ArrayList<Change> changes = new ArrayList<>(indices.length);
+            for (int index : indices) {
+                Task task = tasks.get(index);
+                entries.add(isDone
+                        ? CommandLog.Entry.mark(index, task.isDone())
+                        : CommandLog.Entry.unmark(index, task.isDone()));
+                setDone(index, isDone, changes);
+                updated.add(task);
+            }
+            log.record(entries);
+            lastChanges = changes;
+            return updated;
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     /**
@@ -133,16 +443,44 @@ public class TaskList {
     }
 
     /**
-     * Returns the internal ArrayList of tasks.
+     * Returns the current version of the list. The version is immutable and later changes to the
+     * task list do not affect it, so it can be read from any thread without copying.
      *
-     * @return The ArrayList of tasks.
+     * @return The tasks, in order.
      */
-    public ArrayList<Task> getTasks() {
+    public List<Task> getTasks() {
         return tasks;
     }
 
-    private void validateIndex(int index) throws OverflowException {
-        if (index < 0 || index >= tasks.size()) {
+    /**
+     * Returns the most recent mutation applied to the list, including the effect of an undo.
+     * When several threads modify the list, callers that need the change made by their own call
+     * must serialize their modifications, for example by synchronizing on the list.
+     *
+     * @return The last change, or null if the list has not been modified.
+     */
+    public Change getLastChange() {
+        List<Change> changes = lastChanges;
+        return changes.isEmpty() ? null : changes.get(changes.size() - 1);
+    }
+
+    /**
+     * Returns every mutation made by the most recent action, such as a bulk delete or the undo of one.
+     * The same caveat about concurrent modifications as for {@link #getLastChange()} applies.
+     *
+     * @return The changes, in the order they were applied, or an empty list if the list has not been modified.
+     */
+    public List<Change> getLastChanges() {
+        return lastChanges;
+    }
+
+    private void lockForWrite() {
+        lock.writeLock().lock();
+        views.startChange(tasks.size());
+    }
+
+    private static void validateIndex(int index, TaskVector version) throws OverflowException {
+        if (index < 0 || index >= version.size()) {
             throw new OverflowException("OOPS! Task number is out of range!");
         }
     }
@@ -154,18 +492,761 @@ public class TaskList {
      * @return HashMap mapping each keyword to its matching tasks.
      */
     public HashMap<String, ArrayList<Task>> find(String[] keywords) {
-        HashMap<String, ArrayList<Task>> resultsByKeyword = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            return findLocked(keywords);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
 
-        for (String keyword : keywords) {
-            ArrayList<Task> matchingTasks = tasks.stream()
-                    .filter(task -> task.getName().toLowerCase().contains(keyword.toLowerCase()))
-                    .collect(Collectors.toCollection(ArrayList::new));
+    private HashMap<String, ArrayList<Task>> findLocked(String[] keywords) {
+        HashMap<String, ArrayList<Task>> resultsByKeyword = new HashMap<>();
+        String[] lowerCaseKeywords = Arrays.stream(keywords).map(String::toLowerCase).toArray(String[]::new);
+        List<ArrayList<Task>> matches = findMatches(lowerCaseKeywords);
 
-            if (!matchingTasks.isEmpty()) {
-                resultsByKeyword.put(keyword, matchingTasks);
+        for (int i = 0; i < keywords.length; i++) {
+            if (!matches.get(i).isEmpty()) {
+                resultsByKeyword.put(keywords[i], matches.get(i));
             }
         }
 
         return resultsByKeyword;
     }
+
+    /**
+     * Ranks the tasks that contain any of the given keywords and returns the best of them.
+     * Tasks containing more of the keywords rank higher, then those containing rarer keywords,
+     * then those earlier in the list.
+     *
+     * @param keywords The keywords to search for, at most {@value #MAX_SEARCH_KEYWORDS} of them.
+     * @param limit The largest number of tasks on the page.
+     * @return The first page of results.
+     */
+    public SearchPage search(String[] keywords, int limit) {
+        assert limit > 0 : "Page size should be positive";
+        lock.readLock().lock();
+        try {
+            return searchLocked(keywords, false, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ranks the tasks that contain a word spelled like any of the given keywords, allowing one
+     * typo in keywords of up to {@value #ONE_TYPO_LENGTH} letters and two in longer ones.
+     * Matches are whole words, ranked as in {@link #search(String[], int)}.
+     *
+     * @param keywords The keywords to search for, without whitespace, at most {@value #MAX_SEARCH_KEYWORDS} of them.
+     * @param limit The largest number of tasks on the page.
+     * @return The first page of results.
+     */
+    public SearchPage searchSimilar(String[] keywords, int limit) {
+        assert limit > 0 : "Page size should be positive";
+        lock.readLock().lock();
+        try {
+            return searchLocked(keywords, true, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the page of results after a previous one. The search is not run again: the page picks up
+     * where the previous one stopped, keeping the ranks given then, and takes the tasks from the list as it is now.
+     *
+     * @param previous The page shown last.
+     * @return The next page of results.
+     */
+    public SearchPage searchMore(SearchPage previous) {
+        lock.readLock().lock();
+        try {
+            return fillPage(previous, openCursors(toLowerCase(previous.getKeywords()), previous.isFuzzy()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private SearchPage searchLocked(String[] keywords, boolean isFuzzy, int limit) {
+        String[] lowerCaseKeywords = toLowerCase(keywords);
+        assert lowerCaseKeywords.length <= MAX_SEARCH_KEYWORDS : "Too many keywords to rank";
+        MatchCursor[] cursors = openCursors(lowerCaseKeywords, isFuzzy);
+
+        // One pass over every match counts how rare each keyword is and which keywords occur together
+        int[] keywordCounts = new int[cursors.length];
+        HashSet<Long> combinations = new HashSet<>();
+        long allKeywords = cursors.length == Long.SIZE ? -1L : (1L << cursors.length) - 1;
+        int matchCount = 0;
+        long id = 0;
+        Task next;
+        while ((next = seekAny(cursors, allKeywords, id)) != null) {
+            long matched = getMatched(cursors, next);
+            for (int i = 0; i < cursors.length; i++) {
+                if ((matched & (1L << i)) != 0) {
+                    keywordCounts[i]++;
+                }
+            }
+            combinations.add(matched);
+            matchCount++;
+            id = next.getId() + 1;
+        }
+
+        double[] weights = new double[cursors.length];
+        for (int i = 0; i < cursors.length; i++) {
+            // Rarer keywords say more about a task, as in inverse document frequency
+            weights[i] = Math.log(1 + (double) tasks.size() / Math.max(1, keywordCounts[i]));
+        }
+        long[][] levels = rankCombinations(combinations, weights);
+
+        for (int i = 0; i < cursors.length; i++) {
+            cursors[i] = cursors[i].restart();
+        }
+        SearchPage beforeFirst = new SearchPage(keywords, isFuzzy, limit, List.of(), 1, matchCount, levels, 0, 0);
+        return fillPage(beforeFirst, cursors);
+    }
+
+    /**
+     * Groups the combinations of keywords that tasks contain by the rank they give, best first.
+     * Tasks whose keywords rank the same are ordered by their place in the list.
+     *
+     * @return For each rank, the combinations giving it as bit sets in ascending order.
+     */
+    private static long[][] rankCombinations(Set<Long> combinations, double[] weights) {
+        HashMap<Long, Double> weightOf = new HashMap<>();
+        for (long combination : combinations) {
+            double weight = 0;
+            for (int i = 0; i < weights.length; i++) {
+                if ((combination & (1L << i)) != 0) {
+                    weight += weights[i];
+                }
+            }
+            weightOf.put(combination, weight);
+        }
+
+        ArrayList<Long> ranked = new ArrayList<>(combinations);
+        ranked.sort(Comparator.<Long>comparingInt(Long::bitCount).thenComparingDouble(weightOf::get).reversed());
+        ArrayList<long[]> levels = new ArrayList<>();
+        int start = 0;
+        for (int end = 1; end <= ranked.size(); end++) {
+            if (end == ranked.size() || Long.bitCount(ranked.get(end)) != Long.bitCount(ranked.get(start))
+                    || !weightOf.get(ranked.get(end)).equals(weightOf.get(ranked.get(start)))) {
+                long[] level = ranked.subList(start, end).stream().mapToLong(Long::longValue).sorted().toArray();
+                levels.add(level);
+                start = end;
+            }
+        }
+        return levels.toArray(new long[0][]);
+    }
+
+    /**
+     * Collects the page after a previous one, walking the ranks in order from where that page stopped
+     * and the tasks of each rank in list order. Only the tasks on the page are held, however many match.
+     */
+    private SearchPage fillPage(SearchPage previous, MatchCursor[] cursors) {
+        long[][] levels = previous.getLevels();
+        int level = previous.getNextLevel();
+        long id = previous.getNextId();
+        int firstRank = previous.getFirstRank() + previous.getTasks().size();
+        int limit = previous.getLimit();
+
+        ArrayList<Task> page = new ArrayList<>(Math.min(limit, Math.max(0, previous.getMatchCount() - firstRank + 1)));
+        while (page.size() < limit && level < levels.length) {
+            Task next = seekInLevel(cursors, levels[level], id);
+            if (next == null) {
+                level++;
+                id = 0;
+                for (int i = 0; i < cursors.length; i++) {
+                    cursors[i] = cursors[i].restart();
+                }
+                continue;
+            }
+            page.add(next);
+            id = next.getId() + 1;
+        }
+        return new SearchPage(previous.getKeywords(), previous.isFuzzy(), limit, page, firstRank,
+                previous.getMatchCount(), levels, level, id);
+    }
+
+    /**
+     * Finds the first task from a given id on that contains exactly one of the given combinations of keywords.
+     * When every combination shares some keywords, only the tasks containing all of those are looked at.
+     */
+    private static Task seekInLevel(MatchCursor[] cursors, long[] combinations, long id) {
+        long required = -1L;
+        long allowed = 0;
+        for (long combination : combinations) {
+            required &= combination;
+            allowed |= combination;
+        }
+
+        while (true) {
+            Task candidate = required != 0 ? seekAll(cursors, required, id) : seekAny(cursors, allowed, id);
+            if (candidate == null || Arrays.binarySearch(combinations, getMatched(cursors, candidate)) >= 0) {
+                return candidate;
+            }
+            id = candidate.getId() + 1;
+        }
+    }
+
+    /**
+     * Finds the first task from a given id on that contains at least one of the given keywords.
+     */
+    private static Task seekAny(MatchCursor[] cursors, long keywords, long id) {
+        Task first = null;
+        for (int i = 0; i < cursors.length; i++) {
+            if ((keywords & (1L << i)) != 0) {
+                Task candidate = cursors[i].seek(id);
+                if (candidate != null && (first == null || candidate.getId() < first.getId())) {
+                    first = candidate;
+                }
+            }
+        }
+        return first;
+    }
+
+    /**
+     * Finds the first task from a given id on that contains every one of the given keywords.
+     */
+    private static Task seekAll(MatchCursor[] cursors, long keywords, long id) {
+        // Leapfrog: move each cursor up to the largest id seen until they all agree on one
+        int needed = Long.bitCount(keywords);
+        int agreed = 0;
+        Task candidate = null;
+        for (int i = 0; agreed < needed; i = (i + 1) % cursors.length) {
+            if ((keywords & (1L << i)) == 0) {
+                continue;
+            }
+            candidate = cursors[i].seek(id);
+            if (candidate == null) {
+                return null;
+            }
+            if (candidate.getId() != id) {
+                id = candidate.getId();
+                agreed = 0;
+            }
+            agreed++;
+        }
+        return candidate;
+    }
+
+    /**
+     * Returns which keywords a task contains, as a bit set over the cursors.
+     */
+    private static long getMatched(MatchCursor[] cursors, Task task) {
+        long matched = 0;
+        for (int i = 0; i < cursors.length; i++) {
+            Task candidate = cursors[i].seek(task.getId());
+            if (candidate != null && candidate.getId() == task.getId()) {
+                matched |= 1L << i;
+            }
+        }
+        return matched;
+    }
+
+    private static String[] toLowerCase(String[] keywords) {
+        return Arrays.stream(keywords).map(String::toLowerCase).distinct().toArray(String[]::new);
+    }
+
+    /**
+     * Opens a cursor over the tasks matching each keyword, each on whichever index narrows it down most.
+     */
+    private MatchCursor[] openCursors(String[] lowerCaseKeywords, boolean isFuzzy) {
+        MatchCursor[] cursors = new MatchCursor[lowerCaseKeywords.length];
+        for (int i = 0; i < lowerCaseKeywords.length; i++) {
+            String keyword = lowerCaseKeywords[i];
+            List<PostingList> tokenPostings;
+            if (isFuzzy) {
+                int maxEdits = keyword.length() <= ONE_TYPO_LENGTH ? 1 : 2;
+                cursors[i] = MatchCursor.union(tasks,
+                        TokenIndex.canAnswer(keyword) ? tokenIndex.findSimilar(keyword, maxEdits) : List.of());
+            } else if (keyword.length() >= TrigramIndex.GRAM_LENGTH) {
+                cursors[i] = MatchCursor.intersection(tasks, trigramIndex.findPostings(keyword), keyword);
+            } else if (TokenIndex.canAnswer(keyword)
+                    && (tokenPostings = tokenIndex.find(keyword, tasks.size() / SCAN_RATIO)) != null) {
+                cursors[i] = MatchCursor.union(tasks, tokenPostings);
+            } else {
+                cursors[i] = MatchCursor.scan(tasks, keyword);
+            }
+        }
+        return cursors;
+    }
+
+    /**
+     * Finds every task whose name contains each keyword, using whichever index narrows the search most.
+     * Keywords that no index can answer are looked for together in one scan of the list.
+     *
+     * @param lowerCaseKeywords The lower-cased keywords.
+     * @return For each keyword, the matching tasks in list order.
+     */
+    private List<ArrayList<Task>> findMatches(String[] lowerCaseKeywords) {
+        ArrayList<ArrayList<Task>> matches = new ArrayList<>();
+        ArrayList<Integer> scanned = new ArrayList<>();
+        ArrayList<Predicate<Task>> scanPredicates = new ArrayList<>();
+
+        for (String lowerCaseKeyword : lowerCaseKeywords) {
+            ArrayList<Task> matchingTasks = findIndexedMatches(lowerCaseKeyword);
+            if (matchingTasks == null) {
+                scanned.add(matches.size());
+                scanPredicates.add(task -> task.getName().toLowerCase().contains(lowerCaseKeyword));
+            }
+            matches.add(matchingTasks);
+        }
+
+        if (!scanPredicates.isEmpty()) {
+            List<ArrayList<Task>> scanMatches = scanner.scan(tasks, scanPredicates);
+            for (int i = 0; i < scanned.size(); i++) {
+                matches.set(scanned.get(i), scanMatches.get(i));
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Finds every task whose name contains a keyword with the help of an index.
+     *
+     * @param lowerCaseKeyword The lower-cased keyword.
+     * @return The matching tasks in list order, or null if no index narrows the search enough.
+     */
+    private ArrayList<Task> findIndexedMatches(String lowerCaseKeyword) {
+        ArrayList<Task> matchingTasks;
+        List<PostingList> tokenPostings;
+
+        if (lowerCaseKeyword.length() >= TrigramIndex.GRAM_LENGTH) {
+            ArrayList<Task> candidateMatches = new ArrayList<>();
+            forEachCandidate(tasks, trigramIndex.findCandidates(lowerCaseKeyword), (candidate, index) -> {
+                if (candidate.getName().toLowerCase().contains(lowerCaseKeyword)) {
+                    candidateMatches.add(candidate);
+                }
+            });
+            matchingTasks = candidateMatches;
+        } else if (TokenIndex.canAnswer(lowerCaseKeyword)
+                && (tokenPostings = tokenIndex.find(lowerCaseKeyword, tasks.size() / SCAN_RATIO)) != null) {
+            ArrayList<Task> tokenMatches = new ArrayList<>();
+            forEachCandidate(tasks, PostingList.union(tokenPostings),
+                    (candidate, index) -> tokenMatches.add(candidate));
+            matchingTasks = tokenMatches;
+        } else {
+            return null;
+        }
+        return matchingTasks;
+    }
+
+    /**
+     * Visits the tasks with the given ids in list order.
+     *
+     * @param tasks The version of the list the ids were found in.
+     * @param candidates The ids, in ascending order.
+     * @param action Called with each task and its index (0-based).
+     */
+    private static void forEachCandidate(TaskVector tasks, long[] candidates, ObjIntConsumer<Task> action) {
+        if (candidates.length > tasks.size() / SCAN_RATIO) {
+            // Looking up many candidates one by one costs more than walking the list once
+            int next = 0;
+            int index = 0;
+            for (Task task : tasks) {
+                if (next == candidates.length) {
+                    break;
+                }
+                if (task.getId() == candidates[next]) {
+                    next++;
+                    action.accept(task, index);
+                }
+                index++;
+            }
+        } else {
+            int position = 0;
+            for (long id : candidates) {
+                // Candidates come in id order, so each one lies after the previous
+                position = tasks.indexOfId(id, position);
+                action.accept(tasks.get(position), position);
+            }
+        }
+    }
+
+    /**
+     * Finds the tasks that meet every condition of a query and hands each one on as soon as it is
+     * found, in list order. The query is answered from the name, deadline or event index when one of
+     * them is estimated to narrow the list down to under 1/{@value #SCAN_RATIO} of its tasks, and by
+     * checking every task otherwise.
+     *
+     * @param query The query.
+     * @param results Called with each matching task and its index (0-based).
+     * @return The number of matching tasks.
+     */
+    public int query(TaskQuery query, ObjIntConsumer<Task> results) {
+        QueryPlan plan;
+        lock.readLock().lock();
+        try {
+            plan = plan(query);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // The planned version of the list never changes, so matches are checked and handed on without the lock
+        int[] count = new int[1];
+        ObjIntConsumer<Task> matcher = (task, index) -> {
+            if (query.matches(task)) {
+                count[0]++;
+                results.accept(task, index);
+            }
+        };
+        if (plan.candidates == null) {
+            int index = 0;
+            for (Task task : plan.tasks) {
+                matcher.accept(task, index++);
+            }
+        } else {
+            forEachCandidate(plan.tasks, plan.candidates, matcher);
+        }
+        return count[0];
+    }
+
+    /**
+     * Returns which index a query would be answered from.
+     *
+     * @param query The query.
+     * @return The chosen access path.
+     */
+    TaskQuery.AccessPath explain(TaskQuery query) {
+        lock.readLock().lock();
+        try {
+            return plan(query).path;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Estimates how many candidates each index would give for a query and takes them from the one
+     * with the fewest. Every estimate is an upper bound or an even-spread guess that costs no more
+     * than a few lookups, so planning stays cheap next to the scan it may avoid.
+     */
+    private QueryPlan plan(TaskQuery query) {
+        long fewest = tasks.size() / SCAN_RATIO; // an index must narrow the list below this to beat a scan
+        TaskQuery.AccessPath path = TaskQuery.AccessPath.SCAN;
+        String keyword = null;
+        boolean isDeadline = false;
+        boolean isEvent = false;
+        boolean isPending = false;
+        long dueFrom = Long.MIN_VALUE;
+        long dueTo = Long.MAX_VALUE;
+        long overlapFrom = Long.MIN_VALUE;
+        long overlapTo = Long.MAX_VALUE;
+
+        for (TaskQuery.Condition condition : query.getConditions()) {
+            switch (condition.getField()) {
+            case TYPE:
+                char type = (Character) condition.getValue();
+                isDeadline |= type == 'D';
+                isEvent |= type == 'E';
+                break;
+            case DONE:
+                isPending |= !(Boolean) condition.getValue();
+                break;
+            case NAME:
+                String name = (String) condition.getValue();
+                if (name.length() >= TrigramIndex.GRAM_LENGTH) {
+                    long estimate = trigramIndex.estimateCandidates(name);
+                    if (estimate < fewest) {
+                        fewest = estimate;
+                        path = TaskQuery.AccessPath.NAME_INDEX;
+                        keyword = name;
+                    }
+                }
+                break;
+            case BY:
+                isDeadline = true;
+                dueFrom = Math.max(dueFrom, condition.getEarliestMinute());
+                dueTo = Math.min(dueTo, condition.getLatestMinute());
+                break;
+            default:
+                // An event starts no later than it ends, so it overlaps every range that bounds both times
+                isEvent = true;
+                overlapFrom = Math.max(overlapFrom, condition.getEarliestMinute());
+                overlapTo = Math.min(overlapTo, condition.getLatestMinute());
+            }
+        }
+
+        // Only pending deadlines are kept in due order
+        if (isDeadline && isPending) {
+            long estimate = deadlineIndex.estimateBetween(dueFrom, dueTo);
+            if (estimate < fewest) {
+                fewest = estimate;
+                path = TaskQuery.AccessPath.DEADLINE_INDEX;
+            }
+        }
+        if (isEvent) {
+            long estimate = eventTree.estimateOverlapping(overlapFrom, overlapTo) + recurringEvents.size();
+            if (estimate < fewest) {
+                path = TaskQuery.AccessPath.EVENT_INDEX;
+            }
+        }
+
+        switch (path) {
+        case NAME_INDEX:
+            return new QueryPlan(path, tasks, trigramIndex.findCandidates(keyword));
+        case DEADLINE_INDEX:
+            return new QueryPlan(path, tasks, toSortedIds(deadlineIndex.findBetween(dueFrom, dueTo)));
+        case EVENT_INDEX:
+            ArrayList<Task> events = new ArrayList<>(eventTree.findOverlapping(overlapFrom, overlapTo));
+            events.addAll(recurringEvents.values()); // their first occurrence is checked like any event
+            return new QueryPlan(path, tasks, toSortedIds(events));
+        default:
+            return new QueryPlan(path, tasks, null);
+        }
+    }
+
+    private static long[] toSortedIds(Collection<? extends Task> candidates) {
+        return candidates.stream().mapToLong(Task::getId).sorted().toArray();
+    }
+
+    /**
+     * Finds the tasks that satisfy a condition, scanning large lists in parallel.
+     *
+     * @param predicate The condition, which may be tested from several threads at once.
+     * @return The matching tasks, in list order.
+     */
+    public ArrayList<Task> filter(Predicate<Task> predicate) {
+        // Scanning needs no index, so it runs on the latest version without taking the lock
+        return scanner.scan(tasks, List.of(predicate)).get(0);
+    }
+
+    /**
+     * Finds the events that overlap a time range, including those that only touch its ends.
+     * Repeating events are expanded into their occurrences within the range only.
+     *
+     * @param from The start of the range.
+     * @param to The end of the range.
+     * @return The overlapping events, ordered by start time.
+     */
+    public ArrayList<Event> findEventsBetween(LocalDateTime from, LocalDateTime to) {
+        lock.readLock().lock();
+        try {
+            ArrayList<Event> events = eventTree.findOverlapping(from, to);
+            if (recurringEvents.isEmpty()) {
+                return events;
+            }
+            for (RecurringEvent series : recurringEvents.values()) {
+                Iterator<Occurrence> occurrences = series.occurrencesBetween(from, to);
+                while (occurrences.hasNext()) {
+                    events.add(occurrences.next());
+                }
+            }
+            events.sort(Comparator.comparingLong(Event::getStartEpochMinute).thenComparingLong(Event::getId));
+            return events;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the pending deadlines that are due next.
+     *
+     * @param from The earliest due time to include.
+     * @param limit The largest number of deadlines to return.
+     * @return The deadlines that are not done yet, ordered by due time.
+     */
+    public ArrayList<Deadline> findUpcomingDeadlines(LocalDateTime from, int limit) {
+        lock.readLock().lock();
+        try {
+            return deadlineIndex.findNext(from, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the tasks sorted by a key. The ordering is kept from then on and repaired as the list
+     * changes, so asking for it again is cheap until memory runs low.
+     *
+     * @param key The key to sort by.
+     * @return The sorted tasks, which never change.
+     */
+    public List<Task> getSorted(SortKey key) {
+        lock.readLock().lock();
+        try {
+            return views.get(key, tasks);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Converts positions in the list sorted by a key into positions in the list itself.
+     *
+     * @param key The key the list is sorted by.
+     * @param sortedIndices The positions in the sorted list (0-based).
+     * @return The positions of the same tasks in the list (0-based), in ascending order.
+     * @throws OverflowException If a position is out of range.
+     */
+    public int[] toListIndices(SortKey key, int[] sortedIndices) throws OverflowException {
+        lock.readLock().lock();
+        try {
+            TaskVector ordering = views.get(key, tasks);
+            int[] indices = new int[sortedIndices.length];
+            for (int i = 0; i < sortedIndices.length; i++) {
+                validateIndex(sortedIndices[i], ordering);
+                indices[i] = tasks.indexOfId(ordering.get(sortedIndices[i]).getId(), 0);
+            }
+            Arrays.sort(indices);
+            return indices;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns where a task is in the list sorted by a key.
+     *
+     * @param key The key the list is sorted by.
+     * @param task The task to find.
+     * @return The task's position in the sorted list (0-based), or -1 if it is no longer in the list.
+     */
+    public int getSortedIndex(SortKey key, Task task) {
+        lock.readLock().lock();
+        try {
+            return Math.max(-1, views.indexOf(key, tasks, task));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Keeps a scheduler's reminders in step with the list from now on, starting with the pending
+     * deadlines and events already in it.
+     *
+     * @param reminders The scheduler to arm and cancel reminders in.
+     */
+    public void setReminderScheduler(ReminderScheduler reminders) {
+        lockForWrite();
+        try {
+            this.reminders = reminders;
+            for (Task task : tasks) {
+                if (!task.isDone()) {
+                    reminders.arm(task);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Counts the tasks by type and done status, along with the deadlines that are overdue.
+     * The counts are kept up to date by every change, so this takes the same time however long the list is.
+     *
+     * @param now The current time, which decides which deadlines are overdue.
+     * @return The counts.
+     */
+    public TaskStats getStats(LocalDateTime now) {
+        lock.readLock().lock();
+        try {
+            assert counter.getPending(TaskCounter.DEADLINE) == deadlineIndex.size() : "Counts should agree";
+            return new TaskStats(counter, deadlineIndex.countOverdue(now));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void setDone(int index, boolean isDone, List<Change> changes) {
+        Task task = tasks.get(index);
+        counter.remove(task);
+        views.removeBeforeStatusChange(task);
+        if (isDone) {
+            task.mark();
+            changes.add(Change.mark(index));
+        } else {
+            task.unmark();
+            changes.add(Change.unmark(index));
+        }
+        counter.add(task);
+        views.addAfterStatusChange(task);
+        if (task instanceof Deadline) {
+            deadlineIndex.update((Deadline) task, task.getId());
+        }
+        if (reminders != null) {
+            if (isDone) {
+                reminders.cancel(task);
+            } else {
+                reminders.arm(task);
+            }
+        }
+    }
+
+    /**
+     * Replaces a recurring event with a copy where one occurrence is marked or unmarked.
+     *
+     * @return The copy now in the list.
+     */
+    private RecurringEvent setOccurrenceDone(int index, int number, boolean isDone, List<Change> changes) {
+        RecurringEvent series = (RecurringEvent) tasks.get(index);
+        RecurringEvent changed = series.withOccurrenceDone(number, isDone);
+        unindex(series);
+        tasks = tasks.withReplaced(index, changed);
+        index(changed);
+        changes.add(isDone ? Change.markOccurrence(index, number) : Change.unmarkOccurrence(index, number));
+        return changed;
+    }
+
+    private static boolean isStrictlyAscending(int[] indices) {
+        for (int i = 1; i < indices.length; i++) {
+            if (indices[i] <= indices[i - 1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The version of the list a query is answered from, with the index chosen for it and the ids of
+     * the candidates it gave.
+     */
+    private static class QueryPlan {
+        private final TaskQuery.AccessPath path;
+        private final TaskVector tasks;
+        private final long[] candidates; // null when every task is a candidate
+
+        QueryPlan(TaskQuery.AccessPath path, TaskVector tasks, long[] candidates) {
+            this.path = path;
+            this.tasks = tasks;
+            this.candidates = candidates;
+        }
+    }
+
+    private void index(Task task) {
+        long id = task.getId();
+        counter.add(task);
+        views.add(task);
+        tokenIndex.add(task);
+        trigramIndex.add(task.getName(), id);
+        if (task instanceof RecurringEvent) {
+            recurringEvents.put(id, (RecurringEvent) task);
+        } else if (task instanceof Event) {
+            eventTree.add((Event) task, id);
+        } else if (task instanceof Deadline) {
+            deadlineIndex.update((Deadline) task, id);
+        }
+        if (reminders != null && !task.isDone()) {
+            reminders.arm(task);
+        }
+    }
+
+    private void unindex(Task task) {
+        long id = task.getId();
+        counter.remove(task);
+        views.remove(task);
+        tokenIndex.remove(task);
+        trigramIndex.remove(task.getName(), id);
+        if (task instanceof RecurringEvent) {
+            recurringEvents.remove(id);
+        } else if (task instanceof Event) {
+            eventTree.remove((Event) task, id);
+        } else if (task instanceof Deadline) {
+            deadlineIndex.remove((Deadline) task, id);
+        }
+        if (reminders != null) {
+            reminders.cancel(task);
+        }
+    }
 }
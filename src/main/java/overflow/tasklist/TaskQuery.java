@@ -0,0 +1,222 @@
+package overflow.tasklist;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import overflow.task.Deadline;
+import overflow.task.Event;
+import overflow.task.Task;
+import overflow.task.Todo;
+
+/**
+ * A query for the tasks that meet every one of its conditions, as in
+ * "where type=D done=0 by<2026-12-01 name~report". The parser builds it and
+ * {@link TaskList#query(TaskQuery, java.util.function.ObjIntConsumer)} answers it, using whichever
+ * index narrows the list down most.
+ *
+ * <p>A repeating event is matched by the times of its first occurrence.</p>
+ */
+public class TaskQuery {
+    /**
+     * What a condition looks at.
+     */
+    public enum Field {
+        TYPE("type"), DONE("done"), NAME("name"), BY("by"), FROM("from"), TO("to");
+
+        private final String keyword;
+
+        Field(String keyword) {
+            this.keyword = keyword;
+        }
+
+        public String getKeyword() {
+            return keyword;
+        }
+
+        /**
+         * Checks whether the field holds a time, which can be compared with the order operators.
+         *
+         * @return True for the due time of deadlines and the start and end times of events.
+         */
+        public boolean isTime() {
+            return this == BY || this == FROM || this == TO;
+        }
+
+        /**
+         * Finds the field with the given keyword.
+         *
+         * @param keyword The keyword, in any case.
+         * @return The field, or null if there is none with that keyword.
+         */
+        public static Field fromKeyword(String keyword) {
+            for (Field field : values()) {
+                if (field.keyword.equalsIgnoreCase(keyword)) {
+                    return field;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * How a condition compares a field with its value.
+     */
+    public enum Operator {
+        // Longer symbols first, so "<=" is not read as "<" followed by "="
+        AT_MOST("<="), AT_LEAST(">="), LESS("<"), GREATER(">"), EQUAL("="), CONTAINS("~");
+
+        private final String symbol;
+
+        Operator(String symbol) {
+            this.symbol = symbol;
+        }
+
+        public String getSymbol() {
+            return symbol;
+        }
+
+        private boolean accepts(int comparison) {
+            switch (this) {
+            case AT_MOST:
+                return comparison <= 0;
+            case AT_LEAST:
+                return comparison >= 0;
+            case LESS:
+                return comparison < 0;
+            case GREATER:
+                return comparison > 0;
+            default:
+                return comparison == 0;
+            }
+        }
+    }
+
+    /**
+     * Which index a query is answered from.
+     */
+    enum AccessPath {
+        NAME_INDEX, DEADLINE_INDEX, EVENT_INDEX, SCAN
+    }
+
+    /**
+     * One condition of a query, such as "done=0".
+     */
+    public static class Condition {
+        private final Field field;
+        private final Operator operator;
+        private final Object value;
+
+        /**
+         * Creates a condition.
+         *
+         * @param field The field to look at.
+         * @param operator How to compare it.
+         * @param value A Character of T, D or E for the type, a Boolean for the done state,
+         *     a lower-cased String for a name and a LocalDateTime for a time.
+         */
+        public Condition(Field field, Operator operator, Object value) {
+            assert field.isTime() ? value instanceof LocalDateTime && operator != Operator.CONTAINS
+                    : field == Field.NAME ? value instanceof String && operator == Operator.CONTAINS
+                    : operator == Operator.EQUAL : "Operator or value does not suit the field";
+            this.field = field;
+            this.operator = operator;
+            this.value = value;
+        }
+
+        public Field getField() {
+            return field;
+        }
+
+        public Operator getOperator() {
+            return operator;
+        }
+
+        public Object getValue() {
+            return value;
+        }
+
+        /**
+         * Checks whether a task meets the condition. Only deadlines have a due time and only events
+         * have start and end times, so other tasks never meet a condition on them.
+         *
+         * @param task The task to check.
+         * @return True if the task meets the condition.
+         */
+        boolean matches(Task task) {
+            switch (field) {
+            case TYPE:
+                char type = (Character) value;
+                return type == 'T' ? task instanceof Todo : type == 'D' ? task instanceof Deadline
+                        : task instanceof Event;
+            case DONE:
+                return task.isDone() == (Boolean) value;
+            case NAME:
+                return task.getName().toLowerCase().contains((String) value);
+            case BY:
+                return task instanceof Deadline && compare(((Deadline) task).getDeadline());
+            case FROM:
+                return task instanceof Event && compare(((Event) task).getStartTime());
+            default:
+                return task instanceof Event && compare(((Event) task).getEndTime());
+            }
+        }
+
+        private boolean compare(LocalDateTime time) {
+            return operator.accepts(time.compareTo((LocalDateTime) value));
+        }
+
+        /**
+         * Returns the earliest minute a time meeting the condition can fall in.
+         */
+        long getEarliestMinute() {
+            return operator == Operator.LESS || operator == Operator.AT_MOST
+                    ? Long.MIN_VALUE
+                    : Task.toEpochMinute((LocalDateTime) value);
+        }
+
+        /**
+         * Returns the latest minute a time meeting the condition can fall in.
+         */
+        long getLatestMinute() {
+            return operator == Operator.GREATER || operator == Operator.AT_LEAST
+                    ? Long.MAX_VALUE
+                    : Task.toEpochMinute((LocalDateTime) value);
+        }
+
+        @Override
+        public String toString() {
+            return field.keyword + operator.symbol + value;
+        }
+    }
+
+    private final List<Condition> conditions;
+
+    /**
+     * Creates a query for the tasks that meet all of the conditions.
+     *
+     * @param conditions The conditions, of which there must be at least one.
+     */
+    public TaskQuery(List<Condition> conditions) {
+        assert !conditions.isEmpty() : "Query should have a condition";
+        this.conditions = List.copyOf(conditions);
+    }
+
+    public List<Condition> getConditions() {
+        return conditions;
+    }
+
+    /**
+     * Checks whether a task meets every condition.
+     *
+     * @param task The task to check.
+     * @return True if the task matches the query.
+     */
+    boolean matches(Task task) {
+        for (Condition condition : conditions) {
+            if (!condition.matches(task)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,97 @@
+package overflow.tasklist;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Predicate;
+
+import overflow.task.Task;
+
+/**
+ * Tests every task of a version of the list against several predicates in one pass.
+ * Large lists are split between the threads of a fork-join pool and the parts' matches are joined
+ * back in list order; small lists are scanned on the calling thread, where handing out work would
+ * cost more than it saves.
+ */
+class TaskScanner {
+    static final int DEFAULT_PARALLEL_THRESHOLD = 20_000; // tasks, smaller lists scan in about a millisecond anyway
+    private static final int PARTS_PER_THREAD = 4; // spare parts let idle threads steal work from slow ones
+
+    private final ForkJoinPool pool;
+    private final int parallelThreshold;
+
+    /**
+     * Creates a scanner that runs on the given pool.
+     *
+     * @param pool The fork-join pool to scan large lists on.
+     * @param parallelThreshold The smallest number of tasks worth scanning in parallel.
+     */
+    TaskScanner(ForkJoinPool pool, int parallelThreshold) {
+        assert parallelThreshold >= 0 : "Threshold cannot be negative";
+        this.pool = pool;
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * Finds the tasks that satisfy each predicate.
+     *
+     * @param tasks The version of the list to scan.
+     * @param predicates The predicates, which may be called from several threads at once.
+     * @return For each predicate, the tasks satisfying it in list order.
+     */
+    List<ArrayList<Task>> scan(TaskVector tasks, List<Predicate<Task>> predicates) {
+        if (tasks.size() < parallelThreshold || pool.getParallelism() == 1) {
+            return scanPart(tasks.spliterator(), predicates);
+        }
+        int partSize = Math.max(1, tasks.size() / (pool.getParallelism() * PARTS_PER_THREAD));
+        return pool.invoke(new ScanTask(tasks.spliterator(), predicates, partSize));
+    }
+
+    private static List<ArrayList<Task>> scanPart(Spliterator<Task> part, List<Predicate<Task>> predicates) {
+        ArrayList<ArrayList<Task>> matches = new ArrayList<>(predicates.size());
+        for (int i = 0; i < predicates.size(); i++) {
+            matches.add(new ArrayList<>());
+        }
+        part.forEachRemaining(task -> {
+            for (int i = 0; i < predicates.size(); i++) {
+                if (predicates.get(i).test(task)) {
+                    matches.get(i).add(task);
+                }
+            }
+        });
+        return matches;
+    }
+
+    private static class ScanTask extends RecursiveTask<List<ArrayList<Task>>> {
+        private static final long serialVersionUID = 1L;
+
+        private final Spliterator<Task> part;
+        private final List<Predicate<Task>> predicates;
+        private final int partSize;
+
+        ScanTask(Spliterator<Task> part, List<Predicate<Task>> predicates, int partSize) {
+            this.part = part;
+            this.predicates = predicates;
+            this.partSize = partSize;
+        }
+
+        @Override
+        protected List<ArrayList<Task>> compute() {
+            Spliterator<Task> front;
+            if (part.estimateSize() <= partSize || (front = part.trySplit()) == null) {
+                return scanPart(part, predicates);
+            }
+
+            ScanTask frontTask = new ScanTask(front, predicates, partSize);
+            frontTask.fork();
+            List<ArrayList<Task>> backMatches = new ScanTask(part, predicates, partSize).compute();
+            List<ArrayList<Task>> matches = frontTask.join();
+            for (int i = 0; i < matches.size(); i++) {
+                matches.get(i).addAll(backMatches.get(i)); // the split-off front comes first in the list
+            }
+            return matches;
+        }
+    }
+}
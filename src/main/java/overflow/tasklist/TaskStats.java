@@ -0,0 +1,72 @@
+package overflow.tasklist;
+
+/**
+ * Represents how many tasks of each type a list held, and how many were done or overdue,
+ * at the moment the numbers were taken.
+ */
+public class TaskStats {
+    private final int pendingTodos;
+    private final int doneTodos;
+    private final int pendingDeadlines;
+    private final int overdueDeadlines;
+    private final int doneDeadlines;
+    private final int pendingEvents;
+    private final int doneEvents;
+
+    TaskStats(TaskCounter counter, int overdueDeadlines) {
+        this.pendingTodos = counter.getPending(TaskCounter.TODO);
+        this.doneTodos = counter.getDone(TaskCounter.TODO);
+        this.pendingDeadlines = counter.getPending(TaskCounter.DEADLINE);
+        this.overdueDeadlines = overdueDeadlines;
+        this.doneDeadlines = counter.getDone(TaskCounter.DEADLINE);
+        this.pendingEvents = counter.getPending(TaskCounter.EVENT);
+        this.doneEvents = counter.getDone(TaskCounter.EVENT);
+    }
+
+    public int getPendingTodos() {
+        return pendingTodos;
+    }
+
+    public int getDoneTodos() {
+        return doneTodos;
+    }
+
+    /**
+     * Returns how many deadlines are not done yet, including the overdue ones.
+     *
+     * @return The number of pending deadlines.
+     */
+    public int getPendingDeadlines() {
+        return pendingDeadlines;
+    }
+
+    /**
+     * Returns how many deadlines are not done yet although their due time has passed.
+     *
+     * @return The number of overdue deadlines.
+     */
+    public int getOverdueDeadlines() {
+        return overdueDeadlines;
+    }
+
+    public int getDoneDeadlines() {
+        return doneDeadlines;
+    }
+
+    public int getPendingEvents() {
+        return pendingEvents;
+    }
+
+    public int getDoneEvents() {
+        return doneEvents;
+    }
+
+    /**
+     * Returns how many tasks the list held.
+     *
+     * @return The number of tasks.
+     */
+    public int getTotal() {
+        return pendingTodos + doneTodos + pendingDeadlines + doneDeadlines + pendingEvents + doneEvents;
+    }
+}
@@ -0,0 +1,490 @@
+package overflow.tasklist;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+import overflow.task.Task;
+
+/**
+ * An immutable list of tasks where every change returns a new version that shares most of its
+ * structure with the old one. Versions can be handed to other threads or kept for later without
+ * copying, as nothing can change them.
+ *
+ * <p>The tasks are held in leaves of up to {@value #MAX_WIDTH} entries under branches of up to
+ * {@value #MAX_WIDTH} children, each branch recording how many tasks lie up to the end of every
+ * child. Reading, inserting and removing at an index only copy the nodes on the path to it,
+ * so they take O(log n). Only the order of the tasks is frozen, marking a task still changes it
+ * in every version.</p>
+ */
+final class TaskVector extends AbstractList<Task> {
+    private static final int MAX_WIDTH = 32;
+    private static final int MERGE_WIDTH = MAX_WIDTH / 2; // neighbours this small are joined after a removal
+    private static final Task[] NO_TASKS = new Task[0];
+    private static final TaskVector EMPTY = new TaskVector(new Leaf(NO_TASKS));
+
+    private final Node root;
+
+    private TaskVector(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Returns the empty vector.
+     *
+     * @return A vector without tasks.
+     */
+    static TaskVector empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Creates a vector holding the given tasks, in O(n).
+     *
+     * @param tasks The tasks, in order.
+     * @return The vector.
+     */
+    static TaskVector of(List<Task> tasks) {
+        Node[] level = new Node[(tasks.size() + MAX_WIDTH - 1) / MAX_WIDTH];
+        Task[] all = tasks.toArray(NO_TASKS);
+        for (int i = 0; i < level.length; i++) {
+            level[i] = new Leaf(Arrays.copyOfRange(all, i * MAX_WIDTH, Math.min(all.length, (i + 1) * MAX_WIDTH)));
+        }
+
+        while (level.length > 1) {
+            Node[] parents = new Node[(level.length + MAX_WIDTH - 1) / MAX_WIDTH];
+            for (int i = 0; i < parents.length; i++) {
+                parents[i] = new Branch(Arrays.copyOfRange(level, i * MAX_WIDTH,
+                        Math.min(level.length, (i + 1) * MAX_WIDTH)));
+            }
+            level = parents;
+        }
+        return level.length == 0 ? EMPTY : new TaskVector(level[0]);
+    }
+
+    @Override
+    public int size() {
+        return root.size();
+    }
+
+    @Override
+    public Task get(int index) {
+        checkIndex(index, size());
+        Node node = root;
+        while (node instanceof Branch) {
+            Branch branch = (Branch) node;
+            int child = branch.childAt(index);
+            index -= branch.startOf(child);
+            node = branch.children[child];
+        }
+        return ((Leaf) node).tasks[index];
+    }
+
+    /**
+     * Finds the position of the task with an id, for vectors whose tasks are in ascending id order.
+     *
+     * @param id The id of a task in the vector.
+     * @param fromIndex The position to start searching from.
+     * @return The position of the task.
+     */
+    int indexOfId(long id, int fromIndex) {
+        int index = ceilingIndexOfId(id, fromIndex);
+        assert index < size() && get(index).getId() == id : "Task with id " + id + " is not in the vector";
+        return index;
+    }
+
+    /**
+     * Finds the position of the first task with an id at least the given one, for vectors whose tasks
+     * are in ascending id order.
+     *
+     * @param id The smallest id wanted.
+     * @param fromIndex The position to start searching from.
+     * @return The position, or the size of the vector if every task from there on has a smaller id.
+     */
+    int ceilingIndexOfId(long id, int fromIndex) {
+        int low = fromIndex;
+        int high = size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (get(middle).getId() < id) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns a version with the task added at the end.
+     *
+     * @param task The task to add.
+     * @return The new version.
+     */
+    TaskVector withAppended(Task task) {
+        return withInserted(size(), task);
+    }
+
+    /**
+     * Returns a version with the task inserted at a position.
+     *
+     * @param index The position to insert at (0-based), up to the size of the vector.
+     * @param task The task to insert.
+     * @return The new version.
+     */
+    TaskVector withInserted(int index, Task task) {
+        checkIndex(index, size() + 1);
+        Node[] inserted = root.insert(index, task);
+        return new TaskVector(inserted.length == 1 ? inserted[0] : new Branch(inserted));
+    }
+
+    /**
+     * Returns a version without the task at a position.
+     *
+     * @param index The position to remove (0-based).
+     * @return The new version.
+     */
+    TaskVector withRemoved(int index) {
+        checkIndex(index, size());
+        Node removed = root.remove(index);
+        while (removed instanceof Branch && ((Branch) removed).children.length == 1) {
+            removed = ((Branch) removed).children[0];
+        }
+        return removed.size() == 0 ? EMPTY : new TaskVector(removed);
+    }
+
+    /**
+     * Returns a version with the task at a position replaced by another.
+     *
+     * @param index The position to replace (0-based).
+     * @param task The task to put there.
+     * @return The new version.
+     */
+    TaskVector withReplaced(int index, Task task) {
+        return withRemoved(index).withInserted(index, task);
+    }
+
+    /**
+     * Returns a version without the tasks at several positions. Removing a large share of the tasks
+     * rebuilds the tree in one O(n) pass instead of copying a path for every removal.
+     *
+     * @param indices The positions to remove (0-based), in ascending order without repeats.
+     * @return The new version.
+     */
+    TaskVector withRemoved(int[] indices) {
+        if (indices.length <= size() / MAX_WIDTH) {
+            TaskVector removed = this;
+            for (int i = indices.length - 1; i >= 0; i--) {
+                removed = removed.withRemoved(indices[i]);
+            }
+            return removed;
+        }
+
+        for (int index : indices) {
+            checkIndex(index, size());
+        }
+        ArrayList<Task> kept = new ArrayList<>(size() - indices.length);
+        int next = 0;
+        int index = 0;
+        for (Task task : this) {
+            if (next < indices.length && indices[next] == index) {
+                next++;
+            } else {
+                kept.add(task);
+            }
+            index++;
+        }
+        return of(kept);
+    }
+
+    @Override
+    public Iterator<Task> iterator() {
+        return new Iterator<>() {
+            private final Cursor cursor = new Cursor(0);
+            private final int size = size();
+
+            @Override
+            public boolean hasNext() {
+                return cursor.index < size;
+            }
+
+            @Override
+            public Task next() {
+                if (cursor.index >= size) {
+                    throw new NoSuchElementException();
+                }
+                return cursor.next();
+            }
+        };
+    }
+
+    /**
+     * Returns a spliterator that splits the vector into halves of its index range, so parallel
+     * streams can divide the tasks between threads. Each part walks its tasks leaf by leaf.
+     */
+    @Override
+    public Spliterator<Task> spliterator() {
+        return new TaskSpliterator(0, size());
+    }
+
+    private static void checkIndex(int index, int bound) {
+        if (index < 0 || index >= bound) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + bound);
+        }
+    }
+
+    /**
+     * Walks the tasks from a position onwards, descending the tree once per leaf instead of once per task.
+     */
+    private final class Cursor {
+        private int index;
+        private Task[] leaf = NO_TASKS;
+        private int position = 0;
+
+        Cursor(int index) {
+            this.index = index;
+        }
+
+        Task next() {
+            if (position == leaf.length) {
+                Node node = root;
+                int offset = index;
+                while (node instanceof Branch) {
+                    Branch branch = (Branch) node;
+                    int child = branch.childAt(offset);
+                    offset -= branch.startOf(child);
+                    node = branch.children[child];
+                }
+                leaf = ((Leaf) node).tasks;
+                position = offset;
+            }
+            index++;
+            return leaf[position++];
+        }
+    }
+
+    private final class TaskSpliterator implements Spliterator<Task> {
+        private Cursor cursor;
+        private final int end;
+
+        TaskSpliterator(int start, int end) {
+            this.cursor = new Cursor(start);
+            this.end = end;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Task> action) {
+            if (cursor.index >= end) {
+                return false;
+            }
+            action.accept(cursor.next());
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Task> action) {
+            while (cursor.index < end) {
+                action.accept(cursor.next());
+            }
+        }
+
+        @Override
+        public Spliterator<Task> trySplit() {
+            int start = cursor.index;
+            if (end - start < 2 * MAX_WIDTH) {
+                return null; // a part smaller than a couple of leaves is not worth handing to another thread
+            }
+            int middle = start + (end - start) / 2;
+            cursor = new Cursor(middle);
+            return new TaskSpliterator(start, middle);
+        }
+
+        @Override
+        public long estimateSize() {
+            return end - cursor.index;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+        }
+    }
+
+    /**
+     * A node of the tree. Nodes are never modified once they are reachable from a vector.
+     */
+    private abstract static class Node {
+        abstract int size();
+
+        abstract int width();
+
+        /**
+         * Inserts into a copy of this node.
+         *
+         * @return The copy, or two nodes if the copy grew too wide and was split.
+         */
+        abstract Node[] insert(int index, Task task);
+
+        /**
+         * Removes from a copy of this node, which may then be empty.
+         */
+        abstract Node remove(int index);
+
+        /**
+         * Joins this node with its right neighbour of the same kind.
+         */
+        abstract Node concat(Node right);
+    }
+
+    private static final class Leaf extends Node {
+        private final Task[] tasks;
+
+        Leaf(Task[] tasks) {
+            this.tasks = tasks;
+        }
+
+        @Override
+        int size() {
+            return tasks.length;
+        }
+
+        @Override
+        int width() {
+            return tasks.length;
+        }
+
+        @Override
+        Node[] insert(int index, Task task) {
+            Task[] grown = new Task[tasks.length + 1];
+            System.arraycopy(tasks, 0, grown, 0, index);
+            grown[index] = task;
+            System.arraycopy(tasks, index, grown, index + 1, tasks.length - index);
+            if (grown.length <= MAX_WIDTH) {
+                return new Node[]{new Leaf(grown)};
+            }
+
+            int split = splitPoint(index, grown.length);
+            return new Node[]{new Leaf(Arrays.copyOfRange(grown, 0, split)),
+                new Leaf(Arrays.copyOfRange(grown, split, grown.length))};
+        }
+
+        @Override
+        Node remove(int index) {
+            Task[] shrunk = new Task[tasks.length - 1];
+            System.arraycopy(tasks, 0, shrunk, 0, index);
+            System.arraycopy(tasks, index + 1, shrunk, index, shrunk.length - index);
+            return new Leaf(shrunk);
+        }
+
+        @Override
+        Node concat(Node right) {
+            Task[] joined = Arrays.copyOf(tasks, tasks.length + right.width());
+            System.arraycopy(((Leaf) right).tasks, 0, joined, tasks.length, right.width());
+            return new Leaf(joined);
+        }
+    }
+
+    private static final class Branch extends Node {
+        private final Node[] children;
+        private final int[] ends; // ends[i] is the number of tasks in children 0 to i
+
+        Branch(Node[] children) {
+            this.children = children;
+            this.ends = new int[children.length];
+            int total = 0;
+            for (int i = 0; i < children.length; i++) {
+                total += children[i].size();
+                ends[i] = total;
+            }
+        }
+
+        @Override
+        int size() {
+            return ends.length == 0 ? 0 : ends[ends.length - 1];
+        }
+
+        @Override
+        int width() {
+            return children.length;
+        }
+
+        int startOf(int child) {
+            return child == 0 ? 0 : ends[child - 1];
+        }
+
+        /**
+         * Finds the child holding the task at an index.
+         */
+        int childAt(int index) {
+            int position = Arrays.binarySearch(ends, index + 1);
+            // Several ends can be equal only around empty children, which are never kept
+            return position >= 0 ? position : -position - 1;
+        }
+
+        @Override
+        Node[] insert(int index, Task task) {
+            // An index at the very end goes into the last child, so appends fill the rightmost leaf
+            int child = index == size() ? children.length - 1 : childAt(index);
+            Node[] replacement = children[child].insert(index - startOf(child), task);
+
+            Node[] grown = new Node[children.length + replacement.length - 1];
+            System.arraycopy(children, 0, grown, 0, child);
+            System.arraycopy(replacement, 0, grown, child, replacement.length);
+            System.arraycopy(children, child + 1, grown, child + replacement.length, children.length - child - 1);
+            if (grown.length <= MAX_WIDTH) {
+                return new Node[]{new Branch(grown)};
+            }
+
+            int split = splitPoint(child + 1, grown.length);
+            return new Node[]{new Branch(Arrays.copyOfRange(grown, 0, split)),
+                new Branch(Arrays.copyOfRange(grown, split, grown.length))};
+        }
+
+        @Override
+        Node remove(int index) {
+            int child = childAt(index);
+            Node shrunk = children[child].remove(index - startOf(child));
+
+            if (shrunk.size() == 0) {
+                Node[] remaining = new Node[children.length - 1];
+                System.arraycopy(children, 0, remaining, 0, child);
+                System.arraycopy(children, child + 1, remaining, child, remaining.length - child);
+                return new Branch(remaining);
+            }
+
+            Node[] copy = children.clone();
+            copy[child] = shrunk;
+            // Join a thin child with a neighbour so that removals do not leave long chains of tiny nodes
+            int neighbour = child + 1 < copy.length ? child + 1 : child - 1;
+            if (neighbour >= 0 && shrunk.width() + copy[neighbour].width() <= MERGE_WIDTH) {
+                int left = Math.min(child, neighbour);
+                Node[] merged = new Node[copy.length - 1];
+                System.arraycopy(copy, 0, merged, 0, left);
+                merged[left] = copy[left].concat(copy[left + 1]);
+                System.arraycopy(copy, left + 2, merged, left + 1, copy.length - left - 2);
+                return new Branch(merged);
+            }
+            return new Branch(copy);
+        }
+
+        @Override
+        Node concat(Node right) {
+            Node[] joined = Arrays.copyOf(children, children.length + right.width());
+            System.arraycopy(((Branch) right).children, 0, joined, children.length, right.width());
+            return new Branch(joined);
+        }
+    }
+
+    /**
+     * Chooses where to split an overfull node. A node that overflowed at its end is split with
+     * the old entries kept together, so that appending leaves full nodes behind.
+     */
+    private static int splitPoint(int insertedAt, int width) {
+        return insertedAt == width - 1 ? MAX_WIDTH : width / 2;
+    }
+}
@@ -0,0 +1,153 @@
+package overflow.tasklist;
+
+import java.util.List;
+
+/**
+ * Holds timers that expire at whole ticks, such as minutes, so that scheduling and cancelling a timer
+ * take constant time however many timers are waiting. Timers due within {@value #SLOTS_PER_LEVEL} ticks
+ * sit in the slot of the tick they expire at; later ones sit in coarser levels whose slots each span
+ * {@value #SLOTS_PER_LEVEL} slots of the level below, and move down a level whenever the wheel reaches
+ * the span their slot covers. Each timer therefore moves at most once per level before it expires.
+ *
+ * @param <T> The type of item a timer carries.
+ */
+class TimingWheel<T> {
+    private static final int BITS_PER_LEVEL = 6;
+    private static final int SLOTS_PER_LEVEL = 1 << BITS_PER_LEVEL;
+    private static final int LEVELS = 6; // enough for 2^36 ticks, over a hundred thousand years of minutes
+    private static final long MAX_DELAY = 1L << (BITS_PER_LEVEL * LEVELS);
+
+    private final Timer<T>[][] slots;
+    private long currentTick;
+    private int size;
+
+    /**
+     * Creates an empty wheel.
+     *
+     * @param currentTick The tick the wheel starts at, which counts as already passed.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    TimingWheel(long currentTick) {
+        this.currentTick = currentTick;
+        slots = new Timer[LEVELS][SLOTS_PER_LEVEL];
+        for (Timer<T>[] level : slots) {
+            for (int i = 0; i < SLOTS_PER_LEVEL; i++) {
+                level[i] = new Timer<>(null, 0); // an empty ring, so unlinking a timer needs no special cases
+            }
+        }
+    }
+
+    /**
+     * Schedules an item to be returned once the wheel reaches a tick.
+     *
+     * @param item The item to return.
+     * @param tick The tick the timer expires at.
+     * @return The timer, or null if the tick has already passed and nothing was scheduled.
+     */
+    Timer<T> schedule(T item, long tick) {
+        long delay = tick - currentTick;
+        if (delay <= 0 || delay >= MAX_DELAY) {
+            return null;
+        }
+        Timer<T> timer = new Timer<>(item, tick);
+        insert(timer);
+        size++;
+        return timer;
+    }
+
+    /**
+     * Cancels a timer that has not expired yet.
+     *
+     * @param timer The timer to cancel.
+     */
+    void cancel(Timer<T> timer) {
+        if (timer.next != null) {
+            timer.unlink();
+            size--;
+        }
+    }
+
+    /**
+     * Moves the wheel forward, collecting the items of every timer that expires on the way.
+     *
+     * @param tick The tick to move to. The wheel does not move if it has already passed it.
+     * @param expired The list to add the expired items to, in order of expiry.
+     */
+    void advanceTo(long tick, List<T> expired) {
+        while (currentTick < tick) {
+            currentTick++;
+            // Once a level's span is used up, its next slot is spread over the levels below, coarsest first
+            int level = 1;
+            while (level < LEVELS && (currentTick & ((1L << (BITS_PER_LEVEL * level)) - 1)) == 0) {
+                level++;
+            }
+            for (int l = level - 1; l >= 1; l--) {
+                Timer<T> head = slots[l][slotOf(currentTick, l)];
+                while (head.next != head) {
+                    Timer<T> timer = head.next;
+                    timer.unlink();
+                    insert(timer);
+                }
+            }
+
+            Timer<T> head = slots[0][slotOf(currentTick, 0)];
+            while (head.next != head) {
+                Timer<T> timer = head.next;
+                timer.unlink();
+                size--;
+                expired.add(timer.item);
+            }
+        }
+    }
+
+    long getCurrentTick() {
+        return currentTick;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void insert(Timer<T> timer) {
+        long delay = timer.tick - currentTick;
+        int level = delay < SLOTS_PER_LEVEL ? 0 : (63 - Long.numberOfLeadingZeros(delay)) / BITS_PER_LEVEL;
+        timer.linkBefore(slots[level][slotOf(timer.tick, level)]);
+    }
+
+    private static int slotOf(long tick, int level) {
+        return (int) (tick >>> (BITS_PER_LEVEL * level)) & (SLOTS_PER_LEVEL - 1);
+    }
+
+    /**
+     * A scheduled item, linked into the ring of timers in its slot.
+     */
+    static class Timer<T> {
+        private final T item;
+        private final long tick;
+        private Timer<T> previous = this;
+        private Timer<T> next = this;
+
+        Timer(T item, long tick) {
+            this.item = item;
+            this.tick = tick;
+        }
+
+        long getTick() {
+            return tick;
+        }
+
+        private void linkBefore(Timer<T> head) {
+            previous = head.previous;
+            next = head;
+            head.previous.next = this;
+            head.previous = this;
+        }
+
+        private void unlink() {
+            previous.next = next;
+            next.previous = previous;
+            previous = null;
+            next = null;
+        }
+    }
+}
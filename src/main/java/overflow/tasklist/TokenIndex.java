@@ -0,0 +1,123 @@
+package overflow.tasklist;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import overflow.task.Task;
+
+/**
+ * Maps the lower-cased, whitespace-separated tokens of task names to the ids of the tasks containing them.
+ * The ids are kept in ascending order, so the tasks under several tokens can be walked in list order
+ * without collecting them first.
+ *
+ * <p>A keyword without whitespace occurs in a name exactly when it occurs inside one of the
+ * name's tokens, so substring search only has to look at the distinct tokens rather than at
+ * every task.</p>
+ *
+ * <p>The distinct tokens are also kept in a trie, so tokens spelled a few edits away from a
+ * keyword can be found without comparing against every token.</p>
+ */
+class TokenIndex {
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final HashMap<String, PostingList> postings = new HashMap<>();
+    private final TokenTrie dictionary = new TokenTrie();
+
+    /**
+     * Adds a task under every token of its name.
+     *
+     * @param task The task to index.
+     */
+    void add(Task task) {
+        for (String token : tokenize(task.getName())) {
+            postings.computeIfAbsent(token, key -> {
+                dictionary.add(key);
+                return new PostingList();
+            }).add(task.getId());
+        }
+    }
+
+    /**
+     * Removes a task from every token of its name.
+     *
+     * @param task The task to remove.
+     */
+    void remove(Task task) {
+        for (String token : tokenize(task.getName())) {
+            PostingList ids = postings.get(token);
+            if (ids != null) {
+                ids.remove(task.getId());
+                if (ids.size() == 0) {
+                    postings.remove(token);
+                    dictionary.remove(token);
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks whether a keyword can be answered from the index.
+     * Keywords that are empty or contain whitespace may span tokens and need a full scan.
+     *
+     * @param keyword The lower-cased keyword.
+     * @return True if {@link #find(String, int)} gives exact results for it.
+     */
+    static boolean canAnswer(String keyword) {
+        return !keyword.isEmpty() && !WHITESPACE.matcher(keyword).find();
+    }
+
+    /**
+     * Finds the tasks whose lower-cased name contains the keyword, giving up once the matching
+     * posting lists hold more than the limit, as a plain scan is cheaper then.
+     *
+     * @param keyword The lower-cased keyword, which must satisfy {@link #canAnswer(String)}.
+     * @param limit The largest number of postings worth merging.
+     * @return The posting lists of the tokens containing the keyword, which may share ids,
+     *     or null if there are too many.
+     */
+    List<PostingList> find(String keyword, int limit) {
+        ArrayList<PostingList> matchingPostings = new ArrayList<>();
+        int postingCount = 0;
+        for (Map.Entry<String, PostingList> entry : postings.entrySet()) {
+            if (entry.getKey().contains(keyword)) {
+                matchingPostings.add(entry.getValue());
+                postingCount += entry.getValue().size();
+                if (postingCount > limit) {
+                    return null;
+                }
+            }
+        }
+        return matchingPostings;
+    }
+
+    /**
+     * Finds every task with a token that is within a number of edits of the keyword,
+     * such as "grocery" for the misspelt "grocey".
+     *
+     * @param keyword The lower-cased keyword, which must satisfy {@link #canAnswer(String)}.
+     * @param maxEdits The largest number of inserted, deleted or replaced characters allowed.
+     * @return The posting lists of the matching tokens, which may share ids.
+     */
+    List<PostingList> findSimilar(String keyword, int maxEdits) {
+        ArrayList<PostingList> matchingPostings = new ArrayList<>();
+        for (String token : dictionary.find(keyword, maxEdits)) {
+            matchingPostings.add(postings.get(token));
+        }
+        return matchingPostings;
+    }
+
+    private static Set<String> tokenize(String name) {
+        HashSet<String> tokens = new HashSet<>();
+        for (String token : WHITESPACE.split(name.toLowerCase())) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,187 @@
+package overflow.tasklist;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * A set of words that finds every word within a few edits of a query without comparing against
+ * all of them. The words share their prefixes in a trie, and the search carries one row of the
+ * Levenshtein table per character down each path. Once every entry of a row exceeds the allowed
+ * edits, no word below that prefix can match and the whole subtree is skipped, so the search acts
+ * like a Levenshtein automaton run over the dictionary.
+ */
+class TokenTrie {
+    private final Node root = new Node();
+    private int size;
+
+    /**
+     * Adds a word, if not present yet.
+     *
+     * @param word The word to add.
+     */
+    void add(String word) {
+        Node node = root;
+        for (int i = 0; i < word.length(); i++) {
+            node = node.childFor(word.charAt(i), true);
+        }
+        if (node.word == null) {
+            node.word = word;
+            size++;
+        }
+    }
+
+    /**
+     * Removes a word, if present, along with any branch that no longer leads to a word.
+     *
+     * @param word The word to remove.
+     */
+    void remove(String word) {
+        Node[] path = new Node[word.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < word.length(); i++) {
+            path[i + 1] = path[i].childFor(word.charAt(i), false);
+            if (path[i + 1] == null) {
+                return;
+            }
+        }
+        if (path[word.length()].word == null) {
+            return;
+        }
+
+        path[word.length()].word = null;
+        size--;
+        for (int i = word.length(); i > 0 && path[i].word == null && path[i].labels.length == 0; i--) {
+            path[i - 1].removeChild(word.charAt(i - 1));
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Finds every word within a number of edits of the query, where an edit inserts, deletes or
+     * replaces one character.
+     *
+     * @param query The word to look for.
+     * @param maxEdits The largest number of edits allowed.
+     * @return The words found, in no particular order.
+     */
+    ArrayList<String> find(String query, int maxEdits) {
+        ArrayList<String> words = new ArrayList<>();
+        char[] letters = query.toCharArray();
+        // One reusable row per depth; words longer than the query plus maxEdits are never reached
+        int[][] rows = new int[letters.length + maxEdits + 1][letters.length + 1];
+        for (int j = 0; j <= letters.length; j++) {
+            rows[0][j] = j;
+        }
+        if (root.word != null && letters.length <= maxEdits) {
+            words.add(root.word);
+        }
+
+        for (int i = 0; i < root.labels.length; i++) {
+            collect(root.children[i], root.labels[i], 1, letters, maxEdits, rows, words);
+        }
+        return words;
+    }
+
+    private static void collect(Node node, char label, int depth, char[] query, int maxEdits,
+            int[][] rows, ArrayList<String> words) {
+        int[] previous = rows[depth - 1];
+        int[] row = rows[depth];
+        int length = query.length;
+
+        // Entries more than maxEdits away from the diagonal always exceed maxEdits, so only a band is computed
+        int from = Math.max(1, depth - maxEdits);
+        int to = Math.min(length, depth + maxEdits);
+        row[0] = depth;
+        row[from - 1] = from == 1 ? depth : maxEdits + 1;
+        int rowMinimum = row[from - 1];
+        for (int j = from; j <= to; j++) {
+            int replace = previous[j - 1] + (query[j - 1] == label ? 0 : 1);
+            row[j] = Math.min(replace, Math.min(previous[j], row[j - 1]) + 1);
+            rowMinimum = Math.min(rowMinimum, row[j]);
+        }
+        if (to < length) {
+            row[to + 1] = maxEdits + 1; // read as the entry above by the next row's band
+        }
+
+        if (node.word != null && Math.abs(length - depth) <= maxEdits && row[length] <= maxEdits) {
+            words.add(node.word);
+        }
+        if (rowMinimum > maxEdits || depth + 1 == rows.length) {
+            return; // every longer word starting with this prefix needs too many edits as well
+        }
+        for (int i = 0; i < node.labels.length; i++) {
+            collect(node.children[i], node.labels[i], depth + 1, query, maxEdits, rows, words);
+        }
+    }
+
+    /**
+     * Computes the Levenshtein distance between two words.
+     *
+     * @return The number of inserted, deleted or replaced characters needed to turn one into the other.
+     */
+    static int distance(String a, String b) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int replace = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(replace, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    private static class Node {
+        private static final char[] NO_LABELS = new char[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        private char[] labels = NO_LABELS; // sorted, labels[i] leads to children[i]
+        private Node[] children = NO_CHILDREN;
+        private String word; // the word ending here, if any
+
+        Node childFor(char label, boolean isCreating) {
+            int position = Arrays.binarySearch(labels, label);
+            if (position >= 0) {
+                return children[position];
+            }
+            if (!isCreating) {
+                return null;
+            }
+
+            position = -position - 1;
+            char[] grownLabels = new char[labels.length + 1];
+            Node[] grownChildren = new Node[children.length + 1];
+            System.arraycopy(labels, 0, grownLabels, 0, position);
+            System.arraycopy(children, 0, grownChildren, 0, position);
+            grownLabels[position] = label;
+            grownChildren[position] = new Node();
+            System.arraycopy(labels, position, grownLabels, position + 1, labels.length - position);
+            System.arraycopy(children, position, grownChildren, position + 1, children.length - position);
+            labels = grownLabels;
+            children = grownChildren;
+            return children[position];
+        }
+
+        void removeChild(char label) {
+            int position = Arrays.binarySearch(labels, label);
+            char[] shrunkLabels = new char[labels.length - 1];
+            Node[] shrunkChildren = new Node[children.length - 1];
+            System.arraycopy(labels, 0, shrunkLabels, 0, position);
+            System.arraycopy(children, 0, shrunkChildren, 0, position);
+            System.arraycopy(labels, position + 1, shrunkLabels, position, shrunkLabels.length - position);
+            System.arraycopy(children, position + 1, shrunkChildren, position, shrunkChildren.length - position);
+            labels = shrunkLabels;
+            children = shrunkChildren;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package overflow.tasklist;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Maps every three-character window of lower-cased task names to the ids of the
+ * tasks containing it. A keyword of three or more characters can only occur in a name that holds
+ * all of the keyword's trigrams, so intersecting their posting lists narrows a search down to a
+ * few candidates that are then checked directly.
+ */
+class TrigramIndex {
+    static final int GRAM_LENGTH = 3;
+
+    private final HashMap<Long, PostingList> postings = new HashMap<>();
+
+    /**
+     * Adds a task's name under each of its trigrams.
+     *
+     * @param name The task name.
+     * @param id The task's id.
+     */
+    void add(String name, long id) {
+        for (long gram : grams(name.toLowerCase())) {
+            postings.computeIfAbsent(gram, key -> new PostingList()).add(id);
+        }
+    }
+
+    /**
+     * Removes a task's name from each of its trigrams.
+     *
+     * @param name The task name.
+     * @param id The task's id.
+     */
+    void remove(String name, long id) {
+        for (long gram : grams(name.toLowerCase())) {
+            PostingList list = postings.get(gram);
+            if (list != null) {
+                list.remove(id);
+                if (list.size() == 0) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the ids of tasks that contain every trigram of the keyword.
+     * Every task whose name contains the keyword is among them, but not every candidate matches.
+     *
+     * @param keyword The lower-cased keyword, at least {@link #GRAM_LENGTH} characters long.
+     * @return The candidates in ascending order.
+     */
+    long[] findCandidates(String keyword) {
+        List<PostingList> lists = findPostings(keyword);
+        if (lists.isEmpty()) {
+            return new long[0];
+        }
+
+        // Start from the rarest trigram so every later step only shrinks a small array
+        long[] candidates = lists.get(0).toArray();
+        int count = candidates.length;
+        for (int i = 1; i < lists.size() && count > 0; i++) {
+            count = lists.get(i).retainAll(candidates, count);
+        }
+        return Arrays.copyOf(candidates, count);
+    }
+
+    /**
+     * Returns the posting lists of the keyword's trigrams, for walking their intersection in step.
+     *
+     * @param keyword The lower-cased keyword, at least {@link #GRAM_LENGTH} characters long.
+     * @return The lists, shortest first, or no list if some trigram occurs in no name.
+     */
+    List<PostingList> findPostings(String keyword) {
+        assert keyword.length() >= GRAM_LENGTH : "Keyword is too short for trigrams";
+
+        ArrayList<PostingList> lists = new ArrayList<>();
+        for (long gram : grams(keyword)) {
+            PostingList list = postings.get(gram);
+            if (list == null) {
+                return List.of();
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(PostingList::size));
+        return lists;
+    }
+
+    /**
+     * Estimates how many candidates {@link #findCandidates(String)} would return without
+     * intersecting anything, from the shortest posting list among the keyword's trigrams.
+     *
+     * @param keyword The lower-cased keyword, at least {@link #GRAM_LENGTH} characters long.
+     * @return An upper bound on the number of candidates.
+     */
+    int estimateCandidates(String keyword) {
+        assert keyword.length() >= GRAM_LENGTH : "Keyword is too short for trigrams";
+
+        int fewest = Integer.MAX_VALUE;
+        for (long gram : grams(keyword)) {
+            PostingList list = postings.get(gram);
+            if (list == null) {
+                return 0;
+            }
+            fewest = Math.min(fewest, list.size());
+        }
+        return fewest;
+    }
+
+    private static HashSet<Long> grams(String text) {
+        HashSet<Long> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+        return grams;
+    }
+}
@@ -1,12 +1,21 @@
 package overflow.ui;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Scanner;
 
 import overflow.exception.OverflowException;
+import overflow.task.Deadline;
+import overflow.task.Event;
+import overflow.task.NameInterner;
+import overflow.task.Occurrence;
+import overflow.task.RecurringEvent;
 import overflow.task.Task;
+import overflow.tasklist.SearchPage;
+import overflow.tasklist.SortKey;
 import overflow.tasklist.TaskList;
+import overflow.tasklist.TaskStats;
 
 /**
  * Handles interactions with the user.
@@ -87,40 +96,258 @@ public class Ui {
         System.out.println("Unmarked! \n" + task);
     }
 
+    /**
+     * Displays a message when one occurrence of a repeating event is marked.
+     *
+     * @param occurrence The occurrence that was marked.
+     */
+    public void showOccurrenceMarked(Occurrence occurrence) {
+        System.out.println("Marked this occurrence! \n" + occurrence);
+    }
+
+    /**
+     * Displays a message when one occurrence of a repeating event is unmarked.
+     *
+     * @param occurrence The occurrence that was unmarked.
+     */
+    public void showOccurrenceUnmarked(Occurrence occurrence) {
+        System.out.println("Unmarked this occurrence! \n" + occurrence);
+    }
+
+    /**
+     * Displays the tasks deleted by one command.
+     *
+     * @param deleted The tasks that were deleted.
+     * @param taskCount The number of tasks left.
+     */
+    public void showTasksDeleted(List<Task> deleted, int taskCount) {
+        System.out.println("Deleted " + deleted.size() + " tasks!");
+        for (Task task : deleted) {
+            System.out.println(task);
+        }
+        System.out.println("Currently you have " + taskCount + " tasks.");
+    }
+
+    /**
+     * Displays the tasks marked by one command.
+     *
+     * @param marked The tasks that were marked.
+     */
+    public void showTasksMarked(List<Task> marked) {
+        System.out.println("Marked " + marked.size() + " tasks!");
+        for (Task task : marked) {
+            System.out.println(task);
+        }
+    }
+
+    /**
+     * Displays the tasks unmarked by one command.
+     *
+     * @param unmarked The tasks that were unmarked.
+     */
+    public void showTasksUnmarked(List<Task> unmarked) {
+        System.out.println("Unmarked " + unmarked.size() + " tasks!");
+        for (Task task : unmarked) {
+            System.out.println(task);
+        }
+    }
+
     /**
      * Displays all tasks in the task list.
      *
      * @param tasks The list of tasks to display.
      */
     public void showTasks(TaskList tasks) throws OverflowException {
-        for (int i = 0; i < tasks.size(); i++) {
-            System.out.println((i + 1) + ". " + tasks.get(i));
+        // Render one version of the list, so changes made meanwhile cannot shift the numbering
+        List<Task> snapshot = tasks.getTasks();
+        printTasks(snapshot);
+        if (snapshot.isEmpty()) {
+            System.out.println("There currently isn't any added task QAQ");
         }
-        if (tasks.size() == 0) {
+    }
+
+    /**
+     * Displays all tasks in a sorted order, numbered by their place in that order.
+     *
+     * @param sorted The sorted tasks.
+     * @param key The key they are sorted by.
+     */
+    public void showSortedTasks(List<Task> sorted, SortKey key) {
+        if (sorted.isEmpty()) {
             System.out.println("There currently isn't any added task QAQ");
+            return;
+        }
+        System.out.println("Here are your tasks by " + key.getKeyword() + ":");
+        printTasks(sorted);
+    }
+
+    private void printTasks(List<Task> snapshot) {
+        long now = Task.toEpochMinute(LocalDateTime.now());
+        int number = 1;
+        for (Task task : snapshot) {
+            System.out.println(number++ + ". " + task);
+            if (task instanceof RecurringEvent) {
+                // Repeating events are listed once, with only the occurrence that comes next worked out
+                RecurringEvent series = (RecurringEvent) task;
+                System.out.println("   next: " + series.getOccurrence(series.getFirstOccurrenceFrom(now)));
+            }
         }
     }
 
     /**
-     * Displays the search results grouped by keyword.
+     * Displays a page of ranked search results, numbered by rank across pages.
      *
-     * @param resultsByKeyword HashMap mapping keywords to their matching tasks.
+     * @param page The page to display.
      */
-    public void showSearchResults(HashMap<String, ArrayList<Task>> resultsByKeyword) {
-        if (resultsByKeyword.isEmpty()) {
+    public void showSearchPage(SearchPage page) {
+        if (page.getTasks().isEmpty()) {
             System.out.println("No matching tasks found!");
             return;
         }
 
-        for (String keyword : resultsByKeyword.keySet()) {
-            ArrayList<Task> tasks = resultsByKeyword.get(keyword);
-            System.out.println("\nTasks matching \"" + keyword + "\":");
-            for (int i = 0; i < tasks.size(); i++) {
-                System.out.println((i + 1) + ". " + tasks.get(i));
-            }
+        List<Task> tasks = page.getTasks();
+        int firstRank = page.getFirstRank();
+        System.out.println("Best matches " + firstRank + "-" + (firstRank + tasks.size() - 1)
+                + " of " + page.getMatchCount() + ":");
+        for (int i = 0; i < tasks.size(); i++) {
+            System.out.println((firstRank + i) + ". " + tasks.get(i));
+        }
+        if (page.hasMore()) {
+            System.out.println("Type \"more\" to see the next " + page.getLimit() + ".");
         }
     }
 
+    /**
+     * Displays the events that take place within a time range.
+     *
+     * @param events The events overlapping the range, ordered by start time.
+     */
+    public void showEventsBetween(ArrayList<Event> events) {
+        if (events.isEmpty()) {
+            System.out.println("Nothing is happening in that period!");
+            return;
+        }
+
+        System.out.println("Here's what's happening in that period:");
+        for (int i = 0; i < events.size(); i++) {
+            System.out.println((i + 1) + ". " + events.get(i));
+        }
+    }
+
+    /**
+     * Displays one task that matches a where query, numbered by its place in the list.
+     *
+     * @param task The matching task.
+     * @param index The task's index (0-based).
+     */
+    public void showQueryMatch(Task task, int index) {
+        System.out.println((index + 1) + ". " + task);
+    }
+
+    /**
+     * Displays how many tasks matched a where query, after the matches themselves.
+     *
+     * @param count The number of matching tasks.
+     */
+    public void showQueryCount(int count) {
+        if (count == 0) {
+            System.out.println("No task meets all of those conditions!");
+        } else {
+            System.out.println(count + (count == 1 ? " task meets" : " tasks meet") + " all of those conditions.");
+        }
+    }
+
+    /**
+     * Displays the deadlines that are due next.
+     *
+     * @param deadlines The pending deadlines, ordered by due time.
+     */
+    public void showUpcomingDeadlines(ArrayList<Deadline> deadlines) {
+        if (deadlines.isEmpty()) {
+            System.out.println("Nothing is due, time to relax!");
+            return;
+        }
+
+        System.out.println("Here's what's due next:");
+        for (int i = 0; i < deadlines.size(); i++) {
+            System.out.println((i + 1) + ". " + deadlines.get(i));
+        }
+    }
+
+    /**
+     * Returns the text of a reminder that a deadline is due or an event is starting.
+     *
+     * @param task The deadline or event.
+     * @return The reminder.
+     */
+    public String getReminder(Task task) {
+        String when = task instanceof Event ? "starting" : "due";
+        return "Reminder! This is " + when + " now:\n  " + task;
+    }
+
+    /**
+     * Displays a reminder on the console.
+     *
+     * @param reminder The text of the reminder.
+     */
+    public void showReminder(String reminder) {
+        System.out.println(reminder);
+    }
+
+    /**
+     * Displays how many tasks of each type are pending, done or overdue.
+     *
+     * @param stats The counts to display.
+     */
+    public void showStats(TaskStats stats) {
+        if (stats.getTotal() == 0) {
+            System.out.println("There currently isn't any added task QAQ");
+            return;
+        }
+
+        System.out.println("Here's how your " + stats.getTotal() + " tasks stand:");
+        System.out.println("Todos: " + stats.getPendingTodos() + " pending, " + stats.getDoneTodos() + " done");
+        System.out.println("Deadlines: " + stats.getPendingDeadlines() + " pending ("
+                + stats.getOverdueDeadlines() + " overdue), " + stats.getDoneDeadlines() + " done");
+        System.out.println("Events: " + stats.getPendingEvents() + " pending, " + stats.getDoneEvents() + " done");
+    }
+
+    /**
+     * Displays how much heap the program uses and how much sharing repeated task names has saved.
+     *
+     * @param taskCount The number of tasks in the list.
+     * @param namesSharedOnLoad The number of names shared while loading the task file.
+     * @param bytesSavedOnLoad The bytes of heap those shared names saved.
+     */
+    public void showMemory(int taskCount, long namesSharedOnLoad, long bytesSavedOnLoad) {
+        Runtime runtime = Runtime.getRuntime();
+        long usedHeap = runtime.totalMemory() - runtime.freeMemory();
+        System.out.println("Heap in use: " + formatBytes(usedHeap) + " of " + formatBytes(runtime.maxMemory())
+                + " for " + taskCount + " tasks");
+        System.out.println("Loading shared " + namesSharedOnLoad + " repeated task names, saving about "
+                + formatBytes(bytesSavedOnLoad));
+        System.out.println("In total " + NameInterner.getSharedCount()
+                + " repeated task names are shared, saving about " + formatBytes(NameInterner.getSavedBytes()));
+    }
+
+    private static String formatBytes(long bytes) {
+        if (bytes < 1024) {
+            return bytes + " B";
+        }
+        if (bytes < 1024 * 1024) {
+            return String.format("%.1f KiB", bytes / 1024.0);
+        }
+        return String.format("%.1f MiB", bytes / (1024.0 * 1024));
+    }
+
+    /**
+     * Displays a message when a change to the list means task numbers no longer follow the sorted order.
+     */
+    public void showSortCleared() {
+        System.out.println("The list has changed, so task numbers follow the list order again."
+                + " Sort again to number them by the new order.");
+    }
+
     /**
      * Displays a message when an operation is successfully undone.
      */
@@ -128,6 +355,13 @@ public class Ui {
         System.out.println("Undone! Restored to previous state.");
     }
 
+    /**
+     * Displays a message when an undone operation is successfully redone.
+     */
+    public void showRedo() {
+        System.out.println("Redone! Applied it again.");
+    }
+
     /**
      * Displays an error mesage.
      *
@@ -2,14 +2,21 @@ package overflow.parser;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 import org.junit.jupiter.api.Test;
 
 import overflow.exception.OverflowException;
+import overflow.task.RecurringEvent;
+import overflow.tasklist.SortKey;
+import overflow.tasklist.TaskList;
+import overflow.tasklist.TaskQuery;
 
 /**
  * Tests for the Parser class.
@@ -26,6 +33,12 @@ public class ParserTest {
         assertEquals("unmark", Parser.parseCommand("unmark 2"));
         assertEquals("delete", Parser.parseCommand("delete 3"));
         assertEquals("find", Parser.parseCommand("find book"));
+        assertEquals("between", Parser.parseCommand("between today /to tomorrow"));
+        assertEquals("upcoming", Parser.parseCommand("upcoming 3"));
+        assertEquals("redo", Parser.parseCommand("redo"));
+        assertEquals("more", Parser.parseCommand("more"));
+        assertEquals("memory", Parser.parseCommand("memory"));
+        assertEquals("stats", Parser.parseCommand("stats"));
     }
 
     @Test
@@ -99,6 +112,75 @@ public class ParserTest {
         });
     }
 
+    @Test
+    public void parseEvent_repeating_returnsPeriod() throws OverflowException {
+        Object[] result = Parser.parseEvent("event standup /from 2024-12-20 0900 /to 2024-12-20 0915 /every week");
+        assertEquals("standup", result[0]);
+        assertEquals(LocalDateTime.of(2024, 12, 20, 9, 15), result[2]);
+        assertEquals(RecurringEvent.Period.WEEK, result[3]);
+        assertNull(Parser.parseEvent("event meeting /from 2024-12-20 1400 /to 2024-12-20 1600")[3]);
+    }
+
+    @Test
+    public void parseEvent_invalidRepeat_throwsException() {
+        assertThrows(OverflowException.class, () -> {
+            Parser.parseEvent("event standup /from 2024-12-20 0900 /to 2024-12-20 0915 /every month");
+        });
+        assertThrows(OverflowException.class, () -> {
+            Parser.parseEvent("event standup /from 2024-12-20 0900 /to 2024-12-19 0915 /every day");
+        });
+    }
+
+    @Test
+    public void parseOccurrence_validInput_returnsNumberAndDay() throws OverflowException {
+        assertTrue(Parser.isOccurrenceSelection("mark 2 /on 2024-12-27"));
+        assertFalse(Parser.isOccurrenceSelection("mark 2"));
+        Object[] result = Parser.parseOccurrence("mark 2 /on 2024-12-27", 4, 3);
+        assertEquals(2, result[0]);
+        assertEquals(LocalDate.of(2024, 12, 27), result[1]);
+        assertThrows(OverflowException.class, () -> Parser.parseOccurrence("mark 1-2 /on 2024-12-27", 4, 3));
+        assertThrows(OverflowException.class, () -> Parser.parseOccurrence("unmark 2 /on", 6, 3));
+    }
+
+    @Test
+    public void parseQuery_validInput_returnsConditions() throws OverflowException {
+        assertEquals("where", Parser.parseCommand("where done=0"));
+        TaskQuery query = Parser.parseQuery("where type=D done=0 by<2026-12-01 1800 name~Report from>=2026-01-01");
+
+        assertEquals(5, query.getConditions().size());
+        TaskQuery.Condition type = query.getConditions().get(0);
+        assertEquals(TaskQuery.Field.TYPE, type.getField());
+        assertEquals('D', type.getValue());
+        assertEquals(false, query.getConditions().get(1).getValue());
+        TaskQuery.Condition by = query.getConditions().get(2);
+        assertEquals(TaskQuery.Operator.LESS, by.getOperator());
+        assertEquals(LocalDateTime.of(2026, 12, 1, 18, 0), by.getValue());
+        assertEquals("report", query.getConditions().get(3).getValue());
+        assertEquals(TaskQuery.Operator.AT_LEAST, query.getConditions().get(4).getOperator());
+    }
+
+    @Test
+    public void parseQuery_invalidConditions_throwsException() {
+        assertThrows(OverflowException.class, () -> Parser.parseQuery("where"));
+        assertThrows(OverflowException.class, () -> Parser.parseQuery("where priority=1"));
+        assertThrows(OverflowException.class, () -> Parser.parseQuery("where type=X"));
+        assertThrows(OverflowException.class, () -> Parser.parseQuery("where done<1"));
+        assertThrows(OverflowException.class, () -> Parser.parseQuery("where name=report"));
+        assertThrows(OverflowException.class, () -> Parser.parseQuery("where by~2026-12-01"));
+        assertThrows(OverflowException.class, () -> Parser.parseQuery("where by<someday"));
+        assertThrows(OverflowException.class, () -> Parser.parseQuery("where done=0 1800"));
+    }
+
+    @Test
+    public void parseSort_validAndInvalidKeys() throws OverflowException {
+        assertEquals("sort", Parser.parseCommand("sort by name"));
+        assertEquals(SortKey.DEADLINE, Parser.parseSort("sort by deadline"));
+        assertEquals(SortKey.STATUS, Parser.parseSort("sort  BY  Status"));
+        assertThrows(OverflowException.class, () -> Parser.parseSort("sort"));
+        assertThrows(OverflowException.class, () -> Parser.parseSort("sort by priority"));
+        assertThrows(OverflowException.class, () -> Parser.parseSort("sort name"));
+    }
+
     @Test
     public void parseIndex_validInput_returnsIndex() throws OverflowException {
         assertEquals(1, Parser.parseIndex("mark 1", 4));
@@ -173,5 +255,85 @@ public class ParserTest {
             Parser.parseDateTime("invalid");
         });
     }
-}
 
+    @Test
+    public void parseBetween_validInput_returnsRange() throws OverflowException {
+        LocalDateTime[] range = Parser.parseBetween("between 2024-12-20 1400 /to 2024-12-21 1600");
+        assertEquals(LocalDateTime.of(2024, 12, 20, 14, 0), range[0]);
+        assertEquals(LocalDateTime.of(2024, 12, 21, 16, 0), range[1]);
+    }
+
+    @Test
+    public void parseBetween_invalidRange_throwsException() {
+        assertThrows(OverflowException.class, () -> Parser.parseBetween("between 2024-12-20 1400"));
+        assertThrows(OverflowException.class, () -> Parser.parseBetween("between 2024-12-21 1400 /to 2024-12-20 1400"));
+    }
+
+    @Test
+    public void parseUpcoming_optionalCount_returnsCount() throws OverflowException {
+        assertEquals(3, Parser.parseUpcoming("upcoming 3"));
+        assertEquals(5, Parser.parseUpcoming("upcoming"));
+        assertThrows(OverflowException.class, () -> Parser.parseUpcoming("upcoming 0"));
+        assertThrows(OverflowException.class, () -> Parser.parseUpcoming("upcoming soon"));
+    }
+
+    @Test
+    public void parseIndices_rangesAndLists_returnsSortedNumbers() throws OverflowException {
+        assertArrayEquals(new int[]{4}, Parser.parseIndices("mark 4", 4, 10));
+        assertArrayEquals(new int[]{2, 3, 4, 5}, Parser.parseIndices("mark 2-5", 4, 10));
+        assertArrayEquals(new int[]{3, 7, 9}, Parser.parseIndices("delete 9,3,7", 6, 10));
+        assertArrayEquals(new int[]{1, 2, 3, 8}, Parser.parseIndices("unmark 1 - 3, 8, 2", 6, 10));
+    }
+
+    @Test
+    public void parseIndices_invalidSelection_throwsException() {
+        assertThrows(OverflowException.class, () -> Parser.parseIndices("mark ", 4, 10));
+        assertThrows(OverflowException.class, () -> Parser.parseIndices("mark 5-2", 4, 10));
+        assertThrows(OverflowException.class, () -> Parser.parseIndices("mark 1-11", 4, 10));
+        assertThrows(OverflowException.class, () -> Parser.parseIndices("mark 0", 4, 10));
+        assertThrows(OverflowException.class, () -> Parser.parseIndices("mark 1,,2", 4, 10));
+        assertThrows(OverflowException.class, () -> Parser.parseIndices("mark 1-2-3", 4, 10));
+    }
+
+    @Test
+    public void isDoneSelection_done_returnsTrue() {
+        assertTrue(Parser.isDoneSelection("delete done", 6));
+        assertTrue(Parser.isDoneSelection("delete DONE ", 6));
+        assertFalse(Parser.isDoneSelection("delete 3", 6));
+    }
+
+    @Test
+    public void parseFind_withAndWithoutLimit_returnsKeywordsAndLimit() throws OverflowException {
+        Object[] parts = Parser.parseFind("find buy groceries /limit 5");
+        assertArrayEquals(new String[]{"buy", "groceries"}, (String[]) parts[0]);
+        assertEquals(5, parts[1]);
+
+        assertEquals(20, Parser.parseFind("find book")[1]);
+    }
+
+    @Test
+    public void parseFind_invalidLimit_throwsException() throws OverflowException {
+        assertThrows(OverflowException.class, () -> Parser.parseFind("find book /limit 0"));
+        assertThrows(OverflowException.class, () -> Parser.parseFind("find book /limit many"));
+        assertThrows(OverflowException.class, () -> Parser.parseFind("find /limit 5"));
+        assertThrows(OverflowException.class, () -> Parser.parseFind("find book /limit 2147483647"));
+        assertThrows(OverflowException.class, () -> Parser.parseFind("find book /limit 500000000"));
+        assertThrows(OverflowException.class, () -> Parser.parseFuzzyFind("find~ bok /limit 1001"));
+        assertEquals(1000, Parser.parseFind("find book /limit 1000")[1]);
+    }
+
+    @Test
+    public void parseFuzzyFind_validInput_returnsKeywordsAndLimit() throws OverflowException {
+        assertEquals("find~", Parser.parseCommand("find~ grocey"));
+        Object[] parts = Parser.parseFuzzyFind("find~ grocey meetnig /limit 3");
+        assertArrayEquals(new String[]{"grocey", "meetnig"}, (String[]) parts[0]);
+        assertEquals(3, parts[1]);
+    }
+
+    @Test
+    public void parseFind_tooManyKeywords_throwsException() throws OverflowException {
+        String keywords = " w".repeat(TaskList.MAX_SEARCH_KEYWORDS);
+        assertEquals(TaskList.MAX_SEARCH_KEYWORDS, ((String[]) Parser.parseFind("find" + keywords)[0]).length);
+        assertThrows(OverflowException.class, () -> Parser.parseFind("find" + keywords + " w"));
+    }
+}
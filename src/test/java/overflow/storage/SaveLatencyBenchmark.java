@@ -0,0 +1,67 @@
+package overflow.storage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import overflow.task.Deadline;
+import overflow.task.Task;
+import overflow.task.Todo;
+import overflow.tasklist.Change;
+
+/**
+ * Reports how long a save takes at each durability level.
+ * Run with {@code ./gradlew benchmark -Pbenchmark=overflow.storage.SaveLatencyBenchmark}.
+ */
+public class SaveLatencyBenchmark {
+    private static final int TASK_COUNT = 10_000;
+    private static final int SNAPSHOT_SAVES = 50;
+    private static final int JOURNAL_APPENDS = 1_000;
+
+    public static void main(String[] args) throws IOException {
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < TASK_COUNT; i++) {
+            tasks.add(i % 2 == 0
+                    ? new Todo("buy grocery " + i)
+                    : new Deadline("submit report " + i, LocalDateTime.of(2026, 3, 15, 23, 59)));
+        }
+
+        Path directory = Files.createTempDirectory("overflow-benchmark");
+        System.out.println("Save latency with " + TASK_COUNT + " tasks (microseconds)");
+        System.out.printf("%-8s %-16s %10s %10s %10s%n", "level", "operation", "mean", "p50", "p99");
+
+        for (Durability durability : Durability.values()) {
+            Storage snapshotStorage = new Storage(directory.resolve(durability + ".txt").toString());
+            snapshotStorage.setDurability(durability);
+            long[] snapshotTimes = new long[SNAPSHOT_SAVES];
+            for (int i = 0; i < SNAPSHOT_SAVES; i++) {
+                long start = System.nanoTime();
+                snapshotStorage.saveChange(tasks);
+                snapshotTimes[i] = System.nanoTime() - start;
+            }
+            report(durability, "full rewrite", snapshotTimes);
+
+            Storage journalStorage = new Storage(directory.resolve(durability + "-journal.txt").toString(), true);
+            journalStorage.setDurability(durability);
+            journalStorage.saveChange(tasks);
+            long[] appendTimes = new long[JOURNAL_APPENDS];
+            for (int i = 0; i < JOURNAL_APPENDS; i++) {
+                long start = System.nanoTime();
+                journalStorage.saveChange(tasks, Change.mark(i % TASK_COUNT));
+                appendTimes[i] = System.nanoTime() - start;
+            }
+            journalStorage.close();
+            report(durability, "journal append", appendTimes);
+        }
+    }
+
+    private static void report(Durability durability, String operation, long[] times) {
+        Arrays.sort(times);
+        double mean = Arrays.stream(times).average().orElse(0) / 1000;
+        System.out.printf("%-8s %-16s %10.1f %10.1f %10.1f%n", durability, operation, mean,
+                times[times.length / 2] / 1000.0, times[times.length * 99 / 100] / 1000.0);
+    }
+}
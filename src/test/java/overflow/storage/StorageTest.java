@@ -0,0 +1,392 @@
+package overflow.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import overflow.exception.OverflowException;
+import overflow.task.Deadline;
+import overflow.task.Event;
+import overflow.task.RecurringEvent;
+import overflow.task.Task;
+import overflow.task.Todo;
+import overflow.tasklist.Change;
+import overflow.tasklist.TaskList;
+
+/**
+ * Tests for the Storage class.
+ */
+public class StorageTest {
+    @TempDir
+    Path tempDir;
+
+    private String filePath() {
+        return tempDir.resolve("tasks.txt").toString();
+    }
+
+    @Test
+    public void saveChange_fullList_loadsSameTasks() throws IOException {
+        Storage storage = new Storage(filePath());
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("read book"));
+        tasks.add(new Deadline("return book", LocalDateTime.of(2024, 12, 25, 18, 0)));
+        tasks.get(1).mark();
+
+        storage.saveChange(tasks);
+        ArrayList<Task> loaded = new Storage(filePath()).loadTasks();
+
+        assertEquals(2, loaded.size());
+        assertEquals("T | 0 | read book", loaded.get(0).toFileFormat());
+        assertEquals("D | 1 | return book | 2024-12-25 1800", loaded.get(1).toFileFormat());
+    }
+
+    @Test
+    public void saveChange_journaled_replaysChangesOnLoad() throws IOException, OverflowException {
+        Storage storage = new Storage(filePath(), true);
+        TaskList tasks = new TaskList(storage.loadTasks());
+
+        tasks.add(new Todo("task 1"));
+        storage.saveChange(tasks.getTasks(), tasks.getLastChange());
+        tasks.add(new Todo("task 2"));
+        storage.saveChange(tasks.getTasks(), tasks.getLastChange());
+        tasks.mark(1);
+        storage.saveChange(tasks.getTasks(), tasks.getLastChange());
+        tasks.delete(0);
+        storage.saveChange(tasks.getTasks(), tasks.getLastChange());
+        tasks.undo();
+        storage.saveChange(tasks.getTasks(), tasks.getLastChange());
+        storage.close();
+
+        assertFalse(Files.exists(tempDir.resolve("tasks.txt")));
+        ArrayList<Task> loaded = new Storage(filePath(), true).loadTasks();
+
+        assertEquals(2, loaded.size());
+        assertEquals("T | 0 | task 1", loaded.get(0).toFileFormat());
+        assertEquals("T | 1 | task 2", loaded.get(1).toFileFormat());
+    }
+
+    @Test
+    public void saveChange_journaledOccurrence_replaysOnLoad() throws IOException, OverflowException {
+        Storage storage = new Storage(filePath(), true);
+        TaskList tasks = new TaskList(storage.loadTasks());
+        LocalDateTime start = LocalDateTime.of(2026, 3, 2, 9, 0);
+
+        tasks.add(new RecurringEvent("standup", start, start.plusMinutes(15), RecurringEvent.Period.WEEK));
+        storage.saveChange(tasks.getTasks(), tasks.getLastChange());
+        tasks.markOccurrence(0, LocalDate.of(2026, 3, 16));
+        storage.saveChange(tasks.getTasks(), tasks.getLastChange());
+        tasks.markOccurrence(0, LocalDate.of(2026, 3, 23));
+        storage.saveChange(tasks.getTasks(), tasks.getLastChange());
+        tasks.undo();
+        storage.saveChange(tasks.getTasks(), tasks.getLastChange());
+        storage.close();
+
+        ArrayList<Task> loaded = new Storage(filePath(), true).loadTasks();
+
+        assertEquals(1, loaded.size());
+        assertEquals("R | 0 | standup | 2026-03-02 0900 | 2026-03-02 0915 | week | 2=1", loaded.get(0).toFileFormat());
+    }
+
+    @Test
+    public void saveChange_longJournal_compactsIntoTaskFile() throws IOException {
+        Storage storage = new Storage(filePath(), true);
+        TaskList tasks = new TaskList(storage.loadTasks());
+
+        for (int i = 0; i < 1500; i++) {
+            tasks.add(new Todo("task " + i));
+            storage.saveChange(tasks.getTasks(), tasks.getLastChange());
+        }
+        storage.close();
+
+        assertTrue(Files.exists(tempDir.resolve("tasks.txt")));
+        assertTrue(Files.readAllLines(tempDir.resolve("tasks.txt.journal")).size() < 1000);
+        ArrayList<Task> loaded = new Storage(filePath(), true).loadTasks();
+        assertEquals(1500, loaded.size());
+        assertEquals("T | 0 | task 1499", loaded.get(1499).toFileFormat());
+    }
+
+    @Test
+    public void saveChanges_immutableChangeList_replaysOnLoad() throws IOException, OverflowException {
+        Storage storage = new Storage(filePath(), true);
+        TaskList tasks = new TaskList(storage.loadTasks());
+
+        tasks.add(new Todo("task 1"));
+        storage.saveChanges(tasks.getTasks(), List.of(tasks.getLastChange()));
+        tasks.add(new Todo("task 2"));
+        Change add = tasks.getLastChange();
+        tasks.mark(1);
+        storage.saveChanges(tasks.getTasks(), List.of(add, tasks.getLastChange()));
+        storage.close();
+
+        ArrayList<Task> loaded = new Storage(filePath(), true).loadTasks();
+
+        assertEquals(2, loaded.size());
+        assertEquals("T | 1 | task 2", loaded.get(1).toFileFormat());
+    }
+
+    @Test
+    public void load_sameFile_parallelMatchesSequential() throws IOException {
+        String content = "T | 1 | read book\n"
+                + "\n"
+                + "D | 0 | return book | 2024-12-25 1800\r\n"
+                + "   \n"
+                + "corrupted\n"
+                + "D | 0 | broken | 2024-13-45 9999\n"
+                + "E | 0 | meeting | 2024-12-20 1400\n"
+                + "E | 1 | meeting | 2024-12-20 1400 | 2024-12-20 1600\n"
+                + "T | 0 | caf\u00e9 | \n"
+                + "X | 0 | unknown\n"
+                + "T | 0 | last\n"
+                + "\n"
+                + " \n";
+        Files.write(tempDir.resolve("tasks.txt"), content.getBytes(Charset.defaultCharset()));
+        File file = tempDir.resolve("tasks.txt").toFile();
+
+        String sequential = describeLoad(() -> new Storage(filePath()).loadTasks());
+        String parallel = describeLoad(() -> new ParallelTaskLoader(ForkJoinPool.commonPool()).load(file));
+
+        assertTrue(sequential.contains("Skipping corrupted line 2: "));
+        assertEquals(sequential, parallel);
+    }
+
+    @Test
+    public void loadTasks_blankLine_warnsAlikeForSmallAndLargeFiles() throws IOException {
+        ArrayList<String> lines = new ArrayList<>(List.of("T | 0 | first", "", "T | 0 | second"));
+        Files.write(tempDir.resolve("tasks.txt"), lines);
+        String small = describeLoad(() -> new Storage(filePath()).loadTasks());
+        for (int i = 0; i < 60000; i++) {
+            lines.add("T | 0 | task " + i);
+        }
+        Files.write(tempDir.resolve("tasks.txt"), lines);
+        String large = describeLoad(() -> new Storage(filePath()).loadTasks());
+
+        String warning = "Warning: Skipping corrupted line 2: " + System.lineSeparator();
+        assertTrue(small.endsWith(warning));
+        assertTrue(large.endsWith(warning));
+    }
+
+    /**
+     * Runs a load and returns the loaded tasks in file format, followed by the warnings it printed.
+     */
+    private String describeLoad(Loader loader) throws IOException {
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        PrintStream oldErr = System.err;
+        System.setErr(new PrintStream(err, true));
+        StringBuilder description = new StringBuilder();
+        try {
+            for (Task task : loader.load()) {
+                description.append(task.toFileFormat()).append(System.lineSeparator());
+            }
+        } finally {
+            System.setErr(oldErr);
+        }
+        return description.append(err).toString();
+    }
+
+    private interface Loader {
+        List<Task> load() throws IOException;
+    }
+
+    @Test
+    public void loadTasks_largeFile_keepsOrderAndSkipsBadLines() throws IOException {
+        ArrayList<String> lines = new ArrayList<>();
+        for (int i = 0; i < 60000; i++) {
+            lines.add(i % 3 == 0 ? "T | 1 | task " + i : "D | 0 | task " + i + " | 2024-12-25 1800");
+        }
+        lines.set(30000, "D | 0 | broken | 2024-13-45 9999");
+        lines.set(30001, "corrupted");
+        Files.write(tempDir.resolve("tasks.txt"), lines);
+        assertTrue(Files.size(tempDir.resolve("tasks.txt")) > ParallelTaskLoader.MIN_CHUNK_SIZE);
+
+        ArrayList<Task> loaded = new Storage(filePath()).loadTasks();
+
+        assertEquals(59998, loaded.size());
+        assertEquals("T | 1 | task 0", loaded.get(0).toFileFormat());
+        assertEquals("T | 1 | task 30003", loaded.get(30001).toFileFormat());
+        assertEquals("D | 0 | task 59999 | 2024-12-25 1800", loaded.get(59997).toFileFormat());
+    }
+
+    @Test
+    public void saveChange_binaryFormat_detectedOnLoad() throws IOException {
+        Storage storage = new Storage(filePath());
+        storage.setFormat(SnapshotFormat.BINARY);
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("read book"));
+        tasks.add(new Deadline("return book", LocalDateTime.of(2024, 12, 25, 18, 0)));
+        tasks.add(new Event("meeting", LocalDateTime.of(2024, 12, 20, 14, 0), LocalDateTime.of(2024, 12, 20, 16, 0)));
+        tasks.get(2).mark();
+        LocalDateTime start = LocalDateTime.of(2026, 3, 2, 9, 0);
+        tasks.add(new RecurringEvent("standup", start, start.plusMinutes(15), RecurringEvent.Period.DAY)
+                .withOccurrenceDone(4, true).withOccurrenceDone(40, true));
+
+        storage.saveChange(tasks);
+        Storage reloaded = new Storage(filePath());
+        ArrayList<Task> loaded = reloaded.loadTasks();
+
+        assertEquals(SnapshotFormat.BINARY, reloaded.getFormat());
+        assertEquals(4, loaded.size());
+        assertEquals("R | 0 | standup | 2026-03-02 0900 | 2026-03-02 0915 | day | 4=1,40=1",
+                loaded.get(3).toFileFormat());
+        assertEquals("T | 0 | read book", loaded.get(0).toFileFormat());
+        assertEquals("D | 0 | return book | 2024-12-25 1800", loaded.get(1).toFileFormat());
+        assertEquals("E | 1 | meeting | 2024-12-20 1400 | 2024-12-20 1600", loaded.get(2).toFileFormat());
+    }
+
+    @Test
+    public void loadTasks_binaryWithHugeCount_readsTasksPresent() throws IOException {
+        Storage storage = new Storage(filePath());
+        storage.setFormat(SnapshotFormat.BINARY);
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("read book"));
+        storage.saveChange(tasks);
+
+        // Claim far more tasks than the file holds, right after the magic bytes and version
+        byte[] bytes = Files.readAllBytes(tempDir.resolve("tasks.txt"));
+        ByteBuffer.wrap(bytes).putInt(5, Integer.MAX_VALUE);
+        Files.write(tempDir.resolve("tasks.txt"), bytes);
+        ArrayList<Task> loaded = new Storage(filePath()).loadTasks();
+
+        assertEquals(1, loaded.size());
+        assertEquals("T | 0 | read book", loaded.get(0).toFileFormat());
+    }
+
+    @Test
+    public void exportTasks_binaryToText_writesTextFormat() throws IOException {
+        Storage storage = new Storage(filePath());
+        storage.setFormat(SnapshotFormat.BINARY);
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("read book"));
+        storage.saveChange(tasks);
+
+        String exportPath = tempDir.resolve("export.txt").toString();
+        storage.exportTasks(storage.loadTasks(), exportPath, SnapshotFormat.TEXT);
+
+        assertEquals("T | 0 | read book", Files.readAllLines(tempDir.resolve("export.txt")).get(0));
+        assertEquals(SnapshotFormat.TEXT, new Storage(exportPath).getFormat());
+    }
+
+    @Test
+    public void saveChange_fsync_replacesFileAtomically() throws IOException {
+        Storage storage = new Storage(filePath());
+        storage.setDurability(Durability.FSYNC);
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("read book"));
+        storage.saveChange(tasks);
+        tasks.add(new Todo("return book"));
+        storage.saveChange(tasks);
+
+        assertFalse(Files.exists(tempDir.resolve("tasks.txt.tmp")));
+        assertEquals(2, Files.readAllLines(tempDir.resolve("tasks.txt")).size());
+    }
+
+    @Test
+    public void saveChange_durabilityNone_rewritesFileInPlace() throws IOException {
+        Path file = tempDir.resolve("tasks.txt");
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("read book"));
+        Storage storage = new Storage(filePath());
+        storage.saveChange(tasks);
+
+        // The file system identity of the file shows whether it was replaced, where the platform reports one
+        storage.setDurability(Durability.NONE);
+        Object original = Files.readAttributes(file, BasicFileAttributes.class).fileKey();
+        storage.saveChange(tasks);
+        assertEquals(original, Files.readAttributes(file, BasicFileAttributes.class).fileKey());
+
+        storage.setDurability(Durability.FLUSH);
+        storage.saveChange(tasks);
+        if (original != null) {
+            assertNotEquals(original, Files.readAttributes(file, BasicFileAttributes.class).fileKey());
+        }
+        assertEquals(1, new Storage(filePath()).loadTasks().size());
+    }
+
+    @Test
+    public void saveChange_journalDurabilityNone_leavesRecordBuffered() throws IOException, OverflowException {
+        for (Durability durability : new Durability[] {Durability.NONE, Durability.FLUSH}) {
+            String path = tempDir.resolve(durability + ".txt").toString();
+            Storage storage = new Storage(path, true);
+            storage.setDurability(durability);
+            TaskList tasks = new TaskList(storage.loadTasks());
+            tasks.add(new Todo("read book"));
+            storage.saveChange(tasks.getTasks(), tasks.getLastChange());
+
+            Path journal = Paths.get(path + ".journal");
+            long written = Files.exists(journal) ? Files.size(journal) : 0;
+            assertEquals(durability == Durability.NONE, written == 0);
+            storage.close();
+            assertEquals(1, new Storage(path, true).loadTasks().size());
+        }
+    }
+
+    @Test
+    public void saveChange_taskIds_surviveReload() throws IOException, OverflowException {
+        for (SnapshotFormat snapshotFormat : SnapshotFormat.values()) {
+            Storage storage = new Storage(filePath(), true);
+            storage.setFormat(snapshotFormat);
+            TaskList tasks = new TaskList(storage.loadTasks());
+            tasks.add(new Todo("task 1"));
+            tasks.add(new Todo("task 2"));
+            tasks.add(new Todo("task 3"));
+            tasks.delete(1);
+            storage.saveChange(tasks.getTasks());
+            tasks.add(new Todo("task 4"));
+            storage.saveChange(tasks.getTasks(), tasks.getLastChange());
+            storage.close();
+
+            ArrayList<Task> loaded = new Storage(filePath(), true).loadTasks();
+            assertEquals(tasks.getTasks().size(), loaded.size());
+            for (int i = 0; i < loaded.size(); i++) {
+                assertEquals(tasks.getTasks().get(i).getId(), loaded.get(i).getId());
+            }
+            Files.delete(tempDir.resolve("tasks.txt"));
+            Files.deleteIfExists(tempDir.resolve("tasks.txt.journal"));
+        }
+    }
+
+    @Test
+    public void loadTasks_linesWithoutIds_stillLoad() throws IOException {
+        Files.write(tempDir.resolve("tasks.txt"), List.of("T | 0 | old task", "7 | T | 1 | new task"));
+
+        ArrayList<Task> loaded = new Storage(filePath()).loadTasks();
+
+        assertEquals(Task.NO_ID, loaded.get(0).getId());
+        assertEquals(7, loaded.get(1).getId());
+        assertEquals("T | 1 | new task", loaded.get(1).toFileFormat());
+    }
+
+    @Test
+    public void loadTasks_repeatedNames_sharesOneCopy() throws IOException {
+        Files.write(tempDir.resolve("tasks.txt"),
+                List.of("T | 0 | buy grocery", "T | 1 | buy grocery", "D | 0 | buy grocery | 2024-12-25 1800"));
+
+        Storage storage = new Storage(filePath());
+        ArrayList<Task> loaded = storage.loadTasks();
+
+        assertSame(loaded.get(0).getName(), loaded.get(1).getName());
+        assertSame(loaded.get(0).getName(), loaded.get(2).getName());
+        assertTrue(storage.getNamesSharedOnLoad() >= 2);
+        assertTrue(storage.getBytesSavedOnLoad() > 0);
+    }
+}
@@ -0,0 +1,161 @@
+package overflow.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import overflow.exception.OverflowException;
+import overflow.task.Task;
+import overflow.task.Todo;
+import overflow.tasklist.TaskList;
+
+/**
+ * Tests for the WriteBehindSaver class.
+ */
+public class WriteBehindSaverTest {
+    @TempDir
+    Path tempDir;
+
+    private void applyChanges(TaskList tasks, WriteBehindSaver saver) throws IOException, OverflowException {
+        for (int i = 0; i < 200; i++) {
+            synchronized (tasks) {
+                tasks.add(new Todo("task " + i));
+                saver.markDirty(tasks.getLastChange());
+            }
+        }
+        synchronized (tasks) {
+            tasks.mark(0);
+            saver.markDirty(tasks.getLastChange());
+        }
+    }
+
+    @Test
+    public void flush_journaled_persistsEveryChange() throws IOException, OverflowException {
+        String filePath = tempDir.resolve("tasks.txt").toString();
+        Storage storage = new Storage(filePath, true);
+        TaskList tasks = new TaskList(storage.loadTasks());
+        WriteBehindSaver saver = new WriteBehindSaver(storage, tasks, Duration.ofSeconds(10));
+
+        applyChanges(tasks, saver);
+        saver.flush();
+
+        ArrayList<Task> loaded = new Storage(filePath, true).loadTasks();
+        assertEquals(200, loaded.size());
+        assertEquals("T | 1 | task 0", loaded.get(0).toFileFormat());
+        saver.close();
+        storage.close();
+    }
+
+    @Test
+    public void close_concurrentChangesWhileCompacting_reloadsEachChangeOnce() throws Exception {
+        String filePath = tempDir.resolve("tasks.txt").toString();
+        Storage storage = new Storage(filePath, true);
+        TaskList tasks = new TaskList(storage.loadTasks());
+        WriteBehindSaver saver = new WriteBehindSaver(storage, tasks, Duration.ofMillis(1));
+
+        // Enough changes for several compactions, which checkpoint while later changes are still arriving
+        Thread[] threads = new Thread[4];
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        for (int t = 0; t < threads.length; t++) {
+            int thread = t;
+            threads[t] = new Thread(() -> {
+                try {
+                    for (int i = 0; i < 1250; i++) {
+                        synchronized (tasks) {
+                            tasks.add(new Todo("task " + thread + " " + i));
+                            saver.markDirty(tasks.getLastChange());
+                        }
+                    }
+                } catch (IOException e) {
+                    failure.set(e);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        saver.close();
+        storage.close();
+
+        assertNull(failure.get());
+        Storage reloaded = new Storage(filePath, true);
+        assertEquals(5000, reloaded.loadTasks().size());
+        reloaded.close();
+    }
+
+    @Test
+    public void flush_idle_laterChangeStillWaitsForWindow() throws Exception {
+        Path file = tempDir.resolve("tasks.txt");
+        Storage storage = new Storage(file.toString());
+        TaskList tasks = new TaskList(new ArrayList<>());
+        WriteBehindSaver saver = new WriteBehindSaver(storage, tasks, Duration.ofSeconds(10));
+
+        saver.flush();
+        synchronized (tasks) {
+            tasks.add(new Todo("read book"));
+            saver.markDirty(tasks.getLastChange());
+        }
+        Thread.sleep(300);
+        assertFalse(Files.exists(file));
+
+        saver.close();
+        assertEquals(1, new Storage(file.toString()).loadTasks().size());
+    }
+
+    @Test
+    public void flush_failedWrite_reportsUntilRetrySucceeds() throws Exception {
+        // A regular file where the data folder should be makes every write fail until it is removed
+        Path blocker = tempDir.resolve("data");
+        Files.createFile(blocker);
+        Path file = blocker.resolve("tasks.txt");
+        Storage storage = new Storage(file.toString());
+        TaskList tasks = new TaskList(new ArrayList<>());
+        WriteBehindSaver saver = new WriteBehindSaver(storage, tasks, Duration.ZERO);
+
+        synchronized (tasks) {
+            tasks.add(new Todo("read book"));
+            saver.markDirty(tasks.getLastChange());
+        }
+        assertThrows(IOException.class, saver::flush);
+        assertThrows(IOException.class, saver::flush);
+
+        // The writer retries on its own once the disk is usable again
+        Files.delete(blocker);
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!Files.exists(file) && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(Files.exists(file));
+
+        saver.close();
+        assertEquals(1, new Storage(file.toString()).loadTasks().size());
+    }
+
+    @Test
+    public void close_fullRewrite_persistsLatestState() throws IOException, OverflowException {
+        String filePath = tempDir.resolve("tasks.txt").toString();
+        Storage storage = new Storage(filePath);
+        TaskList tasks = new TaskList(storage.loadTasks());
+        WriteBehindSaver saver = new WriteBehindSaver(storage, tasks, Duration.ZERO);
+
+        applyChanges(tasks, saver);
+        saver.close();
+
+        ArrayList<Task> loaded = new Storage(filePath).loadTasks();
+        assertEquals(200, loaded.size());
+        assertEquals("T | 0 | task 199", loaded.get(199).toFileFormat());
+    }
+}
@@ -0,0 +1,58 @@
+package overflow.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the NameInterner class.
+ */
+public class NameInternerTest {
+
+    @Test
+    public void intern_equalNames_returnsFirstCopy() {
+        String first = new String("buy grocery");
+        String second = new String("buy grocery");
+
+        assertSame(first, NameInterner.intern(first));
+        assertSame(first, NameInterner.intern(second));
+    }
+
+    @Test
+    public void intern_repeatedName_countsSavedBytes() {
+        NameInterner.intern(new String("water the plants"));
+        long sharedBefore = NameInterner.getSharedCount();
+        long savedBefore = NameInterner.getSavedBytes();
+
+        NameInterner.intern(new String("water the plants"));
+
+        assertEquals(sharedBefore + 1, NameInterner.getSharedCount());
+        assertEquals(savedBefore + NameInterner.estimateSize("water the plants"), NameInterner.getSavedBytes());
+    }
+
+    @Test
+    public void intern_sameInstance_savesNothing() {
+        String name = new String("call mum");
+        NameInterner.intern(name);
+        long savedBefore = NameInterner.getSavedBytes();
+
+        NameInterner.intern(name);
+
+        assertEquals(savedBefore, NameInterner.getSavedBytes());
+    }
+
+    @Test
+    public void estimateSize_nonLatinName_takesTwoBytesPerCharacter() {
+        assertEquals(24 + 24, NameInterner.estimateSize("abcdefgh"));
+        assertEquals(24 + 32, NameInterner.estimateSize("\u4e70\u83dc\u4e70\u83dc\u4e70\u83dc\u4e70\u83dc"));
+    }
+
+    @Test
+    public void newTodo_repeatedName_sharesName() {
+        Todo first = new Todo(new String("pay rent"));
+        Todo second = new Todo(new String("pay rent"));
+
+        assertSame(first.getName(), second.getName());
+    }
+}
@@ -0,0 +1,90 @@
+package overflow.task;
+
+import java.lang.management.ManagementFactory;
+import java.nio.CharBuffer;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+
+/**
+ * Reports the bytes allocated per task when serializing tasks for a save, comparing the old
+ * string-building approach with writing into a reused buffer.
+ * Run with {@code ./gradlew benchmark -Pbenchmark=overflow.task.SerializerBenchmark}.
+ */
+public class SerializerBenchmark {
+    private static final int TASK_COUNT = 100_000;
+    private static final int ROUNDS = 20;
+
+    public static void main(String[] args) {
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < TASK_COUNT; i++) {
+            LocalDateTime time = LocalDateTime.of(2026, 3, 15, 23, 59).plusMinutes(i);
+            tasks.add(i % 2 == 0 ? new Deadline("submit report " + i, time) : new Event("meet " + i, time, time));
+        }
+        CharBuffer buffer = CharBuffer.allocate(1 << 16);
+
+        System.out.println("Serializing " + TASK_COUNT + " tasks");
+        System.out.printf("%-20s %14s %14s%n", "approach", "bytes/task", "ns/task");
+        for (int round = 0; round < ROUNDS; round++) {
+            boolean isLast = round == ROUNDS - 1;
+            measure("string per call", isLast, () -> {
+                long total = 0;
+                for (Task task : tasks) {
+                    total += legacyFileFormat(task).length();
+                }
+                return total;
+            });
+            measure("toFileFormat", isLast, () -> {
+                long total = 0;
+                for (Task task : tasks) {
+                    total += task.toFileFormat().length();
+                }
+                return total;
+            });
+            measure("writeFileFormat", isLast, () -> {
+                long total = 0;
+                for (Task task : tasks) {
+                    buffer.clear();
+                    task.writeFileFormat(buffer);
+                    total += buffer.position();
+                }
+                return total;
+            });
+        }
+    }
+
+    /**
+     * The serializer as it was before, with a formatter built and a display string made per task.
+     */
+    private static String legacyFileFormat(Task task) {
+        String status = task.toString().contains("X") ? "1" : "0";
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm");
+        if (task instanceof Deadline) {
+            return "D | " + status + " | " + task.getName() + " | " + ((Deadline) task).getDeadline().format(formatter);
+        }
+        Event event = (Event) task;
+        return "E | " + status + " | " + task.getName() + " | "
+                + event.getStartTime().format(formatter) + " | " + event.getEndTime().format(formatter);
+    }
+
+    private static void measure(String approach, boolean isReported, Round round) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        long checksum = round.run();
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        if (isReported) {
+            System.out.printf("%-20s %14.1f %14.1f   (checksum %d)%n", approach,
+                    (double) allocated / TASK_COUNT, (double) elapsed / TASK_COUNT, checksum);
+        }
+    }
+
+    private interface Round {
+        long run();
+    }
+}
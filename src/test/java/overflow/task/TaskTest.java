@@ -4,7 +4,13 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.nio.CharBuffer;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 
 import org.junit.jupiter.api.Test;
 
@@ -132,5 +138,91 @@ public class TaskTest {
         assertEquals(start, event.getStartTime());
         assertEquals(end, event.getEndTime());
     }
-}
 
+    @Test
+    public void writeFileFormat_reusedBuffer_matchesToFileFormat() {
+        Task todo = new Todo("read book");
+        Task deadline = new Deadline("return book", LocalDateTime.of(2024, 1, 5, 9, 7));
+        Task event = new Event("meeting", LocalDateTime.of(2024, 12, 20, 14, 0), LocalDateTime.of(2024, 12, 20, 16, 0));
+        event.mark();
+        CharBuffer buffer = CharBuffer.allocate(256);
+
+        for (Task task : new Task[]{todo, deadline, event}) {
+            buffer.clear();
+            task.writeFileFormat(buffer);
+            assertEquals(task.getFileFormatLength(), buffer.position());
+            buffer.flip();
+            assertEquals(task.toFileFormat(), buffer.toString());
+        }
+        assertEquals("D | 0 | return book | 2024-01-05 0907", deadline.toFileFormat());
+        assertEquals("E | 1 | meeting | 2024-12-20 1400 | 2024-12-20 1600", event.toFileFormat());
+    }
+
+    @Test
+    public void deadline_datesAcrossCenturies_matchFormatter() {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm");
+        LocalDateTime[] dates = {
+            LocalDateTime.of(1, 1, 1, 0, 0),
+            LocalDateTime.of(1600, 2, 29, 23, 59),
+            LocalDateTime.of(1900, 2, 28, 12, 30),
+            LocalDateTime.of(1969, 12, 31, 23, 59),
+            LocalDateTime.of(1970, 1, 1, 0, 0),
+            LocalDateTime.of(2000, 2, 29, 6, 5),
+            LocalDateTime.of(2024, 12, 31, 23, 59),
+            LocalDateTime.of(9999, 12, 31, 23, 59),
+        };
+        for (LocalDateTime date : dates) {
+            Deadline deadline = new Deadline("x", date);
+            assertEquals(date, deadline.getDeadline());
+            assertEquals("D | 0 | x | " + date.format(formatter), deadline.toFileFormat());
+        }
+
+        LocalDateTime date = LocalDateTime.of(1896, 1, 1, 0, 0);
+        for (int day = 0; day < 200 * 366; day += 7) {
+            Deadline deadline = new Deadline("x", date.plusDays(day).plusMinutes(day));
+            assertEquals("D | 0 | x | " + deadline.getDeadline().format(formatter), deadline.toFileFormat());
+        }
+    }
+
+    @Test
+    public void recurringEvent_occurrencesBetween_onlyThoseOverlapping() {
+        LocalDateTime start = LocalDateTime.of(2026, 3, 2, 23, 0); // a Monday
+        RecurringEvent event = new RecurringEvent("night shift", start, start.plusHours(2),
+                RecurringEvent.Period.WEEK);
+
+        List<LocalDateTime> starts = new ArrayList<>();
+        Iterator<Occurrence> occurrences = event.occurrencesBetween(LocalDateTime.of(2026, 3, 10, 0, 30),
+                LocalDateTime.of(2026, 3, 23, 23, 0));
+        while (occurrences.hasNext()) {
+            starts.add(occurrences.next().getStartTime());
+        }
+
+        assertEquals(List.of(start.plusWeeks(1), start.plusWeeks(2), start.plusWeeks(3)), starts);
+        assertEquals(3, event.findOccurrenceOn(LocalDate.of(2026, 3, 23)));
+        assertEquals(-1, event.findOccurrenceOn(LocalDate.of(2026, 3, 24)));
+        assertEquals(-1, event.findOccurrenceOn(LocalDate.of(2026, 3, 1)));
+        assertEquals("[E][ ] night shift (from: Mar 02 2026, 11:00PM to: Mar 03 2026, 1:00AM, every week)",
+                event.toString());
+    }
+
+    @Test
+    public void recurringEvent_withOccurrenceDone_leavesSeriesUnchanged() {
+        LocalDateTime start = LocalDateTime.of(2026, 3, 2, 9, 0);
+        RecurringEvent event = new RecurringEvent("standup", start, start.plusMinutes(15),
+                RecurringEvent.Period.DAY);
+
+        RecurringEvent marked = event.withOccurrenceDone(3, true);
+        assertFalse(event.isOccurrenceDone(3));
+        assertTrue(marked.isOccurrenceDone(3));
+        assertTrue(marked.getOccurrence(3).isDone());
+        assertFalse(marked.isOccurrenceDone(4));
+        assertEquals("R | 0 | standup | 2026-03-02 0900 | 2026-03-02 0915 | day | 3=1", marked.toFileFormat());
+        assertEquals(marked.toFileFormat().length(), marked.getFileFormatLength());
+
+        marked.mark();
+        RecurringEvent unmarked = marked.withOccurrenceDone(5, false).withOccurrenceDone(3, true);
+        assertEquals("R | 1 | standup | 2026-03-02 0900 | 2026-03-02 0915 | day | 5=0", unmarked.toFileFormat());
+        assertFalse(unmarked.isOccurrenceDone(5));
+        assertTrue(unmarked.isOccurrenceDone(6));
+    }
+}
@@ -0,0 +1,60 @@
+package overflow.tasklist;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import overflow.tasklist.CommandLog.Entry;
+
+/**
+ * Tests for the CommandLog class.
+ */
+public class CommandLogTest {
+    private static List<Entry> marks(int count) {
+        ArrayList<Entry> entries = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            entries.add(Entry.mark(i, false));
+        }
+        return entries;
+    }
+
+    @Test
+    public void record_beyondEntryCapacity_forgetsWholeOldestActions() {
+        CommandLog log = new CommandLog(100, 10);
+        log.record(marks(4));
+        log.record(marks(4));
+        log.record(marks(4));
+
+        assertEquals(4, log.undo().size());
+        assertEquals(4, log.undo().size());
+        assertNull(log.undo());
+    }
+
+    @Test
+    public void record_actionLargerThanEntryCapacity_keepsOnlyThatAction() {
+        CommandLog log = new CommandLog(100, 10);
+        log.record(marks(1));
+        log.record(marks(25));
+
+        assertEquals(25, log.undo().size());
+        assertNull(log.undo());
+    }
+
+    @Test
+    public void record_afterUndo_releasesRedoEntries() {
+        CommandLog log = new CommandLog(100, 10);
+        log.record(marks(5));
+        log.record(marks(5));
+        log.undo();
+        log.record(marks(5));
+
+        // The undone action is gone, so both remaining actions fit
+        assertEquals(5, log.undo().size());
+        assertEquals(5, log.undo().size());
+        assertNull(log.undo());
+    }
+}
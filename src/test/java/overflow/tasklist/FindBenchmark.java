@@ -0,0 +1,80 @@
+package overflow.tasklist;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import overflow.task.Task;
+import overflow.task.Todo;
+
+/**
+ * Compares indexed find against a full stream scan over lists of growing size, along with a ranked
+ * search that only keeps the best page of results.
+ * Run with {@code ./gradlew benchmark -Pbenchmark=overflow.tasklist.FindBenchmark}.
+ */
+public class FindBenchmark {
+    private static final int[] SIZES = {10_000, 100_000, 1_000_000};
+    private static final String[] WORDS = {"buy", "grocery", "submit", "report", "call", "mum", "read", "book",
+        "return", "library", "team", "meeting", "gym", "clean", "room", "pay", "rent", "project", "review"};
+    private static final String[][] QUERIES = {{"groc"}, {"report", "meeting"}, {"rent 4711"}, {"zebra"}, {"mu"}};
+    private static final int REPEATS = 20;
+    private static final int PAGE_SIZE = 20;
+
+    public static void main(String[] args) {
+        Random random = new Random(42);
+        System.out.printf("%-10s %-20s %14s %14s %14s %10s%n", "tasks", "keywords", "scan (us)", "index (us)",
+                "top " + PAGE_SIZE + " (us)", "matches");
+
+        for (int size : SIZES) {
+            ArrayList<Task> tasks = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                tasks.add(new Todo(WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                        + " " + random.nextInt(10_000)));
+            }
+            TaskList taskList = new TaskList(new ArrayList<>(tasks));
+
+            for (String[] keywords : QUERIES) {
+                long scanTime = time(() -> scan(tasks, keywords).size());
+                long indexTime = time(() -> taskList.find(keywords).size());
+                long searchTime = time(() -> taskList.search(keywords, PAGE_SIZE).getTasks().size());
+                int matches = taskList.find(keywords).values().stream().mapToInt(ArrayList::size).sum();
+                System.out.printf("%-10d %-20s %14.1f %14.1f %14.1f %10d%n", size, String.join(",", keywords),
+                        scanTime / 1000.0, indexTime / 1000.0, searchTime / 1000.0, matches);
+            }
+        }
+    }
+
+    /**
+     * The stream scan that find used before the indexes existed.
+     */
+    private static HashMap<String, ArrayList<Task>> scan(ArrayList<Task> tasks, String[] keywords) {
+        HashMap<String, ArrayList<Task>> resultsByKeyword = new HashMap<>();
+        for (String keyword : keywords) {
+            ArrayList<Task> matchingTasks = tasks.stream()
+                    .filter(task -> task.getName().toLowerCase().contains(keyword.toLowerCase()))
+                    .collect(Collectors.toCollection(ArrayList::new));
+            if (!matchingTasks.isEmpty()) {
+                resultsByKeyword.put(keyword, matchingTasks);
+            }
+        }
+        return resultsByKeyword;
+    }
+
+    private static long time(Query query) {
+        long checksum = 0;
+        for (int i = 0; i < REPEATS; i++) {
+            checksum += query.run(); // warm up
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < REPEATS; i++) {
+            checksum += query.run();
+        }
+        long elapsed = (System.nanoTime() - start) / REPEATS;
+        return checksum < 0 ? -1 : elapsed;
+    }
+
+    private interface Query {
+        int run();
+    }
+}
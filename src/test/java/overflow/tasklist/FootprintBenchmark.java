@@ -0,0 +1,58 @@
+package overflow.tasklist;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+import overflow.task.Deadline;
+import overflow.task.Event;
+import overflow.task.Task;
+import overflow.task.Todo;
+
+/**
+ * Measures how much heap a TaskList holds per task, for a mix of todos, deadlines and events.
+ * Run with {@code ./gradlew benchmark -Pbenchmark=overflow.tasklist.FootprintBenchmark}; a size other than
+ * {@value #DEFAULT_SIZE} tasks can be given as the first argument when running the class directly, and
+ * a number of distinct names to repeat across the tasks as the second.
+ */
+public class FootprintBenchmark {
+    private static final int DEFAULT_SIZE = 1_000_000;
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_SIZE;
+        int distinctNames = args.length > 1 ? Integer.parseInt(args[1]) : size;
+        LocalDateTime base = LocalDateTime.of(2026, 1, 1, 9, 0);
+
+        long before = usedHeap();
+        ArrayList<Task> tasks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String name = "task " + i % distinctNames;
+            switch (i % 3) {
+            case 0:
+                tasks.add(new Todo(name));
+                break;
+            case 1:
+                tasks.add(new Deadline(name, base.plusMinutes(i)));
+                break;
+            default:
+                tasks.add(new Event(name, base.plusMinutes(i), base.plusMinutes(i + 60)));
+                break;
+            }
+        }
+        long afterTasks = usedHeap();
+        TaskList taskList = new TaskList(tasks);
+        tasks = null;
+        long afterList = usedHeap();
+
+        System.out.printf("tasks: %d%n", taskList.size());
+        System.out.printf("task objects:  %6.1f bytes per task%n", (afterTasks - before) / (double) size);
+        System.out.printf("whole list:    %6.1f bytes per task%n", (afterList - before) / (double) size);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
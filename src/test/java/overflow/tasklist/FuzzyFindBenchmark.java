@@ -0,0 +1,102 @@
+package overflow.tasklist;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.Random;
+
+import overflow.task.Task;
+import overflow.task.Todo;
+
+/**
+ * Times fuzzy lookups in the trie of task name tokens against comparing the keyword with every
+ * distinct token, then the whole find~ command, on a list of a million tasks.
+ * Run with {@code ./gradlew benchmark -Pbenchmark=overflow.tasklist.FuzzyFindBenchmark}.
+ */
+public class FuzzyFindBenchmark {
+    private static final int TASK_COUNT = 1_000_000;
+    private static final int VOCABULARY_SIZE = 50_000;
+    private static final int QUERY_COUNT = 200;
+
+    public static void main(String[] args) {
+        Random random = new Random(42);
+        LinkedHashSet<String> vocabulary = new LinkedHashSet<>();
+        while (vocabulary.size() < VOCABULARY_SIZE) {
+            vocabulary.add(randomWord(random));
+        }
+        String[] words = vocabulary.toArray(new String[0]);
+
+        ArrayList<Task> tasks = new ArrayList<>(TASK_COUNT);
+        for (int i = 0; i < TASK_COUNT; i++) {
+            tasks.add(new Todo(words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)]));
+        }
+        TaskList taskList = new TaskList(tasks);
+        TokenTrie trie = new TokenTrie();
+        for (String word : words) {
+            trie.add(word);
+        }
+
+        String[] queries = new String[QUERY_COUNT];
+        for (int i = 0; i < queries.length; i++) {
+            queries[i] = misspell(words[random.nextInt(words.length)], random);
+        }
+
+        System.out.printf("tasks: %d, distinct tokens: %d%n", TASK_COUNT, trie.size());
+        System.out.printf("%-10s %16s %16s %10s%n", "max edits", "trie (us)", "all tokens (us)", "found");
+        for (int maxEdits = 1; maxEdits <= 2; maxEdits++) {
+            long found = 0;
+            long trieTime = 0;
+            long scanTime = 0;
+            for (int round = 0; round < 2; round++) { // the first round warms up
+                found = 0;
+                long start = System.nanoTime();
+                for (String query : queries) {
+                    found += trie.find(query, maxEdits).size();
+                }
+                trieTime = (System.nanoTime() - start) / queries.length;
+
+                start = System.nanoTime();
+                int scanFound = 0;
+                for (String query : queries) {
+                    for (String word : words) {
+                        if (TokenTrie.distance(query, word) <= maxEdits) {
+                            scanFound++;
+                        }
+                    }
+                }
+                scanTime = (System.nanoTime() - start) / queries.length;
+                assert scanFound == found : "The trie should find the same words as the scan";
+            }
+            System.out.printf("%-10d %16.1f %16.1f %10.1f%n", maxEdits, trieTime / 1000.0, scanTime / 1000.0,
+                    (double) found / queries.length);
+        }
+
+        long searchTime = 0;
+        int matches = 0;
+        for (int round = 0; round < 2; round++) { // the first round warms up
+            matches = 0;
+            long start = System.nanoTime();
+            for (String query : queries) {
+                matches += taskList.searchSimilar(new String[]{query}, 20).getMatchCount();
+            }
+            searchTime = (System.nanoTime() - start) / queries.length;
+        }
+        System.out.printf("find~ with a page of 20: %.1f us, %.1f matching tasks%n",
+                searchTime / 1000.0, (double) matches / queries.length);
+    }
+
+    private static String randomWord(Random random) {
+        StringBuilder word = new StringBuilder();
+        int length = 4 + random.nextInt(7);
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('a' + random.nextInt(26)));
+        }
+        return word.toString();
+    }
+
+    private static String misspell(String word, Random random) {
+        StringBuilder misspelt = new StringBuilder(word);
+        int position = random.nextInt(word.length());
+        misspelt.setCharAt(position, (char) ('a' + random.nextInt(26)));
+        return misspelt.toString();
+    }
+}
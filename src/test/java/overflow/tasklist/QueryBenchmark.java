@@ -0,0 +1,87 @@
+package overflow.tasklist;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import overflow.task.Deadline;
+import overflow.task.Event;
+import overflow.task.Task;
+import overflow.task.Todo;
+
+/**
+ * Times where queries answered through the planner against the same queries checked on every task,
+ * to show what picking an index saves and that planning costs little when a scan is chosen anyway.
+ * Run with {@code ./gradlew benchmark -Pbenchmark=overflow.tasklist.QueryBenchmark}.
+ */
+public class QueryBenchmark {
+    private static final int SIZE = 500_000;
+    private static final String[] WORDS = {"buy", "grocery", "submit", "report", "call", "mum", "read", "book",
+        "return", "library", "team", "meeting", "gym", "clean", "room", "pay", "rent", "project", "review"};
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 1, 0, 0);
+    private static final int REPEATS = 20;
+
+    public static void main(String[] args) {
+        Random random = new Random(42);
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < SIZE; i++) {
+            String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                    + " " + random.nextInt(100_000);
+            LocalDateTime time = START.plusMinutes(random.nextInt(365 * 24 * 60));
+            Task task = i % 3 == 0 ? new Todo(name) : i % 3 == 1 ? new Deadline(name, time)
+                    : new Event(name, time, time.plusHours(2));
+            if (random.nextInt(4) == 0) {
+                task.mark();
+            }
+            tasks.add(task);
+        }
+        TaskList taskList = new TaskList(tasks);
+
+        System.out.printf("%-48s %-15s %10s %12s %10s%n", "query", "plan", "matches", "planned (us)", "scan (us)");
+        run(taskList, "name~12345", condition(TaskQuery.Field.NAME, TaskQuery.Operator.CONTAINS, "12345"));
+        run(taskList, "done=0 by<2026-01-03",
+                condition(TaskQuery.Field.DONE, TaskQuery.Operator.EQUAL, false),
+                condition(TaskQuery.Field.BY, TaskQuery.Operator.LESS, START.plusDays(2)));
+        run(taskList, "from>=2026-06-01 to<=2026-06-02",
+                condition(TaskQuery.Field.FROM, TaskQuery.Operator.AT_LEAST, START.plusMonths(5)),
+                condition(TaskQuery.Field.TO, TaskQuery.Operator.AT_MOST, START.plusMonths(5).plusDays(1)));
+        run(taskList, "type=D done=0 by<2026-12-01 name~report",
+                condition(TaskQuery.Field.TYPE, TaskQuery.Operator.EQUAL, 'D'),
+                condition(TaskQuery.Field.DONE, TaskQuery.Operator.EQUAL, false),
+                condition(TaskQuery.Field.BY, TaskQuery.Operator.LESS, START.plusMonths(11)),
+                condition(TaskQuery.Field.NAME, TaskQuery.Operator.CONTAINS, "report"));
+        run(taskList, "done=1 name~gym", condition(TaskQuery.Field.DONE, TaskQuery.Operator.EQUAL, true),
+                condition(TaskQuery.Field.NAME, TaskQuery.Operator.CONTAINS, "gym"));
+    }
+
+    private static TaskQuery.Condition condition(TaskQuery.Field field, TaskQuery.Operator operator, Object value) {
+        return new TaskQuery.Condition(field, operator, value);
+    }
+
+    private static void run(TaskList taskList, String label, TaskQuery.Condition... conditions) {
+        TaskQuery query = new TaskQuery(List.of(conditions));
+        int[] matches = new int[1];
+        long planned = time(() -> matches[0] = taskList.query(query, (task, index) -> { }));
+        long scanned = time(() -> taskList.filter(query::matches).size());
+        System.out.printf("%-48s %-15s %10d %12.1f %10.1f%n", label, taskList.explain(query), matches[0],
+                planned / 1000.0, scanned / 1000.0);
+    }
+
+    private static long time(Query query) {
+        long checksum = 0;
+        for (int i = 0; i < REPEATS; i++) {
+            checksum += query.run(); // warm up
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < REPEATS; i++) {
+            checksum += query.run();
+        }
+        long elapsed = (System.nanoTime() - start) / REPEATS;
+        return checksum < 0 ? -1 : elapsed;
+    }
+
+    private interface Query {
+        int run();
+    }
+}
@@ -0,0 +1,172 @@
+package overflow.tasklist;
+
+import overflow.exception.OverflowException;
+import overflow.task.Deadline;
+import overflow.task.Event;
+import overflow.task.RecurringEvent;
+import overflow.task.Task;
+import overflow.task.Todo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for the ReminderScheduler class.
+ */
+public class ReminderSchedulerTest {
+    private static final LocalDateTime START = LocalDateTime.of(2026, 3, 10, 12, 0);
+
+    private ManualClock clock;
+    private ReminderScheduler reminders;
+    private TaskList taskList;
+
+    @BeforeEach
+    public void setUp() {
+        clock = new ManualClock(START);
+        reminders = new ReminderScheduler(task -> { }, clock);
+        taskList = new TaskList();
+        taskList.setReminderScheduler(reminders);
+    }
+
+    @Test
+    public void collectDue_deadlineAndEvent_dueAtTheirTimes() {
+        taskList.add(new Todo("read book"));
+        taskList.add(new Deadline("essay", START.plusHours(2)));
+        taskList.add(new Event("talk", START.plusMinutes(30), START.plusHours(1)));
+        assertEquals(2, reminders.size());
+
+        clock.set(START.plusMinutes(29));
+        assertEquals(0, reminders.collectDue().size());
+        clock.set(START.plusMinutes(30));
+        assertEquals(List.of("talk"), names(reminders.collectDue()));
+        clock.set(START.plusDays(1));
+        assertEquals(List.of("essay"), names(reminders.collectDue()));
+        assertEquals(0, reminders.size());
+    }
+
+    @Test
+    public void collectDue_markDeleteAndUndo_followsTheList() throws OverflowException {
+        taskList.add(new Deadline("essay", START.plusHours(2)));
+        taskList.add(new Deadline("quiz", START.plusHours(3)));
+
+        taskList.mark(0);
+        taskList.delete(1);
+        assertEquals(0, reminders.size());
+        taskList.undo();
+        taskList.unmark(0);
+        assertEquals(2, reminders.size());
+
+        clock.set(START.plusHours(3));
+        assertEquals(List.of("essay", "quiz"), names(reminders.collectDue()));
+    }
+
+    @Test
+    public void setReminderScheduler_existingTasks_armsOnlyPendingFutureOnes() throws OverflowException {
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Deadline("overdue", START.minusHours(1)));
+        tasks.add(new Deadline("done", START.plusHours(1)));
+        tasks.add(new Deadline("pending", START.plusHours(1)));
+        tasks.get(1).mark();
+        TaskList loaded = new TaskList(tasks);
+        ReminderScheduler scheduler = new ReminderScheduler(task -> { }, clock);
+
+        loaded.setReminderScheduler(scheduler);
+
+        assertEquals(1, scheduler.size());
+    }
+
+    @Test
+    public void start_dueTask_deliversOnDaemonThread() throws InterruptedException {
+        List<Task> delivered = new ArrayList<>();
+        ReminderScheduler scheduler = new ReminderScheduler(task -> {
+            synchronized (delivered) {
+                delivered.add(task);
+                delivered.notifyAll();
+            }
+        }, clock);
+        TaskList list = new TaskList();
+        list.setReminderScheduler(scheduler);
+        list.add(new Deadline("essay", START.plusMinutes(1)));
+
+        clock.set(START.plusMinutes(1));
+        scheduler.start();
+        synchronized (delivered) {
+            long waitUntil = System.currentTimeMillis() + 5000;
+            while (delivered.isEmpty() && System.currentTimeMillis() < waitUntil) {
+                delivered.wait(100);
+            }
+        }
+        scheduler.close();
+
+        assertEquals("essay", delivered.get(0).getName());
+    }
+
+    @Test
+    public void collectDue_recurringEvent_remindsOfEachPendingOccurrence() throws OverflowException {
+        taskList.add(new RecurringEvent("standup", START.minusDays(3).plusHours(1), START.minusDays(3).plusHours(2),
+                RecurringEvent.Period.DAY));
+        taskList.markOccurrence(0, START.toLocalDate().plusDays(1));
+        assertEquals(1, reminders.size());
+
+        clock.set(START.plusHours(1));
+        List<Task> due = reminders.collectDue();
+        assertEquals(1, due.size());
+        assertEquals(START.plusHours(1), ((Event) due.get(0)).getStartTime());
+        assertEquals(1, reminders.size());
+
+        clock.set(START.plusDays(2).plusHours(1));
+        due = reminders.collectDue();
+        assertEquals(1, due.size());
+        assertEquals(START.plusDays(2).plusHours(1), ((Event) due.get(0)).getStartTime());
+
+        taskList.mark(0);
+        assertEquals(0, reminders.size());
+    }
+
+    private static List<String> names(List<Task> tasks) {
+        List<String> names = new ArrayList<>();
+        for (Task task : tasks) {
+            names.add(task.getName());
+        }
+        return names;
+    }
+
+    /**
+     * A clock that only moves when told to.
+     */
+    private static class ManualClock extends Clock {
+        private volatile Instant instant;
+
+        ManualClock(LocalDateTime time) {
+            set(time);
+        }
+
+        void set(LocalDateTime time) {
+            instant = time.toInstant(ZoneOffset.UTC);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package overflow.tasklist;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import overflow.task.Task;
+import overflow.task.Todo;
+
+/**
+ * Times a find that no index can answer on one thread and on the common fork-join pool, to locate
+ * the list size where the parallel scan starts to pay off. Keywords containing whitespace always scan.
+ * Run with {@code ./gradlew benchmark -Pbenchmark=overflow.tasklist.ScanBenchmark}.
+ */
+public class ScanBenchmark {
+    private static final int[] SIZES = {1_000, 5_000, 10_000, 20_000, 50_000, 100_000, 1_000_000};
+    private static final String[] WORDS = {"buy", "grocery", "submit", "report", "call", "mum", "read", "book",
+        "return", "library", "team", "meeting", "gym", "clean", "room", "pay", "rent", "project", "review"};
+    private static final String[] KEYWORDS = {"rent 4", "team m", "y b"};
+    private static final int REPEATS = 20;
+
+    public static void main(String[] args) {
+        Random random = new Random(42);
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        System.out.printf("threads: %d%n", pool.getParallelism());
+        System.out.printf("%-10s %16s %16s %8s%n", "tasks", "sequential (us)", "parallel (us)", "speedup");
+
+        for (int size : SIZES) {
+            ArrayList<Task> tasks = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                tasks.add(new Todo(WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                        + " " + random.nextInt(10_000)));
+            }
+            TaskList sequential = new TaskList(new ArrayList<>(tasks), 1, pool, Integer.MAX_VALUE);
+            TaskList parallel = new TaskList(new ArrayList<>(tasks), 1, pool, 0);
+
+            long sequentialTime = time(() -> sequential.find(KEYWORDS).size());
+            long parallelTime = time(() -> parallel.find(KEYWORDS).size());
+            System.out.printf("%-10d %16.1f %16.1f %8.2f%n", size, sequentialTime / 1000.0, parallelTime / 1000.0,
+                    (double) sequentialTime / parallelTime);
+        }
+    }
+
+    private static long time(Query query) {
+        long checksum = 0;
+        for (int i = 0; i < REPEATS; i++) {
+            checksum += query.run(); // warm up
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < REPEATS; i++) {
+            checksum += query.run();
+        }
+        long elapsed = (System.nanoTime() - start) / REPEATS;
+        return checksum < 0 ? -1 : elapsed;
+    }
+
+    private interface Query {
+        int run();
+    }
+}
@@ -0,0 +1,101 @@
+package overflow.tasklist;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Random;
+
+import overflow.exception.OverflowException;
+import overflow.task.Deadline;
+import overflow.task.Event;
+import overflow.task.Task;
+import overflow.task.Todo;
+
+/**
+ * Times sorting a large list afresh against showing a kept ordering again, and what keeping every
+ * ordering adds to each change of the list.
+ * Run with {@code ./gradlew benchmark -Pbenchmark=overflow.tasklist.SortBenchmark}.
+ */
+public class SortBenchmark {
+    private static final int SIZE = 500_000;
+    private static final String[] WORDS = {"buy", "grocery", "submit", "report", "call", "mum", "read", "book",
+        "return", "library", "team", "meeting", "gym", "clean", "room", "pay", "rent", "project", "review"};
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 1, 0, 0);
+    private static final int CHANGES = 2_000;
+    private static final int ROUNDS = 3;
+
+    public static void main(String[] args) throws OverflowException {
+        System.out.printf("%-10s %14s %14s%n", "key", "fresh (ms)", "kept (us)");
+        for (SortKey key : SortKey.values()) {
+            long fresh = 0;
+            long kept = 0;
+            for (int round = 0; round < ROUNDS; round++) {
+                TaskList taskList = new TaskList(randomTasks(new Random(round)));
+                long start = System.nanoTime();
+                taskList.getSorted(key);
+                fresh = System.nanoTime() - start;
+                start = System.nanoTime();
+                taskList.getSorted(key);
+                kept = System.nanoTime() - start;
+            }
+            System.out.printf("%-10s %14.1f %14.1f%n", key.getKeyword(), fresh / 1e6, kept / 1e3);
+        }
+
+        Random random = new Random(42);
+        TaskList unsorted = new TaskList(randomTasks(random));
+        TaskList sorted = new TaskList(randomTasks(random));
+        for (SortKey key : SortKey.values()) {
+            sorted.getSorted(key);
+        }
+        System.out.printf("%nper change (us): %14s %14s%n", "no orderings", "four orderings");
+        System.out.printf("%-16s %14.1f %14.1f%n", "add", timeAdds(unsorted, random), timeAdds(sorted, random));
+        System.out.printf("%-16s %14.1f %14.1f%n", "mark", timeMarks(unsorted, random), timeMarks(sorted, random));
+        System.out.printf("%-16s %14.1f %14.1f%n", "delete", timeDeletes(unsorted, random),
+                timeDeletes(sorted, random));
+    }
+
+    private static ArrayList<Task> randomTasks(Random random) {
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < SIZE; i++) {
+            tasks.add(randomTask(random));
+        }
+        return tasks;
+    }
+
+    private static double timeAdds(TaskList taskList, Random random) {
+        long start = System.nanoTime();
+        for (int i = 0; i < CHANGES; i++) {
+            taskList.add(randomTask(random));
+        }
+        return (System.nanoTime() - start) / 1e3 / CHANGES;
+    }
+
+    private static double timeMarks(TaskList taskList, Random random) throws OverflowException {
+        long start = System.nanoTime();
+        for (int i = 0; i < CHANGES; i++) {
+            taskList.mark(random.nextInt(taskList.size()));
+        }
+        return (System.nanoTime() - start) / 1e3 / CHANGES;
+    }
+
+    private static double timeDeletes(TaskList taskList, Random random) throws OverflowException {
+        long start = System.nanoTime();
+        for (int i = 0; i < CHANGES; i++) {
+            taskList.delete(random.nextInt(taskList.size()));
+        }
+        return (System.nanoTime() - start) / 1e3 / CHANGES;
+    }
+
+    private static Task randomTask(Random random) {
+        String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                + " " + random.nextInt(100_000);
+        LocalDateTime time = START.plusMinutes(random.nextInt(365 * 24 * 60));
+        switch (random.nextInt(3)) {
+        case 0:
+            return new Todo(name);
+        case 1:
+            return new Deadline(name, time);
+        default:
+            return new Event(name, time, time.plusHours(2));
+        }
+    }
+}
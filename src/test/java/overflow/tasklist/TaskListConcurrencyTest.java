@@ -0,0 +1,120 @@
+package overflow.tasklist;
+
+import overflow.task.Task;
+import overflow.task.Todo;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Stress tests that share one TaskList between many threads.
+ */
+public class TaskListConcurrencyTest {
+    private static final int WRITERS = 4;
+    private static final int READERS = 8;
+    private static final int ADDS_PER_WRITER = 2_000;
+
+    @Test
+    public void concurrentWritersAndReaders_loseNoUpdates() throws Exception {
+        TaskList taskList = new TaskList();
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS + READERS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean isWriting = new AtomicBoolean(true);
+        List<Future<?>> writers = new ArrayList<>();
+        List<Future<?>> readers = new ArrayList<>();
+
+        for (int w = 0; w < WRITERS; w++) {
+            int writer = w;
+            writers.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < ADDS_PER_WRITER; i++) {
+                    taskList.add(new Todo("writer" + writer + " task" + i));
+                    if (i % 10 == 0) {
+                        taskList.mark(taskList.size() - 1);
+                    }
+                }
+                return null;
+            }));
+        }
+        for (int r = 0; r < READERS; r++) {
+            readers.add(pool.submit(() -> {
+                start.await();
+                int lastSize = 0;
+                while (isWriting.get()) {
+                    // Sizes only grow, and every version is internally consistent
+                    List<Task> snapshot = taskList.getTasks();
+                    assertTrue(snapshot.size() >= lastSize);
+                    lastSize = snapshot.size();
+                    int counted = 0;
+                    for (Task task : snapshot) {
+                        assertTrue(task.getName().startsWith("writer"));
+                        counted++;
+                    }
+                    assertEquals(lastSize, counted);
+                    if (lastSize > 0) {
+                        taskList.get(lastSize - 1);
+                    }
+                    taskList.find(new String[]{"task1", "writer2"});
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> writer : writers) {
+            writer.get(600, TimeUnit.SECONDS);
+        }
+        isWriting.set(false);
+        for (Future<?> reader : readers) {
+            reader.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertEquals(WRITERS * ADDS_PER_WRITER, taskList.size());
+        for (int w = 0; w < WRITERS; w++) {
+            String keyword = "writer" + w + " ";
+            assertEquals(ADDS_PER_WRITER, taskList.find(new String[]{keyword}).get(keyword).size());
+        }
+    }
+
+    @Test
+    public void concurrentMarkAndUnmark_keepsUndoConsistent() throws Exception {
+        TaskList taskList = new TaskList();
+        for (int i = 0; i < 100; i++) {
+            taskList.add(new Todo("task " + i));
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int w = 0; w < WRITERS; w++) {
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < ADDS_PER_WRITER; i++) {
+                    taskList.mark(i % 100);
+                    taskList.unmark(i % 100);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        for (int i = 0; i < 100; i++) {
+            assertFalse(taskList.get(i).isDone());
+        }
+        taskList.undo();
+        assertEquals(Change.Type.MARK, taskList.getLastChange().getType());
+    }
+}
@@ -1,15 +1,29 @@
 package overflow.tasklist;
 
 import overflow.exception.OverflowException;
+import overflow.task.Deadline;
+import overflow.task.Event;
+import overflow.task.Occurrence;
+import overflow.task.RecurringEvent;
 import overflow.task.Task;
 import overflow.task.Todo;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -173,10 +187,764 @@ public class TaskListTest {
         taskList.add(task1);
         taskList.add(task2);
         
-        ArrayList<Task> tasks = taskList.getTasks();
+        List<Task> tasks = taskList.getTasks();
         
         assertEquals(2, tasks.size());
         assertEquals(task1, tasks.get(0));
         assertEquals(task2, tasks.get(1));
     }
+
+    @Test
+    public void find_substringOfWord_matchesInListOrder() throws OverflowException {
+        taskList.add(new Todo("buy notebook"));
+        taskList.add(new Todo("read book"));
+        taskList.add(new Todo("Bookshelf assembly"));
+        taskList.delete(0);
+        taskList.undo();
+
+        HashMap<String, ArrayList<Task>> results = taskList.find(new String[]{"BOOK"});
+
+        assertEquals(3, results.get("BOOK").size());
+        assertEquals("buy notebook", results.get("BOOK").get(0).getName());
+        assertEquals("read book", results.get("BOOK").get(1).getName());
+        assertEquals("Bookshelf assembly", results.get("BOOK").get(2).getName());
+    }
+
+    @Test
+    public void find_afterDelete_excludesDeletedTask() throws OverflowException {
+        taskList.add(new Todo("read book"));
+        taskList.add(new Todo("return book"));
+        taskList.delete(0);
+
+        HashMap<String, ArrayList<Task>> results = taskList.find(new String[]{"book"});
+
+        assertEquals(1, results.get("book").size());
+        assertEquals("return book", results.get("book").get(0).getName());
+    }
+
+    @Test
+    public void find_keywordAcrossWords_matchesSubstring() throws OverflowException {
+        taskList.add(new Todo("buy groceries"));
+        taskList.add(new Todo("buy gift"));
+        taskList.add(new Todo("grocery run"));
+        taskList.delete(1);
+        taskList.undo();
+
+        assertEquals(1, taskList.find(new String[]{"y gro"}).get("y gro").size());
+        assertEquals(2, taskList.find(new String[]{"groc"}).get("groc").size());
+        assertEquals(3, taskList.find(new String[]{"g"}).get("g").size());
+        assertEquals("buy gift", taskList.find(new String[]{"gif"}).get("gif").get(0).getName());
+    }
+
+    @Test
+    public void findEventsBetween_overlappingEvents_returnsByStartTime() throws OverflowException {
+        LocalDateTime day = LocalDateTime.of(2026, 3, 10, 0, 0);
+        taskList.add(new Event("lunch", day.plusHours(12), day.plusHours(13)));
+        taskList.add(new Event("conference", day.minusDays(1), day.plusDays(1)));
+        taskList.add(new Deadline("report", day.plusHours(10)));
+        taskList.add(new Event("dinner", day.plusHours(19), day.plusHours(21)));
+        taskList.add(new Event("breakfast", day.plusHours(8), day.plusHours(9)));
+
+        ArrayList<Event> events = taskList.findEventsBetween(day.plusHours(9), day.plusHours(12));
+
+        assertEquals(3, events.size());
+        assertEquals("conference", events.get(0).getName());
+        assertEquals("breakfast", events.get(1).getName());
+        assertEquals("lunch", events.get(2).getName());
+
+        taskList.delete(1);
+        taskList.delete(3);
+        assertEquals(1, taskList.findEventsBetween(day.plusHours(9), day.plusHours(12)).size());
+        taskList.undo();
+        assertEquals(2, taskList.findEventsBetween(day.plusHours(9), day.plusHours(12)).size());
+    }
+
+    @Test
+    public void findEventsBetween_recurringEvent_expandsOnlyTheWindow() throws OverflowException {
+        LocalDateTime day = LocalDateTime.of(2026, 3, 10, 0, 0);
+        taskList.add(new RecurringEvent("standup", day.minusYears(5).plusHours(9), day.minusYears(5).plusHours(10),
+                RecurringEvent.Period.DAY));
+        taskList.add(new Event("lunch", day.plusDays(1).plusHours(12), day.plusDays(1).plusHours(13)));
+
+        ArrayList<Event> events = taskList.findEventsBetween(day, day.plusDays(2));
+
+        assertEquals(3, events.size());
+        assertEquals(day.plusHours(9), events.get(0).getStartTime());
+        assertEquals(day.plusDays(1).plusHours(9), events.get(1).getStartTime());
+        assertEquals("lunch", events.get(2).getName());
+        assertTrue(events.get(0) instanceof Occurrence);
+
+        taskList.delete(0);
+        assertEquals(1, taskList.findEventsBetween(day, day.plusDays(2)).size());
+    }
+
+    @Test
+    public void markOccurrence_undoAndRedo_changesOnlyThatDay() throws OverflowException {
+        LocalDateTime start = LocalDateTime.of(2026, 3, 2, 9, 0);
+        taskList.add(new RecurringEvent("standup", start, start.plusMinutes(15), RecurringEvent.Period.WEEK));
+
+        Occurrence marked = taskList.markOccurrence(0, LocalDate.of(2026, 3, 16));
+        assertEquals(2, marked.getNumber());
+        assertTrue(marked.isDone());
+        RecurringEvent series = (RecurringEvent) taskList.get(0);
+        assertTrue(series.isOccurrenceDone(2));
+        assertFalse(series.isDone());
+        assertFalse(series.isOccurrenceDone(1));
+
+        taskList.undo();
+        assertFalse(((RecurringEvent) taskList.get(0)).isOccurrenceDone(2));
+        taskList.redo();
+        assertTrue(((RecurringEvent) taskList.get(0)).isOccurrenceDone(2));
+        taskList.unmarkOccurrence(0, LocalDate.of(2026, 3, 16));
+        assertTrue(((RecurringEvent) taskList.get(0)).getExceptions().isEmpty());
+    }
+
+    @Test
+    public void markOccurrence_invalidTaskOrDay_throwsException() {
+        LocalDateTime start = LocalDateTime.of(2026, 3, 2, 9, 0);
+        taskList.add(new Event("talk", start, start.plusHours(1)));
+        taskList.add(new RecurringEvent("standup", start, start.plusMinutes(15), RecurringEvent.Period.WEEK));
+
+        assertThrows(OverflowException.class, () -> taskList.markOccurrence(0, LocalDate.of(2026, 3, 2)));
+        assertThrows(OverflowException.class, () -> taskList.markOccurrence(1, LocalDate.of(2026, 3, 3)));
+        assertThrows(OverflowException.class, () -> taskList.markOccurrence(1, LocalDate.of(2026, 3, 1)));
+    }
+
+    @Test
+    public void query_selectiveConditions_usesCheapestIndex() throws OverflowException {
+        LocalDateTime day = LocalDateTime.of(2026, 3, 10, 0, 0);
+        for (int i = 0; i < 2000; i++) {
+            taskList.add(new Todo("chore " + i));
+            taskList.add(new Deadline("homework " + i, day.plusHours(i)));
+        }
+        taskList.add(new Deadline("quarterly report", day.plusDays(3)));
+        taskList.add(new Event("review", day.plusDays(2), day.plusDays(2).plusHours(1)));
+        taskList.mark(1);
+
+        TaskQuery byName = query(new TaskQuery.Condition(TaskQuery.Field.NAME, TaskQuery.Operator.CONTAINS, "report"));
+        TaskQuery dueSoon = query(
+                new TaskQuery.Condition(TaskQuery.Field.DONE, TaskQuery.Operator.EQUAL, false),
+                new TaskQuery.Condition(TaskQuery.Field.BY, TaskQuery.Operator.LESS, day.plusHours(5)));
+        TaskQuery events = query(new TaskQuery.Condition(TaskQuery.Field.TYPE, TaskQuery.Operator.EQUAL, 'E'));
+        TaskQuery done = query(new TaskQuery.Condition(TaskQuery.Field.DONE, TaskQuery.Operator.EQUAL, true));
+
+        assertEquals(TaskQuery.AccessPath.NAME_INDEX, taskList.explain(byName));
+        assertEquals(TaskQuery.AccessPath.DEADLINE_INDEX, taskList.explain(dueSoon));
+        assertEquals(TaskQuery.AccessPath.EVENT_INDEX, taskList.explain(events));
+        assertEquals(TaskQuery.AccessPath.SCAN, taskList.explain(done));
+
+        List<Integer> indices = new ArrayList<>();
+        assertEquals(4, taskList.query(dueSoon, (task, index) -> indices.add(index)));
+        assertEquals(List.of(3, 5, 7, 9), indices);
+        assertEquals(1, taskList.query(byName, (task, index) -> assertEquals(4000, index)));
+        assertEquals(1, taskList.query(done, (task, index) -> assertEquals("homework 0", task.getName())));
+    }
+
+    @Test
+    public void query_randomConditions_matchesFullScan() throws OverflowException {
+        Random random = new Random(7);
+        LocalDateTime day = LocalDateTime.of(2026, 3, 10, 0, 0);
+        String[] words = {"report", "gym", "team meeting", "rent", "read", "review"};
+        for (int i = 0; i < 3000; i++) {
+            String name = words[random.nextInt(words.length)] + " " + random.nextInt(500);
+            LocalDateTime time = day.plusMinutes(random.nextInt(60 * 24 * 60));
+            switch (random.nextInt(4)) {
+            case 0:
+                taskList.add(new Todo(name));
+                break;
+            case 1:
+                taskList.add(new Event(name, time, time.plusHours(random.nextInt(48))));
+                break;
+            case 2:
+                taskList.add(new RecurringEvent(name, time, time.plusHours(1), RecurringEvent.Period.WEEK));
+                break;
+            default:
+                taskList.add(new Deadline(name, time));
+            }
+            if (random.nextInt(3) == 0) {
+                taskList.mark(taskList.size() - 1);
+            }
+        }
+
+        TaskQuery.Field[] times = {TaskQuery.Field.BY, TaskQuery.Field.FROM, TaskQuery.Field.TO};
+        TaskQuery.Operator[] operators = {TaskQuery.Operator.LESS, TaskQuery.Operator.AT_MOST,
+            TaskQuery.Operator.EQUAL, TaskQuery.Operator.AT_LEAST, TaskQuery.Operator.GREATER};
+        for (int round = 0; round < 300; round++) {
+            List<TaskQuery.Condition> conditions = new ArrayList<>();
+            if (random.nextBoolean()) {
+                conditions.add(new TaskQuery.Condition(TaskQuery.Field.TYPE, TaskQuery.Operator.EQUAL,
+                        "TDE".charAt(random.nextInt(3))));
+            }
+            if (random.nextBoolean()) {
+                conditions.add(new TaskQuery.Condition(TaskQuery.Field.DONE, TaskQuery.Operator.EQUAL,
+                        random.nextInt(3) > 0 ? Boolean.FALSE : Boolean.TRUE));
+            }
+            if (random.nextInt(3) == 0) {
+                conditions.add(new TaskQuery.Condition(TaskQuery.Field.NAME, TaskQuery.Operator.CONTAINS,
+                        random.nextBoolean() ? words[random.nextInt(words.length)] : "" + random.nextInt(500)));
+            }
+            for (int i = random.nextInt(3); i > 0; i--) {
+                conditions.add(new TaskQuery.Condition(times[random.nextInt(times.length)],
+                        operators[random.nextInt(operators.length)], day.plusMinutes(random.nextInt(60 * 24 * 60))));
+            }
+            if (conditions.isEmpty()) {
+                continue;
+            }
+            TaskQuery query = new TaskQuery(conditions);
+
+            List<Task> expected = new ArrayList<>();
+            for (Task task : taskList.getTasks()) {
+                if (query.matches(task)) {
+                    expected.add(task);
+                }
+            }
+            List<Task> actual = new ArrayList<>();
+            taskList.query(query, (task, index) -> {
+                assertEquals(task, taskList.getTasks().get(index));
+                actual.add(task);
+            });
+            assertEquals(expected, actual, query.getConditions().toString());
+        }
+    }
+
+    @Test
+    public void getSorted_eachKey_ordersTasksAndBreaksTiesByListOrder() throws OverflowException {
+        LocalDateTime day = LocalDateTime.of(2026, 3, 10, 0, 0);
+        taskList.add(new Todo("walk dog"));
+        taskList.add(new Deadline("essay", day.plusDays(2)));
+        taskList.add(new Event("Concert", day.plusDays(1), day.plusDays(1).plusHours(3)));
+        taskList.add(new Deadline("quiz", day.plusDays(1)));
+        taskList.add(new Todo("buy milk"));
+        taskList.mark(3);
+
+        assertEquals(List.of("quiz", "essay", "walk dog", "Concert", "buy milk"),
+                names(taskList.getSorted(SortKey.DEADLINE)));
+        assertEquals(List.of("Concert", "walk dog", "essay", "quiz", "buy milk"),
+                names(taskList.getSorted(SortKey.START)));
+        assertEquals(List.of("buy milk", "Concert", "essay", "quiz", "walk dog"),
+                names(taskList.getSorted(SortKey.NAME)));
+        assertEquals(List.of("walk dog", "essay", "Concert", "buy milk", "quiz"),
+                names(taskList.getSorted(SortKey.STATUS)));
+
+        assertArrayEquals(new int[]{0, 3}, taskList.toListIndices(SortKey.DEADLINE, new int[]{2, 0}));
+        assertEquals(1, taskList.getSortedIndex(SortKey.NAME, taskList.get(2)));
+        assertThrows(OverflowException.class, () -> taskList.toListIndices(SortKey.NAME, new int[]{5}));
+    }
+
+    @Test
+    public void getSorted_randomChanges_matchesFreshSort() throws OverflowException {
+        Random random = new Random(11);
+        LocalDateTime day = LocalDateTime.of(2026, 3, 10, 0, 0);
+        for (int i = 0; i < 500; i++) {
+            taskList.add(randomTask(random, day));
+        }
+        for (SortKey key : SortKey.values()) {
+            taskList.getSorted(key);
+        }
+
+        for (int round = 0; round < 2000; round++) {
+            int size = taskList.size();
+            try {
+                switch (random.nextInt(7)) {
+                case 0:
+                    taskList.add(randomTask(random, day));
+                    break;
+                case 1:
+                    taskList.delete(random.nextInt(size));
+                    break;
+                case 2:
+                    taskList.mark(random.nextInt(size));
+                    break;
+                case 3:
+                    taskList.unmark(random.nextInt(size));
+                    break;
+                case 4:
+                    taskList.undo();
+                    break;
+                case 5:
+                    taskList.redo();
+                    break;
+                default:
+                    int first = random.nextInt(size - 1);
+                    taskList.mark(new int[]{first, first + 1 + random.nextInt(size - first - 1)});
+                }
+            } catch (OverflowException e) {
+                // nothing to undo or redo
+            }
+
+            SortKey key = SortKey.values()[random.nextInt(SortKey.values().length)];
+            List<Task> expected = new ArrayList<>(taskList.getTasks());
+            expected.sort(key.getOrder());
+            assertEquals(expected, new ArrayList<>(taskList.getSorted(key)));
+        }
+
+        taskList.mark(new int[]{0, taskList.size() - 1});
+        assertEquals(taskList.size(), taskList.getSorted(SortKey.STATUS).size());
+        taskList.deleteDone();
+        List<Task> expected = new ArrayList<>(taskList.getTasks());
+        expected.sort(SortKey.NAME.getOrder());
+        assertEquals(expected, new ArrayList<>(taskList.getSorted(SortKey.NAME)));
+    }
+
+    @Test
+    public void findUpcomingDeadlines_markAndDelete_keepsPendingInOrder() throws OverflowException {
+        LocalDateTime now = LocalDateTime.of(2026, 3, 10, 12, 0);
+        taskList.add(new Deadline("essay", now.plusDays(3)));
+        taskList.add(new Deadline("overdue", now.minusDays(1)));
+        taskList.add(new Todo("read book"));
+        taskList.add(new Deadline("quiz", now.plusDays(1)));
+        taskList.add(new Deadline("project", now.plusDays(3)));
+
+        ArrayList<Deadline> upcoming = taskList.findUpcomingDeadlines(now, 2);
+        assertEquals(2, upcoming.size());
+        assertEquals("quiz", upcoming.get(0).getName());
+        assertEquals("essay", upcoming.get(1).getName());
+
+        taskList.mark(3);
+        assertEquals("essay", taskList.findUpcomingDeadlines(now, 1).get(0).getName());
+        taskList.undo();
+        assertEquals("quiz", taskList.findUpcomingDeadlines(now, 1).get(0).getName());
+
+        taskList.delete(0);
+        assertEquals(2, taskList.findUpcomingDeadlines(now, 5).size());
+        taskList.undo();
+        assertEquals("project", taskList.findUpcomingDeadlines(now, 5).get(2).getName());
+    }
+
+    @Test
+    public void undo_severalActions_revertsInReverseOrder() throws OverflowException {
+        taskList.add(new Todo("task 1"));
+        taskList.add(new Todo("task 2"));
+        taskList.mark(0);
+        taskList.delete(1);
+
+        taskList.undo();
+        assertEquals("task 2", taskList.get(1).getName());
+        taskList.undo();
+        assertFalse(taskList.get(0).isDone());
+        taskList.undo();
+        taskList.undo();
+        assertEquals(0, taskList.size());
+        assertThrows(OverflowException.class, () -> taskList.undo());
+    }
+
+    @Test
+    public void redo_afterUndo_reappliesUntilNewAction() throws OverflowException {
+        taskList.add(new Todo("read book"));
+        taskList.add(new Todo("return book"));
+        taskList.delete(0);
+        taskList.undo();
+        taskList.undo();
+        taskList.redo();
+        taskList.redo();
+
+        assertEquals(1, taskList.size());
+        assertEquals("return book", taskList.find(new String[]{"book"}).get("book").get(0).getName());
+
+        taskList.undo();
+        taskList.add(new Todo("new task"));
+        assertThrows(OverflowException.class, () -> taskList.redo());
+    }
+
+    @Test
+    public void undo_markOnDoneTask_keepsItDone() throws OverflowException {
+        taskList.add(new Todo("task"));
+        taskList.mark(0);
+        taskList.mark(0);
+        taskList.undo();
+
+        assertTrue(taskList.get(0).isDone());
+    }
+
+    @Test
+    public void undo_beyondLimit_forgetsOldestActions() throws OverflowException {
+        taskList = new TaskList(new ArrayList<>(), 2);
+        taskList.add(new Todo("task 1"));
+        taskList.add(new Todo("task 2"));
+        taskList.add(new Todo("task 3"));
+
+        taskList.undo();
+        taskList.undo();
+        assertThrows(OverflowException.class, () -> taskList.undo());
+        assertEquals(1, taskList.size());
+    }
+
+    @Test
+    public void delete_andUndo_keepTaskIds() throws OverflowException {
+        taskList.add(new Todo("task 1"));
+        taskList.add(new Todo("task 2"));
+        taskList.add(new Todo("task 3"));
+        long id = taskList.get(1).getId();
+
+        taskList.delete(0);
+        assertEquals(id, taskList.get(0).getId());
+        taskList.undo();
+        taskList.delete(1);
+        taskList.undo();
+
+        assertEquals(id, taskList.get(1).getId());
+        assertTrue(taskList.get(0).getId() < id && id < taskList.get(2).getId());
+    }
+
+    @Test
+    public void taskList_tasksWithoutIds_numbersThemInOrder() {
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("task 1"));
+        tasks.add(new Todo("task 2"));
+        taskList = new TaskList(tasks);
+
+        taskList.add(new Todo("task 3"));
+
+        assertEquals(0, tasks.get(0).getId());
+        assertEquals(1, tasks.get(1).getId());
+        assertEquals(2, taskList.getTasks().get(2).getId());
+    }
+
+    @Test
+    public void delete_severalIndices_undoneAsOneAction() throws OverflowException {
+        for (int i = 1; i <= 10; i++) {
+            taskList.add(new Todo("task " + i));
+        }
+        List<Task> before = new ArrayList<>(taskList.getTasks());
+
+        List<Task> deleted = taskList.delete(new int[]{2, 6, 8});
+        assertEquals(List.of(before.get(2), before.get(6), before.get(8)), deleted);
+        assertEquals(7, taskList.size());
+        assertEquals(3, taskList.getLastChanges().size());
+        assertEquals(0, taskList.find(new String[]{"task 7"}).size());
+
+        taskList.undo();
+        assertEquals(before, taskList.getTasks());
+        assertEquals(1, taskList.find(new String[]{"task 7"}).size());
+
+        taskList.redo();
+        assertEquals(7, taskList.size());
+        assertEquals(before.get(3), taskList.get(2));
+    }
+
+    @Test
+    public void delete_indexOutOfRange_deletesNothing() {
+        taskList.add(new Todo("task 1"));
+        taskList.add(new Todo("task 2"));
+
+        assertThrows(OverflowException.class, () -> taskList.delete(new int[]{0, 2}));
+        assertEquals(2, taskList.size());
+    }
+
+    @Test
+    public void deleteDone_manyDoneTasks_removesOnlyThose() throws OverflowException {
+        for (int i = 0; i < 1000; i++) {
+            taskList.add(new Todo("task " + i));
+        }
+        taskList.mark(new int[]{1, 3, 5});
+        int[] evens = new int[500];
+        for (int i = 0; i < evens.length; i++) {
+            evens[i] = 2 * i;
+        }
+        taskList.mark(evens);
+
+        List<Task> deleted = taskList.deleteDone();
+        assertEquals(503, deleted.size());
+        assertEquals(497, taskList.size());
+        for (Task task : taskList.getTasks()) {
+            assertFalse(task.isDone());
+        }
+
+        taskList.undo();
+        assertEquals(1000, taskList.size());
+        assertEquals("task 1", taskList.get(1).getName());
+        assertTrue(taskList.get(1).isDone());
+        assertFalse(taskList.get(7).isDone());
+    }
+
+    @Test
+    public void mark_severalIndices_undoneAsOneAction() throws OverflowException {
+        taskList.add(new Todo("task 1"));
+        taskList.add(new Todo("task 2"));
+        taskList.add(new Todo("task 3"));
+        taskList.mark(1);
+
+        taskList.mark(new int[]{0, 1, 2});
+        assertTrue(taskList.get(0).isDone());
+        assertTrue(taskList.get(2).isDone());
+
+        taskList.undo();
+        assertFalse(taskList.get(0).isDone());
+        assertTrue(taskList.get(1).isDone());
+        assertFalse(taskList.get(2).isDone());
+    }
+
+    @Test
+    public void search_severalKeywords_ranksByMatchesThenRarity() {
+        taskList.add(new Todo("buy milk"));
+        taskList.add(new Todo("buy bread"));
+        taskList.add(new Todo("buy milk and bread"));
+        taskList.add(new Todo("walk the dog"));
+        taskList.add(new Todo("call about the dog"));
+
+        SearchPage page = taskList.search(new String[]{"milk", "bread", "buy"}, 10);
+        assertEquals(3, page.getMatchCount());
+        assertEquals("buy milk and bread", page.getTasks().get(0).getName());
+        assertEquals("buy milk", page.getTasks().get(1).getName());
+        assertEquals("buy bread", page.getTasks().get(2).getName());
+        assertFalse(page.hasMore());
+    }
+
+    @Test
+    public void searchMore_pagesThroughEveryMatchOnce() {
+        for (int i = 0; i < 95; i++) {
+            taskList.add(new Todo((i % 3 == 0 ? "rare " : "") + "common " + i));
+        }
+
+        ArrayList<Task> seen = new ArrayList<>();
+        SearchPage page = taskList.search(new String[]{"common", "rare"}, 10);
+        assertEquals(1, page.getFirstRank());
+        seen.addAll(page.getTasks());
+        while (page.hasMore()) {
+            page = taskList.searchMore(page);
+            assertEquals(seen.size() + 1, page.getFirstRank());
+            seen.addAll(page.getTasks());
+        }
+
+        assertEquals(95, seen.size());
+        assertEquals(95, new HashSet<>(seen).size());
+        for (int i = 0; i < 32; i++) {
+            assertTrue(seen.get(i).getName().startsWith("rare"));
+        }
+    }
+
+    @Test
+    public void searchMore_randomTasks_matchesFullRanking() throws OverflowException {
+        Random random = new Random(17);
+        String[] words = {"alpha", "alps", "de", "delta", "x", "mix", "beta"};
+        for (int i = 0; i < 400; i++) {
+            StringBuilder name = new StringBuilder("task");
+            for (String word : words) {
+                if (random.nextInt(4) == 0) {
+                    name.append(' ').append(word);
+                }
+            }
+            taskList.add(new Todo(name.toString()));
+        }
+        // Restored tasks go back in the middle of the postings
+        taskList.delete(new int[]{3, 50, 51, 200});
+        taskList.undo();
+
+        String[][] searches = {{"alp", "DE", "x"}, {"alpha", "mix", "lta"}, {"be", "x", "de", "alps"}};
+        for (String[] keywords : searches) {
+            List<Task> expected = rankByBruteForce(keywords);
+            ArrayList<Task> seen = new ArrayList<>();
+            SearchPage page = taskList.search(keywords, 7);
+            assertEquals(expected.size(), page.getMatchCount());
+            seen.addAll(page.getTasks());
+            while (page.hasMore()) {
+                page = taskList.searchMore(page);
+                seen.addAll(page.getTasks());
+            }
+            assertEquals(expected, seen);
+        }
+
+        ArrayList<Task> similar = new ArrayList<>();
+        SearchPage page = taskList.searchSimilar(new String[]{"alpah", "delat"}, 9);
+        similar.addAll(page.getTasks());
+        while (page.hasMore()) {
+            page = taskList.searchMore(page);
+            similar.addAll(page.getTasks());
+        }
+        assertEquals(taskList.searchSimilar(new String[]{"alpah", "delat"}, 1000).getTasks(), similar);
+    }
+
+    private List<Task> rankByBruteForce(String[] keywords) throws OverflowException {
+        String[] lowerCaseKeywords = Arrays.stream(keywords).map(String::toLowerCase).toArray(String[]::new);
+        int[] counts = new int[keywords.length];
+        HashMap<Task, Long> matchedOf = new HashMap<>();
+        ArrayList<Task> matches = new ArrayList<>();
+        for (int i = 0; i < taskList.size(); i++) {
+            Task task = taskList.get(i);
+            long matched = 0;
+            for (int k = 0; k < keywords.length; k++) {
+                if (task.getName().toLowerCase().contains(lowerCaseKeywords[k])) {
+                    matched |= 1L << k;
+                    counts[k]++;
+                }
+            }
+            if (matched != 0) {
+                matchedOf.put(task, matched);
+                matches.add(task);
+            }
+        }
+
+        HashMap<Task, Double> weightOf = new HashMap<>();
+        for (Task task : matches) {
+            double weight = 0;
+            for (int k = 0; k < keywords.length; k++) {
+                if ((matchedOf.get(task) & (1L << k)) != 0) {
+                    weight += Math.log(1 + (double) taskList.size() / Math.max(1, counts[k]));
+                }
+            }
+            weightOf.put(task, weight);
+        }
+        // The sort is stable, so tasks that rank the same stay in list order
+        matches.sort(Comparator.<Task>comparingInt(task -> Long.bitCount(matchedOf.get(task)))
+                .thenComparingDouble(weightOf::get).reversed());
+        return matches;
+    }
+
+    @Test
+    public void find_parallelScan_matchesSequentialScan() {
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            tasks.add(new Todo((i % 7 == 0 ? "buy " : "read ") + i));
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            TaskList parallel = new TaskList(new ArrayList<>(tasks), 10, pool, 0);
+            TaskList sequential = new TaskList(new ArrayList<>(tasks), 10, pool, Integer.MAX_VALUE);
+            String[] keywords = {"bu", "d 1", "9"};
+
+            assertEquals(sequential.find(keywords), parallel.find(keywords));
+            assertEquals(715, parallel.find(keywords).get("bu").size());
+            assertEquals(sequential.filter(task -> task.getName().endsWith("3")),
+                    parallel.filter(task -> task.getName().endsWith("3")));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void searchSimilar_misspeltKeyword_findsCloseWords() throws OverflowException {
+        taskList.add(new Todo("buy groceries"));
+        taskList.add(new Todo("team meeting"));
+        taskList.add(new Todo("read book"));
+        taskList.add(new Todo("cook dinner"));
+
+        SearchPage page = taskList.searchSimilar(new String[]{"grocerys", "meetnig"}, 10);
+        assertEquals(2, page.getMatchCount());
+        assertEquals("buy groceries", page.getTasks().get(0).getName());
+
+        // Short keywords allow a single typo only
+        assertEquals(1, taskList.searchSimilar(new String[]{"bok"}, 10).getMatchCount());
+        assertEquals(0, taskList.searchSimilar(new String[]{"bxx"}, 10).getMatchCount());
+
+        taskList.delete(0);
+        assertEquals(0, taskList.searchSimilar(new String[]{"grocerys"}, 10).getMatchCount());
+        taskList.undo();
+        assertEquals(1, taskList.searchSimilar(new String[]{"grocerys"}, 10).getMatchCount());
+    }
+
+    @Test
+    public void getStats_changesAndUndo_keepsCountsByTypeAndStatus() throws OverflowException {
+        LocalDateTime now = LocalDateTime.of(2026, 3, 10, 12, 0);
+        taskList.add(new Todo("read book"));
+        taskList.add(new Deadline("essay", now.plusDays(3)));
+        taskList.add(new Event("talk", now.plusDays(1), now.plusDays(1).plusHours(1)));
+        taskList.add(new Todo("water plants"));
+        taskList.mark(new int[]{0, 2});
+
+        TaskStats stats = taskList.getStats(now);
+        assertEquals(4, stats.getTotal());
+        assertEquals(1, stats.getPendingTodos());
+        assertEquals(1, stats.getDoneTodos());
+        assertEquals(1, stats.getPendingDeadlines());
+        assertEquals(1, stats.getDoneEvents());
+
+        taskList.deleteDone();
+        assertEquals(0, taskList.getStats(now).getDoneTodos());
+        assertEquals(0, taskList.getStats(now).getDoneEvents());
+        taskList.undo();
+        taskList.undo();
+        stats = taskList.getStats(now);
+        assertEquals(2, stats.getPendingTodos());
+        assertEquals(1, stats.getPendingEvents());
+        assertEquals(0, stats.getDoneEvents());
+    }
+
+    @Test
+    public void getStats_timePasses_countsNewlyOverdueDeadlines() throws OverflowException {
+        LocalDateTime now = LocalDateTime.of(2026, 3, 10, 12, 0);
+        taskList.add(new Deadline("quiz", now.minusHours(1)));
+        taskList.add(new Deadline("essay", now.plusHours(1)));
+        taskList.add(new Deadline("project", now.plusDays(2)));
+        assertEquals(1, taskList.getStats(now).getOverdueDeadlines());
+
+        assertEquals(2, taskList.getStats(now.plusHours(1).plusSeconds(1)).getOverdueDeadlines());
+        taskList.mark(0);
+        assertEquals(1, taskList.getStats(now.plusHours(2)).getOverdueDeadlines());
+        taskList.add(new Deadline("report", now.minusDays(1)));
+        assertEquals(2, taskList.getStats(now.plusHours(2)).getOverdueDeadlines());
+        taskList.delete(1);
+        assertEquals(1, taskList.getStats(now.plusHours(2)).getOverdueDeadlines());
+        taskList.undo();
+        assertEquals(3, taskList.getStats(now.plusDays(3)).getOverdueDeadlines());
+
+        // Turning the clock back makes deadlines pending again
+        assertEquals(1, taskList.getStats(now).getOverdueDeadlines());
+    }
+
+    @Test
+    public void getStats_randomChanges_matchesCountingEveryTask() throws OverflowException {
+        LocalDateTime base = LocalDateTime.of(2026, 1, 1, 0, 0);
+        Random random = new Random(21);
+        for (int step = 0; step < 2000; step++) {
+            int size = taskList.size();
+            int action = random.nextInt(6);
+            if (action <= 1 || size == 0) {
+                taskList.add(random.nextBoolean()
+                        ? new Deadline("d" + step, base.plusHours(random.nextInt(500)))
+                        : new Todo("t" + step));
+            } else if (action == 2) {
+                taskList.mark(random.nextInt(size));
+            } else if (action == 3) {
+                taskList.unmark(random.nextInt(size));
+            } else if (action == 4) {
+                taskList.delete(random.nextInt(size));
+            } else {
+                try {
+                    taskList.undo();
+                } catch (OverflowException e) {
+                    // every change was undone already
+                }
+            }
+
+            LocalDateTime now = base.plusHours(random.nextInt(500));
+            int overdue = 0;
+            int doneTodos = 0;
+            for (Task task : taskList.getTasks()) {
+                if (task instanceof Deadline && !task.isDone() && ((Deadline) task).getDeadline().isBefore(now)) {
+                    overdue++;
+                } else if (task instanceof Todo && task.isDone()) {
+                    doneTodos++;
+                }
+            }
+            TaskStats stats = taskList.getStats(now);
+            assertEquals(overdue, stats.getOverdueDeadlines());
+            assertEquals(doneTodos, stats.getDoneTodos());
+            assertEquals(taskList.size(), stats.getTotal());
+        }
+    }
+
+    private static TaskQuery query(TaskQuery.Condition... conditions) {
+        return new TaskQuery(List.of(conditions));
+    }
+
+    private static Task randomTask(Random random, LocalDateTime day) {
+        String name = (random.nextBoolean() ? "Task " : "task ") + random.nextInt(100);
+        LocalDateTime time = day.plusMinutes(random.nextInt(60 * 24 * 30));
+        switch (random.nextInt(3)) {
+        case 0:
+            return new Todo(name);
+        case 1:
+            return new Deadline(name, time);
+        default:
+            return new Event(name, time, time.plusHours(1));
+        }
+    }
+
+    private static List<String> names(List<Task> tasks) {
+        List<String> names = new ArrayList<>();
+        for (Task task : tasks) {
+            names.add(task.getName());
+        }
+        return names;
+    }
 }
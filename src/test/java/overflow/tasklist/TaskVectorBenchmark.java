@@ -0,0 +1,106 @@
+package overflow.tasklist;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+import overflow.task.Task;
+import overflow.task.Todo;
+
+/**
+ * Compares appending, deleting by index, iterating and taking a snapshot on a TaskVector against
+ * an ArrayList, where a snapshot means the copy the saver used to take.
+ * Run with {@code ./gradlew benchmark -Pbenchmark=overflow.tasklist.TaskVectorBenchmark}.
+ */
+public class TaskVectorBenchmark {
+    private static final int[] SIZES = {1_000, 100_000, 1_000_000};
+    private static final int DELETES = 1_000;
+    private static final int REPEATS = 5;
+
+    public static void main(String[] args) {
+        System.out.printf("%-10s %-12s %16s %16s%n", "tasks", "operation", "ArrayList (ns)", "TaskVector (ns)");
+
+        for (int size : SIZES) {
+            Task[] tasks = new Task[size];
+            for (int i = 0; i < size; i++) {
+                tasks[i] = new Todo("task " + i);
+            }
+            int[] deleteIndexes = new int[DELETES];
+            Random random = new Random(42);
+            for (int i = 0; i < DELETES; i++) {
+                deleteIndexes[i] = random.nextInt(size - i);
+            }
+
+            report(size, "append", size, () -> {
+                ArrayList<Task> list = new ArrayList<>();
+                for (Task task : tasks) {
+                    list.add(task);
+                }
+                return list.size();
+            }, () -> {
+                TaskVector vector = TaskVector.empty();
+                for (Task task : tasks) {
+                    vector = vector.withAppended(task);
+                }
+                return vector.size();
+            });
+
+            ArrayList<Task> filledList = new ArrayList<>(Arrays.asList(tasks));
+            TaskVector filledVector = TaskVector.of(filledList);
+            report(size, "delete", DELETES, () -> {
+                ArrayList<Task> list = new ArrayList<>(filledList);
+                for (int index : deleteIndexes) {
+                    list.remove(index);
+                }
+                return list.size();
+            }, () -> {
+                TaskVector vector = filledVector;
+                for (int index : deleteIndexes) {
+                    vector = vector.withRemoved(index);
+                }
+                return vector.size();
+            });
+
+            report(size, "iterate", size, () -> {
+                int done = 0;
+                for (Task task : filledList) {
+                    done += task.isDone() ? 1 : 0;
+                }
+                return done;
+            }, () -> {
+                int done = 0;
+                for (Task task : filledVector) {
+                    done += task.isDone() ? 1 : 0;
+                }
+                return done;
+            });
+
+            report(size, "snapshot", 1, () -> new ArrayList<>(filledList).size(), () -> filledVector.size());
+        }
+    }
+
+    /**
+     * Prints the time per operation of both implementations.
+     */
+    private static void report(int size, String operation, int operations, Run listRun, Run vectorRun) {
+        System.out.printf("%-10d %-12s %16.1f %16.1f%n", size, operation,
+                time(listRun) / (double) operations, time(vectorRun) / (double) operations);
+    }
+
+    private static long time(Run run) {
+        long checksum = 0;
+        for (int i = 0; i < REPEATS; i++) {
+            checksum += run.run(); // warm up
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < REPEATS; i++) {
+            checksum += run.run();
+        }
+        long elapsed = (System.nanoTime() - start) / REPEATS;
+        return checksum < 0 ? -1 : elapsed;
+    }
+
+    private interface Run {
+        int run();
+    }
+}
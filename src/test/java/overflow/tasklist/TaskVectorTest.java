@@ -0,0 +1,100 @@
+package overflow.tasklist;
+
+import overflow.task.Task;
+import overflow.task.Todo;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for the TaskVector class.
+ */
+public class TaskVectorTest {
+    @Test
+    public void randomEdits_matchArrayList() {
+        Random random = new Random(7);
+        ArrayList<Task> expected = new ArrayList<>();
+        TaskVector vector = TaskVector.empty();
+
+        for (int i = 0; i < 20_000; i++) {
+            int choice = random.nextInt(10);
+            if (choice < 4 || expected.isEmpty()) {
+                Task task = new Todo("task " + i);
+                expected.add(task);
+                vector = vector.withAppended(task);
+            } else if (choice < 7) {
+                int index = random.nextInt(expected.size() + 1);
+                Task task = new Todo("task " + i);
+                expected.add(index, task);
+                vector = vector.withInserted(index, task);
+            } else {
+                int index = random.nextInt(expected.size());
+                expected.remove(index);
+                vector = vector.withRemoved(index);
+            }
+        }
+
+        assertEquals(expected, vector);
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), vector.get(i));
+        }
+    }
+
+    @Test
+    public void edits_leaveEarlierVersionsUnchanged() {
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            tasks.add(new Todo("task " + i));
+        }
+        TaskVector original = TaskVector.of(tasks);
+
+        TaskVector edited = original.withRemoved(500).withInserted(0, new Todo("first")).withAppended(new Todo("last"));
+        while (!edited.isEmpty()) {
+            edited = edited.withRemoved(edited.size() / 2);
+        }
+
+        assertEquals(tasks, original);
+        assertEquals(List.of(), edited);
+    }
+
+    @Test
+    public void withRemovedSeveral_fewOrMany_matchesArrayList() {
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            tasks.add(new Todo("task " + i));
+        }
+        TaskVector vector = TaskVector.of(tasks);
+
+        for (int step : new int[]{1000, 3}) {
+            ArrayList<Task> expected = new ArrayList<>(tasks);
+            int[] indices = new int[(tasks.size() + step - 1) / step];
+            for (int i = 0; i < indices.length; i++) {
+                indices[i] = i * step;
+            }
+            for (int i = indices.length - 1; i >= 0; i--) {
+                expected.remove(indices[i]);
+            }
+            assertEquals(expected, vector.withRemoved(indices));
+        }
+        assertEquals(tasks, vector);
+    }
+
+    @Test
+    public void parallelStream_splitsAlongTree_keepsOrder() {
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            tasks.add(new Todo("task " + i));
+        }
+        TaskVector vector = TaskVector.of(tasks).withRemoved(17).withInserted(5000, new Todo("middle"));
+        tasks.remove(17);
+        tasks.add(5000, new Todo("middle"));
+
+        List<String> names = vector.parallelStream().map(Task::getName).collect(Collectors.toList());
+        assertEquals(tasks.stream().map(Task::getName).collect(Collectors.toList()), names);
+    }
+}
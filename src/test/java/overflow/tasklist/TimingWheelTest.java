@@ -0,0 +1,81 @@
+package overflow.tasklist;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Tests for the TimingWheel class.
+ */
+public class TimingWheelTest {
+
+    @Test
+    public void schedule_pastTick_isNotScheduled() {
+        TimingWheel<String> wheel = new TimingWheel<>(100);
+
+        assertNull(wheel.schedule("late", 100));
+        assertNull(wheel.schedule("later", 50));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void advanceTo_timersAcrossLevels_expireAtTheirTicks() {
+        TimingWheel<String> wheel = new TimingWheel<>(10);
+        wheel.schedule("soon", 11);
+        wheel.schedule("next hour", 10 + 64);
+        wheel.schedule("next week", 10 + 7 * 24 * 60);
+        TimingWheel.Timer<String> cancelled = wheel.schedule("cancelled", 10 + 5000);
+        wheel.cancel(cancelled);
+
+        List<String> expired = new ArrayList<>();
+        wheel.advanceTo(10 + 63, expired);
+        assertEquals(List.of("soon"), expired);
+        wheel.advanceTo(10 + 64, expired);
+        assertEquals(List.of("soon", "next hour"), expired);
+        wheel.advanceTo(10 + 7 * 24 * 60 - 1, expired);
+        assertEquals(2, expired.size());
+        wheel.advanceTo(10 + 365 * 24 * 60, expired);
+        assertEquals(List.of("soon", "next hour", "next week"), expired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void advanceTo_randomTimers_matchesSortedTimes() {
+        Random random = new Random(22);
+        long start = 28_000_000; // around 2023 in epoch minutes
+        TimingWheel<Long> wheel = new TimingWheel<>(start);
+        List<TimingWheel.Timer<Long>> timers = new ArrayList<>();
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            long tick = start + 1 + random.nextInt(2 * 365 * 24 * 60);
+            timers.add(wheel.schedule(tick, tick));
+        }
+        for (TimingWheel.Timer<Long> timer : timers) {
+            if (random.nextInt(4) == 0) {
+                wheel.cancel(timer);
+            } else {
+                expected.add(timer.getTick());
+            }
+        }
+        expected.sort(null);
+        assertEquals(expected.size(), wheel.size());
+
+        List<Long> expired = new ArrayList<>();
+        long now = start;
+        while (now < start + 2 * 365 * 24 * 60) {
+            now += 1 + random.nextInt(5000);
+            wheel.advanceTo(now, expired);
+            int dueCount = 0;
+            while (dueCount < expected.size() && expected.get(dueCount) <= now) {
+                dueCount++;
+            }
+            assertEquals(dueCount, expired.size()); // none late and none early
+        }
+        assertEquals(expected, expired);
+    }
+}
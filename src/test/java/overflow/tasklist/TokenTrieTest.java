@@ -0,0 +1,67 @@
+package overflow.tasklist;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for the TokenTrie class.
+ */
+public class TokenTrieTest {
+    @Test
+    public void distance_knownPairs_returnsEditCount() {
+        assertEquals(0, TokenTrie.distance("book", "book"));
+        assertEquals(1, TokenTrie.distance("grocey", "grocery"));
+        assertEquals(2, TokenTrie.distance("meeting", "meetnig"));
+        assertEquals(3, TokenTrie.distance("kitten", "sitting"));
+        assertEquals(3, TokenTrie.distance("", "abc"));
+    }
+
+    @Test
+    public void find_afterAddsAndRemovals_matchesBruteForce() {
+        Random random = new Random(3);
+        TokenTrie trie = new TokenTrie();
+        HashSet<String> words = new HashSet<>();
+        for (int i = 0; i < 2000; i++) {
+            String word = randomWord(random);
+            words.add(word);
+            trie.add(word);
+        }
+        ArrayList<String> added = new ArrayList<>(words);
+        for (int i = 0; i < added.size(); i += 2) {
+            words.remove(added.get(i));
+            trie.remove(added.get(i));
+        }
+        trie.remove("not there");
+        assertEquals(words.size(), trie.size());
+
+        for (int i = 0; i < 200; i++) {
+            String query = randomWord(random);
+            for (int maxEdits = 0; maxEdits <= 2; maxEdits++) {
+                HashSet<String> expected = new HashSet<>();
+                for (String word : words) {
+                    if (TokenTrie.distance(query, word) <= maxEdits) {
+                        expected.add(word);
+                    }
+                }
+                List<String> found = trie.find(query, maxEdits);
+                assertEquals(expected, new HashSet<>(found));
+                assertEquals(expected.size(), found.size());
+            }
+        }
+    }
+
+    private static String randomWord(Random random) {
+        StringBuilder word = new StringBuilder();
+        int length = 1 + random.nextInt(6);
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('a' + random.nextInt(4)));
+        }
+        return word.toString();
+    }
+}